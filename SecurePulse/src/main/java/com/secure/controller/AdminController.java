@@ -1,7 +1,13 @@
 package com.secure.controller;
 
+import com.secure.exception.CustomException;
 import com.secure.model.Admin;
+import com.secure.model.TransactionFilter;
+import com.secure.services.AdminDashboardService;
 import com.secure.services.AdminService;
+import com.secure.services.HotAccountService;
+import com.secure.services.LedgerService;
+import com.secure.utils.AdminEventBus;
 import com.secure.utils.ApplicationCache;
 import com.secure.utils.EmailProvider;
 import com.secure.utils.OtpProvider;
@@ -9,9 +15,12 @@ import com.secure.utils.TemplateProvider;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -23,15 +32,27 @@ public class AdminController {
     private final OtpProvider otpProvider;
     private final AdminService adminService;
     private final TemplateProvider templateProvider;
+    private final LedgerService ledgerService;
+    private final HotAccountService hotAccountService;
+    private final AdminEventBus adminEventBus;
+    private final AdminDashboardService adminDashboardService;
 
     public AdminController(EmailProvider emailProvider,
                            OtpProvider otpProvider,
                            AdminService adminService,
-                           TemplateProvider templateProvider) {
+                           TemplateProvider templateProvider,
+                           LedgerService ledgerService,
+                           HotAccountService hotAccountService,
+                           AdminEventBus adminEventBus,
+                           AdminDashboardService adminDashboardService) {
         this.emailProvider = emailProvider;
         this.otpProvider = otpProvider;
         this.adminService = adminService;
         this.templateProvider = templateProvider;
+        this.ledgerService = ledgerService;
+        this.hotAccountService = hotAccountService;
+        this.adminEventBus = adminEventBus;
+        this.adminDashboardService = adminDashboardService;
     }
 
     // Authenticates admin using email and password, sets JWT token in response
@@ -69,6 +90,29 @@ public class AdminController {
     }
 
 
+    // Opens a live feed of new transactions, mark changes and blocks as Server-Sent Events
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            return ResponseEntity.ok(adminEventBus.subscribe());
+        } catch (CustomException e) {
+            return ResponseEntity.status(503).build();
+        }
+    }
+
+    // Returns everything the dashboard shows in one response; sections that could not be loaded are listed under "unavailable"
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Object>> getDashboard() {
+        try {
+            return ResponseEntity.ok(adminDashboardService.getDashboard());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error loading dashboard"
+            ));
+        }
+    }
+
     // Retrieves admin details by ID
     @GetMapping("/{id}")
     public ResponseEntity<Map<String,Object>> getAdminById(@PathVariable Integer id) {
@@ -127,6 +171,26 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllLatestTransactions());
     }
 
+    // Searches all transactions by bank, flag, mark, amount, time range or account, one keyset page at a time
+    @GetMapping("/transactions")
+    public ResponseEntity<Map<String, Object>> searchTransactions(@ModelAttribute TransactionFilter filter,
+                                                                  @RequestParam(required = false) String before,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.searchTransactions(filter, before, limit));
+        } catch (CustomException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error searching transactions"
+            ));
+        }
+    }
+
     // Retrieves detailed information for a specific transaction
     @GetMapping("/transaction/{transactionId}")
     public ResponseEntity<Object> getTransactionDetails(@PathVariable Integer transactionId) {
@@ -245,4 +309,81 @@ public class AdminController {
             ));
         }
     }
+
+    // Marks many suspicious transactions as normal or fraud at once, with a result per transaction
+    @PutMapping("/transactions/review")
+    public ResponseEntity<Map<String,Object>> reviewTransactions(@RequestBody Map<String, Object> request) {
+        try {
+            if (!(request.get("transactionIds") instanceof List<?> entries)) {
+                throw new CustomException("transactionIds must be a list");
+            }
+            List<Integer> transactionIds = new ArrayList<>();
+            for (Object entry : entries) {
+                try {
+                    transactionIds.add(Integer.valueOf(String.valueOf(entry)));
+                } catch (NumberFormatException e) {
+                    throw new CustomException("Invalid transaction id: " + entry);
+                }
+            }
+            Object decision = request.get("decision");
+            return ResponseEntity.ok(adminService.reviewTransactions(transactionIds, decision != null ? decision.toString() : null));
+        } catch (CustomException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error reviewing transactions"
+            ));
+        }
+    }
+
+    // Recomputes stored account balances from the ledger
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<Map<String,Object>> rebuildBalances() {
+        try {
+            int corrected = ledgerService.rebuildBalances();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", corrected + " account balances corrected"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error rebuilding balances"
+            ));
+        }
+    }
+
+    // Turns sharded hot-account mode on or off for a heavily credited account
+    @PutMapping("/accounts/{accountNumber}/hot")
+    public ResponseEntity<Map<String,Object>> setHotAccount(@PathVariable String accountNumber,
+                                                            @RequestBody Map<String, Boolean> request) {
+        Boolean enabled = request.get("enabled");
+        if (enabled == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "enabled is required"
+            ));
+        }
+        try {
+            hotAccountService.setHot(accountNumber, enabled);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", enabled ? "Hot account mode enabled" : "Hot account mode disabled"
+            ));
+        } catch (CustomException e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "success", false,
+                    "message", "Error updating hot account mode"
+            ));
+        }
+    }
 }
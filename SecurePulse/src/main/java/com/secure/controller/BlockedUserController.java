@@ -4,6 +4,9 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.secure.exception.CustomException;
 import com.secure.model.BlockedUser;
 import com.secure.repository.BlockedUserRepository;
+import com.secure.services.BlockedUserIndex;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.BlockedUsersCache;
 import com.secure.utils.EmailProvider;
 import com.secure.utils.JwtProvider;
 import com.secure.utils.TemplateProvider;
@@ -29,16 +32,25 @@ public class BlockedUserController {
     private final EmailProvider emailProvider;
     private final JwtProvider jwtProvider;
     private final TemplateProvider templateProvider;
+    private final AdminEventBus adminEventBus;
+    private final BlockedUsersCache blockedUsersCache;
+    private final BlockedUserIndex blockedUserIndex;
 
     @Autowired
     public BlockedUserController(BlockedUserRepository blockedUserRepository,
                                  EmailProvider emailProvider,
                                  JwtProvider jwtProvider,
-                                 TemplateProvider templateProvider) {
+                                 TemplateProvider templateProvider,
+                                 AdminEventBus adminEventBus,
+                                 BlockedUsersCache blockedUsersCache,
+                                 BlockedUserIndex blockedUserIndex) {
         this.blockedUserRepository = blockedUserRepository;
         this.emailProvider = emailProvider;
         this.jwtProvider = jwtProvider;
         this.templateProvider = templateProvider;
+        this.adminEventBus = adminEventBus;
+        this.blockedUsersCache = blockedUsersCache;
+        this.blockedUserIndex = blockedUserIndex;
     }
 
     /**
@@ -144,6 +156,18 @@ public class BlockedUserController {
             String messageBody = templateProvider.buildAccountSuspendedEmail(reason, timeStamp);
 
             blockedUserRepository.save(blockedUser);
+            blockedUsersCache.invalidate();
+            blockedUserIndex.block(blockedUser);
+
+            // Announce the block on the admin live feed
+            Map<String, Object> event = new HashMap<>();
+            event.put("id", blockedUser.getId());
+            event.put("email", userEmail);
+            event.put("bankName", userBank);
+            event.put("reason", reason);
+            event.put("createdAt", blockedUser.getCreatedAt());
+            adminEventBus.publish(AdminEventBus.BLOCKED, event);
+
             emailProvider.sendEmail(userEmail, subject, messageBody);
 
             response.put("status", "success");
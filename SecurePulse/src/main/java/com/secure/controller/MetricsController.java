@@ -0,0 +1,95 @@
+package com.secure.controller;
+
+import com.secure.services.AdminDashboardService;
+import com.secure.services.BankStatsService;
+import com.secure.services.HotAccountService;
+import com.secure.services.LedgerService;
+import com.secure.services.NotificationDispatcher;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.RecentActivityCache;
+import com.secure.utils.TransferLanes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller exposing runtime counters of the transfer pipeline for the admin dashboard.
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+public class MetricsController {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final LedgerService ledgerService;
+    private final HotAccountService hotAccountService;
+    private final TransferLanes transferLanes;
+    private final RecentActivityCache recentActivityCache;
+    private final BankStatsService bankStatsService;
+    private final AdminEventBus adminEventBus;
+    private final AdminDashboardService adminDashboardService;
+
+    public MetricsController(NotificationDispatcher notificationDispatcher, LedgerService ledgerService,
+                             HotAccountService hotAccountService, TransferLanes transferLanes,
+                             RecentActivityCache recentActivityCache, BankStatsService bankStatsService,
+                             AdminEventBus adminEventBus, AdminDashboardService adminDashboardService) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.ledgerService = ledgerService;
+        this.hotAccountService = hotAccountService;
+        this.transferLanes = transferLanes;
+        this.recentActivityCache = recentActivityCache;
+        this.bankStatsService = bankStatsService;
+        this.adminEventBus = adminEventBus;
+        this.adminDashboardService = adminDashboardService;
+    }
+
+    // Returns outbox delivery counters and the SMTP circuit breaker state
+    @GetMapping("/notifications")
+    public ResponseEntity<Map<String, Object>> getNotificationStats() {
+        return ResponseEntity.ok(notificationDispatcher.stats());
+    }
+
+    // Returns balance snapshot counters, including balances found to differ from the ledger
+    @GetMapping("/ledger")
+    public ResponseEntity<Map<String, Object>> getLedgerStats() {
+        return ResponseEntity.ok(ledgerService.stats());
+    }
+
+    // Returns hot-account slot credit and sweep counters
+    @GetMapping("/hot-accounts")
+    public ResponseEntity<Map<String, Object>> getHotAccountStats() {
+        return ResponseEntity.ok(hotAccountService.stats());
+    }
+
+    // Returns transfer lane queue depths and group commit counters
+    @GetMapping("/lanes")
+    public ResponseEntity<Map<String, Object>> getLaneStats() {
+        return ResponseEntity.ok(transferLanes.stats());
+    }
+
+    // Returns hit, miss and eviction counters of the per-user recent activity cache
+    @GetMapping("/recent-activity")
+    public ResponseEntity<Map<String, Object>> getRecentActivityStats() {
+        return ResponseEntity.ok(recentActivityCache.stats());
+    }
+
+    // Returns reconciliation counters of the per-bank dashboard counters, including corrected drift
+    @GetMapping("/bank-stats")
+    public ResponseEntity<Map<String, Object>> getBankStatsReconciliation() {
+        return ResponseEntity.ok(bankStatsService.stats());
+    }
+
+    // Returns subscriber count and published, delivered and dropped events of the admin live feed
+    @GetMapping("/stream")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(adminEventBus.stats());
+    }
+
+    // Returns load, cache hit, shared load and failed section counters of the dashboard snapshot
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Object>> getDashboardStats() {
+        return ResponseEntity.ok(adminDashboardService.stats());
+    }
+}
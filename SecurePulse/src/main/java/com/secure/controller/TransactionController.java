@@ -2,17 +2,30 @@ package com.secure.controller;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.secure.exception.CustomException;
+import com.secure.model.BatchTransferItem;
+import com.secure.services.StatementExportService;
 import com.secure.services.TransactionService;
 import com.secure.utils.DecryptionProvider;
 import com.secure.utils.JwtProvider;
+import com.secure.utils.TransferLanes;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Controller responsible for handling transaction-related endpoints such as
@@ -25,21 +38,32 @@ public class TransactionController {
     private final TransactionService transactionService;
     private final JwtProvider jwtProvider;
     private final DecryptionProvider Decrypt;
+    private final TransferLanes transferLanes;
+    private final StatementExportService statementExportService;
 
     @Autowired
     public TransactionController(TransactionService transactionService,
                                  JwtProvider jwtProvider,
-                                 DecryptionProvider decrypt) {
+                                 DecryptionProvider decrypt,
+                                 TransferLanes transferLanes,
+                                 StatementExportService statementExportService) {
         this.transactionService = transactionService;
         this.jwtProvider = jwtProvider;
         this.Decrypt = decrypt;
+        this.transferLanes = transferLanes;
+        this.statementExportService = statementExportService;
     }
 
     /**
      * Endpoint to initiate a transaction from the authenticated user to a beneficiary.
      *
+     * A retried request carrying the same Idempotency-Key header gets the original response back.
+     * The transfer is applied on its sender's lane; if it has not committed within the lane deadline
+     * the endpoint answers 202 with a reference (the Idempotency-Key, generated when absent) that
+     * can be polled on /status/{reference}.
+     *
      * @param requestBody Encrypted request payload containing transaction details.
-     * @param request     HTTP request to extract JWT token for sender identification.
+     * @param request     HTTP request to extract JWT token and the optional Idempotency-Key header.
      * @return ResponseEntity containing transaction status or error details.
      */
     @PostMapping("/add")
@@ -63,12 +87,26 @@ public class TransactionController {
             Integer senderId = decodedJWT.getClaim("userId").asInt();
             String userBank = decodedJWT.getClaim("userBank").asString();
 
-            // Perform transaction using service layer
-            Map<String, Object> response = transactionService.addTransaction(
-                    senderId, receiverId, receiverAccountNumber, amountTransferred, ifscCode, userBank, desc, otpAttempt
+            // Optional client key that makes retries of the same transfer safe; it doubles as the poll reference
+            String idempotencyKey = request.getHeader("Idempotency-Key");
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                idempotencyKey = UUID.randomUUID().toString();
+            }
+
+            // Queue the transfer on the sender's lane and wait for its commit up to the deadline
+            CompletableFuture<Map<String, Object>> pending = transactionService.submitTransaction(
+                    senderId, receiverId, receiverAccountNumber, amountTransferred, ifscCode, userBank, desc, otpAttempt, idempotencyKey
             );
 
-            return ResponseEntity.ok(response);
+            try {
+                return ResponseEntity.ok(pending.get(transferLanes.getDeadlineMillis(), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                        Map.of("status", true, "message", "Transaction is being processed", "reference", idempotencyKey)
+                );
+            } catch (ExecutionException e) {
+                throw new CustomException("Transaction failed: " + e.getCause().getMessage());
+            }
 
         } catch (CustomException e) {
             // Handle business logic exceptions
@@ -84,15 +122,106 @@ public class TransactionController {
     }
 
     /**
-     * Endpoint to retrieve all transactions related to a specific user.
+     * Endpoint to poll a transfer that was still being processed when /add answered.
+     *
+     * @param reference The reference returned by /add (the transfer's Idempotency-Key).
+     * @param request   HTTP request to extract JWT token for sender identification.
+     * @return ResponseEntity containing the transfer's response or its processing status.
+     */
+    @GetMapping("/status/{reference}")
+    public ResponseEntity<Map<String, Object>> getTransferStatus(@PathVariable String reference, HttpServletRequest request) {
+        try {
+            String authToken = jwtProvider.extractAuthToken(request);
+            DecodedJWT decodedJWT = jwtProvider.extractClaims(authToken);
+            if (decodedJWT == null) {
+                throw new CustomException("Invalid JWT Token");
+            }
+
+            Integer senderId = decodedJWT.getClaim("userId").asInt();
+            return ResponseEntity.ok(transactionService.getTransferStatus(senderId, reference));
+
+        } catch (CustomException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                    Map.of("status", false, "message", e.getMessage())
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                    Map.of("status", false, "message", "An unexpected error occurred: " + e.getMessage())
+            );
+        }
+    }
+
+    /**
+     * Endpoint to submit many transfers from the authenticated user in one request.
+     * The JWT is verified once and every entry is decrypted up front; the service then
+     * applies all valid entries together and reports a result per entry.
+     *
+     * @param requestBody Payload with a "transfers" array of encrypted entries shaped like /add.
+     * @param request     HTTP request to extract JWT token for sender identification.
+     * @return ResponseEntity containing the per-entry results or error details.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> addBatchTransactions(@RequestBody Map<String, Object> requestBody, HttpServletRequest request) {
+        try {
+            // Extract and validate sender details from JWT token
+            String authToken = jwtProvider.extractAuthToken(request);
+            DecodedJWT decodedJWT = jwtProvider.extractClaims(authToken);
+            if (decodedJWT == null) {
+                throw new CustomException("Invalid JWT Token");
+            }
+
+            Integer senderId = decodedJWT.getClaim("userId").asInt();
+            String userBank = decodedJWT.getClaim("userBank").asString();
+
+            if (!(requestBody.get("transfers") instanceof List<?> entries)) {
+                throw new CustomException("transfers must be a list");
+            }
+
+            // Decrypt every entry before anything is applied
+            List<BatchTransferItem> items = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                try {
+                    Map<?, ?> entry = (Map<?, ?>) entries.get(i);
+                    items.add(new BatchTransferItem(
+                            i,
+                            Integer.parseInt(Decrypt.decryptString(entry.get("eSelectedBeneficiaryID").toString())),
+                            Decrypt.decryptString((String) entry.get("eReceiverAcc")),
+                            new BigDecimal(Decrypt.decryptString(entry.get("eAmount").toString())),
+                            Decrypt.decryptString((String) entry.get("eIfscCodeUser")),
+                            (String) entry.get("description")
+                    ));
+                } catch (Exception e) {
+                    throw new CustomException("Invalid transfer at index " + i);
+                }
+            }
+
+            return ResponseEntity.ok(transactionService.addBatchTransactions(senderId, userBank, items));
+
+        } catch (CustomException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                    Map.of("status", false, "message", e.getMessage())
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                    Map.of("status", false, "message", "An unexpected error occurred: " + e.getMessage())
+            );
+        }
+    }
+
+    /**
+     * Endpoint to retrieve a page of the transactions related to a specific user, newest first.
      *
      * @param userId ID of the user whose transactions are to be fetched.
-     * @return ResponseEntity containing list of transactions or error message.
+     * @param before Cursor returned as nextCursor by the previous page; omitted for the newest page.
+     * @param limit  Maximum number of transactions in the page.
+     * @return ResponseEntity containing the page of transactions and the next cursor, or error message.
      */
     @GetMapping("/get/{userId}")
-    public ResponseEntity<Map<String, Object>> getTransactionsByUserId(@PathVariable Integer userId) {
+    public ResponseEntity<Map<String, Object>> getTransactionsByUserId(@PathVariable Integer userId,
+                                                                       @RequestParam(required = false) String before,
+                                                                       @RequestParam(defaultValue = "50") int limit) {
         try {
-            Map<String, Object> response = transactionService.getTransactionsByUserId(userId);
+            Map<String, Object> response = transactionService.getTransactionsByUserId(userId, before, limit);
             return ResponseEntity.ok(response);
         } catch (CustomException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
@@ -104,4 +233,45 @@ public class TransactionController {
             );
         }
     }
+
+    /**
+     * Endpoint to download the full transaction history of the authenticated user as CSV or NDJSON.
+     * Rows are written to the response while they are read from the database.
+     *
+     * @param format  csv (default) or ndjson.
+     * @param request HTTP request to extract JWT token for user identification.
+     * @return ResponseEntity streaming the statement, or error message for an invalid token or unknown format.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTransactions(@RequestParam(defaultValue = "csv") String format,
+                                                HttpServletRequest request) {
+        Integer userId;
+        StatementExportService.Format exportFormat;
+        try {
+            // The statement always belongs to the caller named in the JWT token
+            String authToken = jwtProvider.extractAuthToken(request);
+            DecodedJWT decodedJWT = jwtProvider.extractClaims(authToken);
+            if (decodedJWT == null) {
+                throw new CustomException("Invalid JWT Token");
+            }
+
+            userId = decodedJWT.getClaim("userId").asInt();
+            exportFormat = statementExportService.parseFormat(format);
+        } catch (CustomException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                    Map.of("status", false, "message", e.getMessage())
+            );
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
+                    Map.of("status", false, "message", "An unexpected error occurred: " + e.getMessage())
+            );
+        }
+
+        StreamingResponseBody body = out -> statementExportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + userId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
 }
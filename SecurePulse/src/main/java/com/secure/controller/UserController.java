@@ -3,8 +3,6 @@ package com.secure.controller;
 
 
 import com.secure.exception.CustomException;
-import com.secure.model.BlockedUser;
-import com.secure.repository.BlockedUserRepository;
 import com.secure.services.*;
 import com.secure.utils.*;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +17,6 @@ import jakarta.servlet.http.HttpServletResponse;
 
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -32,29 +28,31 @@ import java.util.Map;
 @RequestMapping("api/users")
 public class UserController {
 
+    private static final String INVALID_LOGIN_MESSAGE = "Invalid email or password or user with selected bank not exists.";
+
     private final JwtProvider jwtProvider;
-    private final BlockedUserRepository blockedUserRepository;
     private final UserService dataOperations;
     private final DecryptionProvider Decrpt;
     private final OtpProvider otpProvider;
     private final EmailProvider emailProvider;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     private final TemplateProvider templateProvider;
+    private final BlockedUserIndex blockedUserIndex;
 
     public UserController(JwtProvider jwtProvider,
-                          BlockedUserRepository blockedUserRepository,
                           UserService dataOperations,
                           DecryptionProvider decrpt,
                           OtpProvider otpProvider,
                           EmailProvider emailProvider,
-                          TemplateProvider templateProvider) {
+                          TemplateProvider templateProvider,
+                          BlockedUserIndex blockedUserIndex) {
         this.jwtProvider = jwtProvider;
-        this.blockedUserRepository = blockedUserRepository;
         this.dataOperations = dataOperations;
         this.Decrpt = decrpt;
         this.otpProvider = otpProvider;
         this.emailProvider = emailProvider;
         this.templateProvider = templateProvider;
+        this.blockedUserIndex = blockedUserIndex;
     }
 
     /**
@@ -121,33 +119,25 @@ public class UserController {
 //    }
 
     /**
-     * Logs in user, checks if blocked, and issues JWT token in HttpOnly cookie.
+     * Logs in user and issues JWT token in HttpOnly cookie. Blocked users get the same response as a wrong password.
      */
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> loginUser(@RequestBody Map<String, String> loginRequest, @RequestParam String bank, HttpServletResponse response) {
         try {
              String email = Decrpt.decryptString(loginRequest.get("encryptedEmail"));
+
+            // Refuse blocked users before spending a password hash on them, with the same answer as a
+            // wrong password so the response does not reveal which emails are blocked
+            if (blockedUserIndex.isBlocked(email, bank)) {
+                return ResponseEntity.ok(Map.of("status", false, "message", INVALID_LOGIN_MESSAGE));
+            }
+
              String password = Decrpt.decryptString(loginRequest.get("encryptedPassword"));
-             System.out.println(password);
             Optional<User> userOptional = dataOperations.getUserByEmailAndPassword(email, password, bank);
 
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
 
-                // Check if user is blocked
-                Optional<BlockedUser> isBlocked = blockedUserRepository.findByEmailAndBankName(email, bank);
-                if (isBlocked.isPresent()) {
-                    BlockedUser blockedUser = isBlocked.get();
-                    Instant createdAt = blockedUser.getCreatedAt().toInstant();
-                    Instant oneHourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
-
-                    if (createdAt.isBefore(oneHourAgo)) {
-                        blockedUserRepository.delete(blockedUser);
-                    } else {
-                        return ResponseEntity.ok(Map.of("status", false, "message", "User is blocked for malicious activity."));
-                    }
-                }
-
                 // Issue token
                 String token = jwtProvider.generateToken(user, bank);
                 Cookie cookie = new Cookie("auth_token", token);
@@ -172,7 +162,7 @@ public class UserController {
                         "user", userDetails
                 ));
             } else {
-                return ResponseEntity.ok(Map.of("status", false, "message", "Invalid email or password or user with selected bank not exists."));
+                return ResponseEntity.ok(Map.of("status", false, "message", INVALID_LOGIN_MESSAGE));
             }
         } catch (CustomException e) {
             return ResponseEntity.ok(Map.of("status", false, "message", e.getMessage()));
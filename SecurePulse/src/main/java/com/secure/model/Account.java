@@ -1,6 +1,8 @@
 package com.secure.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -28,6 +30,11 @@ public class Account {
     @Column(name = "balance", nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;  // ✅ Using BigDecimal
 
+    // Funds held for suspicious transfers awaiting admin review; not part of the available balance
+    @ColumnDefault("0")
+    @Column(name = "reserved_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal reservedBalance = BigDecimal.ZERO;
+
     @Column(name = "ifsc_code", nullable = false, length = 11)
     private String ifscCode;
 
@@ -35,6 +42,11 @@ public class Account {
     @Column(name = "status", nullable = false)
     private AccountStatus status;
 
+    // Hot accounts take credits into sharded AccountSlot rows instead of this row
+    @JsonIgnore
+    @Column(name = "hot")
+    private Boolean hot = false;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -79,12 +91,19 @@ public class Account {
     public BigDecimal getBalance() { return balance; }
     public void setBalance(BigDecimal balance) { this.balance = balance; }
 
+    public BigDecimal getReservedBalance() { return reservedBalance; }
+    public void setReservedBalance(BigDecimal reservedBalance) { this.reservedBalance = reservedBalance; }
+
     public String getIfscCode() { return ifscCode; }
     public void setIfscCode(String ifscCode) { this.ifscCode = ifscCode; }
 
     public AccountStatus getStatus() { return status; }
     public void setStatus(AccountStatus status) { this.status = status; }
 
+    @JsonIgnore
+    public boolean isHot() { return Boolean.TRUE.equals(hot); }
+    public void setHot(boolean hot) { this.hot = hot; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,51 @@
+package com.secure.model;
+
+// Account together with the name of the user holding it, read in one query for admin transaction lists
+public class AccountHolder {
+    private String accountNumber;
+    private String bank;
+    private String ifscCode;
+    private Integer userId;
+    private String firstName;
+    private String lastName;
+
+
+    public AccountHolder(String accountNumber, String bank, String ifscCode,
+                         Integer userId, String firstName, String lastName) {
+        this.accountNumber = accountNumber;
+        this.bank = bank;
+        this.ifscCode = ifscCode;
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public String getBank() {
+        return bank;
+    }
+
+    public String getIfscCode() {
+        return ifscCode;
+    }
+
+    // Null when the account's user no longer exists
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public boolean hasUser() {
+        return userId != null;
+    }
+}
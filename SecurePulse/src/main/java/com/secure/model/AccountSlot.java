@@ -0,0 +1,49 @@
+package com.secure.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a hot account. Credits to a hot account land on a random slot so
+ * concurrent payers update different rows; slots are swept back into the account row
+ * by consolidation or when a debit needs the funds.
+ */
+@Entity
+@Table(name = "account_slot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_slot", columnNames = {"account_number", "slot"}))
+public class AccountSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    public AccountSlot() {
+    }
+
+    public AccountSlot(String accountNumber, Integer slot) {
+        this.accountNumber = accountNumber;
+        this.slot = slot;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public Integer getSlot() { return slot; }
+    public void setSlot(Integer slot) { this.slot = slot; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
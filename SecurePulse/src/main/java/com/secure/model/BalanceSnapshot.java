@@ -0,0 +1,59 @@
+package com.secure.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of an account including every ledger entry up to and including {@code lastEntryId}.
+ */
+@Entity
+@Table(name = "balance_snapshot",
+        indexes = @Index(name = "idx_snapshot_account_id", columnList = "account_number, id"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(name = "balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "last_entry_id", nullable = false)
+    private Long lastEntryId;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(String accountNumber, BigDecimal balance, Long lastEntryId) {
+        this.accountNumber = accountNumber;
+        this.balance = balance;
+        this.lastEntryId = lastEntryId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public Long getLastEntryId() { return lastEntryId; }
+    public void setLastEntryId(Long lastEntryId) { this.lastEntryId = lastEntryId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
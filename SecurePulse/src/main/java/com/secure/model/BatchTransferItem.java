@@ -0,0 +1,49 @@
+package com.secure.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One decrypted entry of a batch transfer request, kept in submission order.
+ */
+public class BatchTransferItem {
+    private final int index;
+    private final Integer beneficiaryId;
+    private final String receiverAccountNumber;
+    private final BigDecimal amount;
+    private final String ifscCode;
+    private final String description;
+
+    public BatchTransferItem(int index, Integer beneficiaryId, String receiverAccountNumber,
+                             BigDecimal amount, String ifscCode, String description) {
+        this.index = index;
+        this.beneficiaryId = beneficiaryId;
+        this.receiverAccountNumber = receiverAccountNumber;
+        this.amount = amount;
+        this.ifscCode = ifscCode;
+        this.description = description;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Integer getBeneficiaryId() {
+        return beneficiaryId;
+    }
+
+    public String getReceiverAccountNumber() {
+        return receiverAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getIfscCode() {
+        return ifscCode;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "BlockedUser")
+@Table(name = "BlockedUser",
+        indexes = @Index(name = "idx_blocked_user_created_at", columnList = "created_at"))
 public class BlockedUser {
 
     @Id
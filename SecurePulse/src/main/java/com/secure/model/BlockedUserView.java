@@ -0,0 +1,62 @@
+package com.secure.model;
+
+import java.sql.Timestamp;
+
+// Blocked user row joined to the user's name and account in the blocked bank, read in one query
+public class BlockedUserView {
+    private int id;
+    private String email;
+    private String bankName;
+    private String reason;
+    private Timestamp createdAt;
+    private String firstName;
+    private String lastName;
+    private String accountNumber;
+
+
+    public BlockedUserView(int id, String email, String bankName, String reason, Timestamp createdAt,
+                           String firstName, String lastName, String accountNumber) {
+        this.id = id;
+        this.email = email;
+        this.bankName = bankName;
+        this.reason = reason;
+        this.createdAt = createdAt;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.accountNumber = accountNumber;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getBankName() {
+        return bankName;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    // Null when no user has the blocked email
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    // Null when the user has no account in the blocked bank
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+}
@@ -0,0 +1,82 @@
+package com.secure.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One side of a completed transfer. Entries are only ever inserted; an account's balance is
+ * its latest {@link BalanceSnapshot} plus the entries recorded after it.
+ */
+@Entity
+@Table(name = "ledger_entry",
+        indexes = @Index(name = "idx_ledger_account_id", columnList = "account_number, id"))
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 20)
+    private String accountNumber;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Integer transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 10)
+    private Direction direction;
+
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum Direction {
+        DEBIT, CREDIT
+    }
+
+    public LedgerEntry() {
+    }
+
+    public LedgerEntry(String accountNumber, Integer transactionId, Direction direction, BigDecimal amount) {
+        this.accountNumber = accountNumber;
+        this.transactionId = transactionId;
+        this.direction = direction;
+        this.amount = amount;
+    }
+
+    // The debit and credit pair recorded for one transfer
+    public static List<LedgerEntry> forTransfer(Integer transactionId, String senderAccountNumber,
+                                                String receiverAccountNumber, BigDecimal amount) {
+        return List.of(
+                new LedgerEntry(senderAccountNumber, transactionId, Direction.DEBIT, amount),
+                new LedgerEntry(receiverAccountNumber, transactionId, Direction.CREDIT, amount)
+        );
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public Integer getTransactionId() { return transactionId; }
+    public void setTransactionId(Integer transactionId) { this.transactionId = transactionId; }
+
+    public Direction getDirection() { return direction; }
+    public void setDirection(Direction direction) { this.direction = direction; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
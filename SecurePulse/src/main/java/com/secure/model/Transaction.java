@@ -2,9 +2,22 @@ package com.secure.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "Transactions")
+@Table(name = "Transactions", indexes = {
+        // Keyset scans of a user's statement, one index per side
+        @Index(name = "idx_transactions_sender_statement", columnList = "Sender_ID, Flag, Timestamp, Transaction_ID"),
+        @Index(name = "idx_transactions_receiver_statement", columnList = "Receiver_ID, Flag, Timestamp, Transaction_ID"),
+        // Newest-first scans of a bank's transactions, one index per side
+        @Index(name = "idx_transactions_sender_bank", columnList = "Sender_Bank, Timestamp"),
+        @Index(name = "idx_transactions_receiver_bank", columnList = "Receiver_Bank, Timestamp"),
+        // Keyset pages of the admin transaction search, unfiltered or filtered by mark or account
+        @Index(name = "idx_transactions_timestamp", columnList = "Timestamp, Transaction_ID"),
+        @Index(name = "idx_transactions_marked", columnList = "Marked, Timestamp"),
+        @Index(name = "idx_transactions_sender_account", columnList = "Sender_Account_Number, Timestamp"),
+        @Index(name = "idx_transactions_receiver_account", columnList = "Receiver_Account_Number, Timestamp")
+})
 public class Transaction {
 
     @Id
@@ -46,6 +59,13 @@ public class Transaction {
     @Column(name = "Sender_Account_Number", nullable = false, length = 20)
     private String senderAccountNumber;
 
+    // Banks of the two accounts, copied when the row is written so bank views can filter on an index
+    @Column(name = "Sender_Bank", length = 10)
+    private String senderBank;
+
+    @Column(name = "Receiver_Bank", length = 10)
+    private String receiverBank;
+
     @Column(name = "Amount_Transferred", precision = 15, scale = 2, nullable = false)
     private BigDecimal amountTransferred;
 
@@ -55,8 +75,9 @@ public class Transaction {
     @Column(name = "Otp_ATTEMPT", nullable = false, columnDefinition = "INT DEFAULT 0")
     private Integer otpAttempt = 0;
 
+    // The column keeps whole seconds; truncating here keeps the in-memory value equal to the stored one
     @Column(name = "Timestamp", nullable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
-    private LocalDateTime timestamp = LocalDateTime.now();
+    private LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
     @Enumerated(EnumType.STRING)
     @Column(name = "Flag", nullable = false)
@@ -66,6 +87,15 @@ public class Transaction {
     @Column(name = "Marked", nullable = false)
     private TransactionMarked marked = TransactionMarked.NORMAL;
 
+    // Client-supplied Idempotency-Key, prefixed with the sender id; unique so a retried request cannot apply twice
+    @Column(name = "Idempotency_Key", unique = true, length = 80)
+    private String idempotencyKey;
+
+    // True when the amount of a suspicious transfer is held on the sender's reserved balance;
+    // suspicious transfers saved before holds existed moved no money and are null
+    @Column(name = "Funds_Held")
+    private Boolean fundsHeld;
+
     public enum TransactionFlag {
         PENDING, COMPLETED, FAILED, REJECTED
     }
@@ -118,6 +148,22 @@ public class Transaction {
         this.senderAccountNumber = senderAccountNumber;
     }
 
+    public String getSenderBank() {
+        return senderBank;
+    }
+
+    public void setSenderBank(String senderBank) {
+        this.senderBank = senderBank;
+    }
+
+    public String getReceiverBank() {
+        return receiverBank;
+    }
+
+    public void setReceiverBank(String receiverBank) {
+        this.receiverBank = receiverBank;
+    }
+
     public BigDecimal getAmountTransferred() {
         return amountTransferred;
     }
@@ -165,4 +211,20 @@ public class Transaction {
     public void setMarked(TransactionMarked marked) {
         this.marked = marked;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public boolean isFundsHeld() {
+        return Boolean.TRUE.equals(fundsHeld);
+    }
+
+    public void setFundsHeld(boolean fundsHeld) {
+        this.fundsHeld = fundsHeld;
+    }
 }
@@ -0,0 +1,30 @@
+package com.secure.model;
+
+/**
+ * Everything a single transfer needs for validation, loaded in one query.
+ * Each part is null when the corresponding row does not exist. The accounts are
+ * read-only snapshots; balances are changed only through conditional updates.
+ */
+public class TransferContext {
+    private final Beneficiary beneficiary;
+    private final Account senderAccount;
+    private final Account receiverAccount;
+
+    public TransferContext(Beneficiary beneficiary, Account senderAccount, Account receiverAccount) {
+        this.beneficiary = beneficiary;
+        this.senderAccount = senderAccount;
+        this.receiverAccount = receiverAccount;
+    }
+
+    public Beneficiary getBeneficiary() {
+        return beneficiary;
+    }
+
+    public Account getSenderAccount() {
+        return senderAccount;
+    }
+
+    public Account getReceiverAccount() {
+        return receiverAccount;
+    }
+}
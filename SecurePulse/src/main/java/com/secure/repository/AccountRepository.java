@@ -1,11 +1,17 @@
 package com.secure.repository;
 
 import com.secure.model.Account;
+import com.secure.model.AccountHolder;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,14 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
     // Find an account by account number
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    // Find all accounts with the given account numbers in one query
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    // Accounts with the given numbers joined to their holders, in one query
+    @Query("SELECT new com.secure.model.AccountHolder(a.accountNumber, a.bank, a.ifscCode, u.userId, u.firstName, u.lastName) " +
+            "FROM Account a LEFT JOIN User u ON u.userId = a.userId WHERE a.accountNumber IN :accountNumbers")
+    List<AccountHolder> findHoldersByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
     // Find all accounts by bank name
     List<Account> findByBank(String bank);
 
@@ -33,4 +47,51 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
 
     boolean existsByUserIdAndBank(Integer userId, String bank);
 
+    // Debit an account only if it still holds enough funds; returns 0 when the balance is insufficient
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.accountNumber = :accountNumber AND a.balance >= :amount")
+    int debitIfSufficient(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    // Credit an account in place; returns 0 when the account does not exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.accountNumber = :accountNumber")
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    // Moves funds from the available to the reserved balance; returns 0 when the available balance is insufficient
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.reservedBalance = a.reservedBalance + :amount, " +
+            "a.updatedAt = CURRENT_TIMESTAMP WHERE a.accountNumber = :accountNumber AND a.balance >= :amount")
+    int reserveIfSufficient(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    // Pays out reserved funds; returns 0 when less than the amount is reserved
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.reservedBalance = a.reservedBalance - :amount, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.accountNumber = :accountNumber AND a.reservedBalance >= :amount")
+    int captureReserved(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    // Returns reserved funds to the available balance; returns 0 when less than the amount is reserved
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.reservedBalance = a.reservedBalance - :amount, " +
+            "a.updatedAt = CURRENT_TIMESTAMP WHERE a.accountNumber = :accountNumber AND a.reservedBalance >= :amount")
+    int returnReserved(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    // Read the committed balance of an account without loading the entity
+    @Query("SELECT a.balance FROM Account a WHERE a.accountNumber = :accountNumber")
+    BigDecimal findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Account numbers flagged as hot
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.hot = true")
+    List<String> findHotAccountNumbers();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.hot = :hot WHERE a.accountNumber = :accountNumber")
+    int updateHot(@Param("accountNumber") String accountNumber, @Param("hot") Boolean hot);
+
+    // Load an account with its row locked until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
 }
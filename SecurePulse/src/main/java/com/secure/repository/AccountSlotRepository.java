@@ -0,0 +1,38 @@
+package com.secure.repository;
+
+import com.secure.model.AccountSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, Long> {
+
+    // Credit one slot of a hot account; returns 0 when the slot does not exist
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountSlot s SET s.balance = s.balance + :amount " +
+            "WHERE s.accountNumber = :accountNumber AND s.slot = :slot")
+    int credit(@Param("accountNumber") String accountNumber, @Param("slot") Integer slot, @Param("amount") BigDecimal amount);
+
+    // Load all slots of an account with their rows locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountSlot s WHERE s.accountNumber = :accountNumber ORDER BY s.slot")
+    List<AccountSlot> findForUpdateByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Funds credited to the slots and not yet consolidated
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountSlot s WHERE s.accountNumber = :accountNumber")
+    BigDecimal sumBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    List<AccountSlot> findByAccountNumber(String accountNumber);
+
+    // Accounts with credited funds still sitting in their slots
+    @Query("SELECT DISTINCT s.accountNumber FROM AccountSlot s WHERE s.balance <> 0")
+    List<String> findAccountNumbersWithPendingBalance();
+}
@@ -0,0 +1,23 @@
+package com.secure.repository;
+
+import com.secure.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findTopByAccountNumberOrderByIdDesc(String accountNumber);
+
+    // Accounts that have never been snapshotted, e.g. opened before the ledger existed
+    @Query("SELECT a.accountNumber FROM Account a WHERE NOT EXISTS " +
+            "(SELECT s.id FROM BalanceSnapshot s WHERE s.accountNumber = a.accountNumber)")
+    List<String> findAccountNumbersWithoutSnapshot();
+
+    @Query("SELECT DISTINCT s.accountNumber FROM BalanceSnapshot s")
+    List<String> findSnapshottedAccountNumbers();
+}
@@ -1,10 +1,36 @@
 package com.secure.repository;
 
 import com.secure.model.BlockedUser;
+import com.secure.model.BlockedUserView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.Optional;
 
 public interface BlockedUserRepository extends JpaRepository<BlockedUser, Integer> {
     Optional<BlockedUser> findByEmailAndBankName(String email, String bankName);
+
+    // Blocked users with their name and accounts in the blocked bank, newest block first; one row per
+    // account (oldest first), or a single row without user or account details when there are none
+    @Query("SELECT new com.secure.model.BlockedUserView(b.id, b.email, b.bankName, b.reason, b.createdAt, " +
+            "u.firstName, u.lastName, a.accountNumber) " +
+            "FROM BlockedUser b " +
+            "LEFT JOIN User u ON u.email = b.email " +
+            "LEFT JOIN Account a ON a.userId = u.userId AND a.bank = b.bankName " +
+            "ORDER BY b.createdAt DESC, b.id DESC, a.accountId ASC")
+    List<BlockedUserView> findAllWithAccounts();
+
+    // Blocks created before the cutoff; a range scan on idx_blocked_user_created_at
+    List<BlockedUser> findByCreatedAtBefore(Timestamp cutoff);
+
+    // Blocks created after the cutoff, i.e. the ones still active under the block TTL
+    List<BlockedUser> findByCreatedAtAfter(Timestamp cutoff);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BlockedUser b WHERE b.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Timestamp cutoff);
 }
@@ -0,0 +1,33 @@
+package com.secure.repository;
+
+import com.secure.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // Net effect (credits minus debits) of an account's entries with afterId < id <= upToId
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.direction = com.secure.model.LedgerEntry.Direction.CREDIT " +
+            "THEN e.amount ELSE -e.amount END), 0) FROM LedgerEntry e " +
+            "WHERE e.accountNumber = :accountNumber AND e.id > :afterId AND e.id <= :upToId")
+    BigDecimal sumBetween(@Param("accountNumber") String accountNumber,
+                          @Param("afterId") Long afterId,
+                          @Param("upToId") Long upToId);
+
+    // Id of the account's most recent entry, 0 if it has none
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e WHERE e.accountNumber = :accountNumber")
+    Long findMaxIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e")
+    Long findMaxId();
+
+    // Accounts that received entries after the given id
+    @Query("SELECT DISTINCT e.accountNumber FROM LedgerEntry e WHERE e.id > :afterId")
+    List<String> findAccountNumbersWithEntriesAfter(@Param("afterId") Long afterId);
+}
@@ -0,0 +1,48 @@
+package com.secure.repository;
+
+import com.secure.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Pending notifications whose next attempt is due, oldest first
+    @Query("SELECT n FROM NotificationOutbox n WHERE n.status = com.secure.model.NotificationOutbox.OutboxStatus.PENDING " +
+            "AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<NotificationOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claims a notification for one delivery attempt; returns 0 if another dispatcher claimed it first
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.attempts = n.attempts + 1, n.nextAttemptAt = :leaseUntil " +
+            "WHERE n.id = :id AND n.attempts = :attempts " +
+            "AND n.status = com.secure.model.NotificationOutbox.OutboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("attempts") Integer attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.nextAttemptAt = :nextAttemptAt, n.lastError = :lastError " +
+            "WHERE n.id = :id")
+    int updateOutcome(@Param("id") Long id,
+                      @Param("status") NotificationOutbox.OutboxStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    long countByStatus(NotificationOutbox.OutboxStatus status);
+
+    // Removes delivered notifications older than the retention window
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status = com.secure.model.NotificationOutbox.OutboxStatus.SENT " +
+            "AND n.createdAt < :before")
+    int purgeSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,13 +1,18 @@
 package com.secure.repository;
 
 import com.secure.model.Transaction;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
+public interface TransactionRepository extends JpaRepository<Transaction, Integer>, JpaSpecificationExecutor<Transaction> {
     List<Transaction> findBySenderId(Integer senderId);
     List<Transaction> findByReceiverId(Integer receiverId);
     List<Transaction> findByMarked(Transaction.TransactionMarked marked);
@@ -15,18 +20,74 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
     List<Transaction> findBySenderIdAndFlag(Integer senderId,Transaction.TransactionFlag flag);
     List<Transaction> findByReceiverIdAndFlag(Integer recieverId,Transaction.TransactionFlag flag);
 
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
 
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(t.senderAccountNumber IN (SELECT a.accountNumber FROM Account a WHERE a.bank = :bank) OR " +
-            "t.receiverAccountNumber IN (SELECT a.accountNumber FROM Account a WHERE a.bank = :bank)) " +
-            "ORDER BY t.timestamp DESC")
+    // Load a transaction with its row locked until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId = :transactionId")
+    Optional<Transaction> findForUpdateById(@Param("transactionId") Integer transactionId);
+
+    // Load several transactions with their rows locked, in id order so concurrent callers lock alike
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId IN :transactionIds ORDER BY t.transactionId")
+    List<Transaction> findAllForUpdateByIdIn(@Param("transactionIds") Collection<Integer> transactionIds);
+
+    // Rejects the given suspicious transfers as fraud; their held funds must already have been returned
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.flag = com.secure.model.Transaction.TransactionFlag.REJECTED, " +
+            "t.marked = com.secure.model.Transaction.TransactionMarked.FRAUD, t.fundsHeld = false " +
+            "WHERE t.transactionId IN :transactionIds " +
+            "AND t.marked = com.secure.model.Transaction.TransactionMarked.SUSPICIOUS " +
+            "AND t.flag = com.secure.model.Transaction.TransactionFlag.PENDING")
+    int rejectAsFraud(@Param("transactionIds") Collection<Integer> transactionIds);
+
+    // Per bank of the sender account: bank, outgoing, success, failed, suspicious, fraud; banks without transfers count zero
+    @Query(value = "SELECT a.bank, COUNT(t.transaction_id), " +
+            "SUM(CASE WHEN t.flag = 'COMPLETED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.flag = 'FAILED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.marked = 'SUSPICIOUS' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.marked = 'FRAUD' THEN 1 ELSE 0 END) " +
+            "FROM account a LEFT JOIN transactions t ON t.sender_account_number = a.account_number " +
+            "GROUP BY a.bank ORDER BY a.bank", nativeQuery = true)
+    List<Object[]> countOutgoingByBank();
+
+    // Per bank of the receiver account: bank, incoming
+    @Query(value = "SELECT a.bank, COUNT(t.transaction_id) " +
+            "FROM account a LEFT JOIN transactions t ON t.receiver_account_number = a.account_number " +
+            "GROUP BY a.bank", nativeQuery = true)
+    List<Object[]> countIncomingByBank();
+
+
+    // Transactions sent or received by accounts of the bank, newest first; each side is read from its own index
+    @Query(value = "(SELECT t.* FROM transactions t WHERE t.sender_bank = :bank) " +
+            "UNION " +
+            "(SELECT t.* FROM transactions t WHERE t.receiver_bank = :bank) " +
+            "ORDER BY timestamp DESC, transaction_id DESC", nativeQuery = true)
     List<Transaction> findAllByBank(@Param("bank") String bank);
 
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(t.senderAccountNumber IN (SELECT a.accountNumber FROM Account a WHERE a.bank = :bank) OR " +
-            "t.receiverAccountNumber IN (SELECT a.accountNumber FROM Account a WHERE a.bank = :bank)) " +
-            "ORDER BY t.timestamp DESC")
-    List<Transaction> findRecentByBank(@Param("bank") String bank, Pageable pageable);
+    // The newest transactions of the bank; each side stops after limit rows of its index before the merge
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.sender_bank = :bank " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit) " +
+            "UNION " +
+            "(SELECT t.* FROM transactions t WHERE t.receiver_bank = :bank " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit)" +
+            ") bank_transactions ORDER BY timestamp DESC, transaction_id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> findRecentByBank(@Param("bank") String bank, @Param("limit") int limit);
+
+    // Lowest and highest id of rows written before the bank columns existed, or nulls when there are none
+    @Query(value = "SELECT MIN(t.transaction_id), MAX(t.transaction_id) FROM transactions t " +
+            "WHERE t.sender_bank IS NULL OR t.receiver_bank IS NULL", nativeQuery = true)
+    List<Object[]> findIdRangeWithoutBank();
+
+    // Copies the account banks onto the rows in the id range that are still missing them
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE transactions t SET " +
+            "t.sender_bank = (SELECT a.bank FROM account a WHERE a.account_number = t.sender_account_number), " +
+            "t.receiver_bank = (SELECT a.bank FROM account a WHERE a.account_number = t.receiver_account_number) " +
+            "WHERE t.transaction_id BETWEEN :fromId AND :toId " +
+            "AND (t.sender_bank IS NULL OR t.receiver_bank IS NULL)", nativeQuery = true)
+    int backfillBanks(@Param("fromId") int fromId, @Param("toId") int toId);
 }
 
 
@@ -0,0 +1,64 @@
+package com.secure.repository;
+
+import com.secure.model.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Predicates for the admin transaction search. Each filter maps onto an indexed column where one
+ * exists, and {@link #before} turns the keyset cursor into a range condition on (timestamp, id).
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    // Sent or received by an account of the bank
+    public static Specification<Transaction> hasBank(String bank) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("senderBank"), bank),
+                cb.equal(root.get("receiverBank"), bank));
+    }
+
+    // Sent or received by the account
+    public static Specification<Transaction> involvesAccount(String accountNumber) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("senderAccountNumber"), accountNumber),
+                cb.equal(root.get("receiverAccountNumber"), accountNumber));
+    }
+
+    public static Specification<Transaction> hasFlag(Transaction.TransactionFlag flag) {
+        return (root, query, cb) -> cb.equal(root.get("flag"), flag);
+    }
+
+    public static Specification<Transaction> hasMarked(Transaction.TransactionMarked marked) {
+        return (root, query, cb) -> cb.equal(root.get("marked"), marked);
+    }
+
+    public static Specification<Transaction> amountAtLeast(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amountTransferred"), min);
+    }
+
+    public static Specification<Transaction> amountAtMost(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amountTransferred"), max);
+    }
+
+    public static Specification<Transaction> from(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), from);
+    }
+
+    public static Specification<Transaction> to(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("timestamp"), to);
+    }
+
+    // Strictly older than the cursor row in (timestamp, transaction id) order
+    public static Specification<Transaction> before(LocalDateTime timestamp, Integer transactionId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("timestamp"), timestamp),
+                cb.and(
+                        cb.equal(root.get("timestamp"), timestamp),
+                        cb.lessThan(root.get("transactionId"), transactionId)));
+    }
+}
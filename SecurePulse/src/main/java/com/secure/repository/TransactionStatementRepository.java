@@ -0,0 +1,109 @@
+package com.secure.repository;
+
+import com.secure.model.TransactionSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads one page of a user's statement (completed transactions sent and received) straight from
+ * the database, newest first. Each side is a bounded range scan on its composite index starting
+ * just below the cursor, so a page costs the same however deep into the history it is.
+ */
+@Repository
+public class TransactionStatementRepository {
+
+    private static final String SENT =
+            "SELECT t.transaction_id, t.description, t.timestamp, 1 AS sent, " +
+            "t.amount_transferred, t.current_balance_sender AS current_balance " +
+            "FROM transactions t WHERE t.sender_id = ? AND t.flag = 'COMPLETED'";
+
+    private static final String RECEIVED =
+            "SELECT t.transaction_id, t.description, t.timestamp, 0 AS sent, " +
+            "t.amount_transferred, t.current_balance_receiver AS current_balance " +
+            "FROM transactions t WHERE t.receiver_id = ? AND t.flag = 'COMPLETED'";
+
+    private static final String AFTER_CURSOR = " AND (t.timestamp < ? OR (t.timestamp = ? AND t.transaction_id < ?))";
+
+    private static final String BRANCH_ORDER = " ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT ?";
+
+    // A transfer between two accounts of the same user shows up on both sides; the debit is listed first
+    private static final String PAGE_ORDER = " ORDER BY timestamp DESC, transaction_id DESC, sent DESC LIMIT ?";
+
+    private static final String FIRST_PAGE =
+            "SELECT * FROM ((" + SENT + BRANCH_ORDER + ") UNION ALL (" + RECEIVED + BRANCH_ORDER + ")) statement" + PAGE_ORDER;
+
+    private static final String NEXT_PAGE =
+            "SELECT * FROM ((" + SENT + AFTER_CURSOR + BRANCH_ORDER + ") UNION ALL (" +
+            RECEIVED + AFTER_CURSOR + BRANCH_ORDER + ")) statement" + PAGE_ORDER;
+
+    private static final String FULL_HISTORY =
+            "SELECT * FROM ((" + SENT + ") UNION ALL (" + RECEIVED + ")) statement " +
+            "ORDER BY timestamp DESC, transaction_id DESC, sent DESC";
+
+    // Rows fetched per round trip while streaming; needs useCursorFetch=true on MySQL to take effect
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionStatementRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns up to {@code limit} statement lines of the user ordered by (timestamp, transaction id, debit first),
+     * descending, starting after the given cursor line, or from the newest line if the cursor is null.
+     */
+    public List<TransactionSummary> findPage(Integer userId, Cursor before, int limit) {
+        if (before == null) {
+            return jdbcTemplate.query(FIRST_PAGE, (rs, rowNum) -> mapSummary(rs),
+                    userId, limit, userId, limit, limit);
+        }
+
+        Timestamp at = Timestamp.valueOf(before.timestamp());
+        // Lines with the cursor's own id: the debit sorts before the credit, so after a debit cursor its credit still follows
+        int receivedIdBound = before.sent() ? before.transactionId() + 1 : before.transactionId();
+        return jdbcTemplate.query(NEXT_PAGE, (rs, rowNum) -> mapSummary(rs),
+                userId, at, at, before.transactionId(), limit,
+                userId, at, at, receivedIdBound, limit,
+                limit);
+    }
+
+    /**
+     * Hands every statement line of the user, newest first, to the consumer while the result set is
+     * read. Rows are fetched in chunks and never collected, so memory use does not grow with history.
+     */
+    public void streamStatement(Integer userId, Consumer<TransactionSummary> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FULL_HISTORY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setInt(1, userId);
+            statement.setInt(2, userId);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapSummary(rs)));
+    }
+
+    private TransactionSummary mapSummary(ResultSet rs) throws SQLException {
+        boolean sent = rs.getInt("sent") == 1;
+        return new TransactionSummary(
+                rs.getInt("transaction_id"),
+                rs.getString("description"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                sent ? null : rs.getBigDecimal("amount_transferred"),
+                sent ? rs.getBigDecimal("amount_transferred") : null,
+                rs.getBigDecimal("current_balance")
+        );
+    }
+
+    // Position of a statement line; sent marks the debit side of a transfer
+    public record Cursor(LocalDateTime timestamp, int transactionId, boolean sent) {
+    }
+}
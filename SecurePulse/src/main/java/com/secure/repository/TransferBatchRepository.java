@@ -0,0 +1,140 @@
+package com.secure.repository;
+
+import com.secure.model.LedgerEntry;
+import com.secure.model.NotificationOutbox;
+import com.secure.model.Transaction;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * JDBC access used by batch transfers: row locking, set-based balance updates and
+ * batched inserts of transactions and notifications. Must run inside a transaction.
+ */
+@Repository
+public class TransferBatchRepository {
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (sender_id, receiver_id, sender_account_number, receiver_account_number, " +
+            "sender_bank, receiver_bank, amount_transferred, description, otp_attempt, timestamp, flag, marked, " +
+            "current_balance_sender, current_balance_receiver) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notification_outbox (type, transaction_id, recipient_user_id, status, attempts, " +
+            "next_attempt_at, created_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String INSERT_LEDGER_ENTRY =
+            "INSERT INTO ledger_entry (account_number, transaction_id, direction, amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Locks the given accounts in account-number order and returns their current balances
+    public Map<String, BigDecimal> lockBalances(Collection<String> accountNumbers) {
+        if (accountNumbers.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        List<String> ordered = new ArrayList<>(new TreeSet<>(accountNumbers));
+        String placeholders = String.join(",", Collections.nCopies(ordered.size(), "?"));
+
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT account_number, balance FROM account WHERE account_number IN (" + placeholders + ") " +
+                "ORDER BY account_number FOR UPDATE",
+                rs -> {
+                    balances.put(rs.getString("account_number"), rs.getBigDecimal("balance"));
+                },
+                ordered.toArray());
+        return balances;
+    }
+
+    // Debits an account only if it holds enough funds; returns 0 when it does not
+    public int debitIfSufficient(String accountNumber, BigDecimal amount) {
+        return jdbcTemplate.update(
+                "UPDATE account SET balance = balance - ?, updated_at = CURRENT_TIMESTAMP " +
+                "WHERE account_number = ? AND balance >= ?",
+                amount, accountNumber, amount);
+    }
+
+    // Applies one aggregated credit per account in a single JDBC batch
+    public void credit(Map<String, BigDecimal> creditsByAccount) {
+        List<Object[]> args = new ArrayList<>();
+        new TreeMap<>(creditsByAccount).forEach((accountNumber, amount) -> args.add(new Object[]{amount, accountNumber}));
+        jdbcTemplate.batchUpdate(
+                "UPDATE account SET balance = balance + ?, updated_at = CURRENT_TIMESTAMP WHERE account_number = ?",
+                args);
+    }
+
+    // Inserts the transactions in one JDBC batch and assigns their generated ids
+    public void insertTransactions(List<Transaction> transactions) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_TRANSACTION, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction t = transactions.get(i);
+                        ps.setInt(1, t.getSenderId());
+                        ps.setInt(2, t.getReceiverId());
+                        ps.setString(3, t.getSenderAccountNumber());
+                        ps.setString(4, t.getReceiverAccountNumber());
+                        ps.setString(5, t.getSenderBank());
+                        ps.setString(6, t.getReceiverBank());
+                        ps.setBigDecimal(7, t.getAmountTransferred());
+                        ps.setString(8, t.getDescription());
+                        ps.setInt(9, t.getOtpAttempt());
+                        ps.setTimestamp(10, Timestamp.valueOf(t.getTimestamp()));
+                        ps.setString(11, t.getFlag().name());
+                        ps.setString(12, t.getMarked().name());
+                        ps.setBigDecimal(13, t.getCurrentBalanceSender());
+                        ps.setBigDecimal(14, t.getCurrentBalanceReceiver());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < transactions.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            transactions.get(i).setTransactionId(id.intValue());
+        }
+    }
+
+    // Inserts ledger entries in one JDBC batch
+    public void insertLedgerEntries(List<LedgerEntry> entries) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>();
+        for (LedgerEntry e : entries) {
+            args.add(new Object[]{e.getAccountNumber(), e.getTransactionId(), e.getDirection().name(), e.getAmount(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY, args);
+    }
+
+    // Inserts pending notifications in one JDBC batch
+    public void insertNotifications(List<NotificationOutbox> notifications) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>();
+        for (NotificationOutbox n : notifications) {
+            args.add(new Object[]{n.getType().name(), n.getTransactionId(), n.getRecipientUserId(),
+                    NotificationOutbox.OutboxStatus.PENDING.name(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, args);
+    }
+}
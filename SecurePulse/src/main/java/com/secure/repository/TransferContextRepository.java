@@ -0,0 +1,76 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.Beneficiary;
+import com.secure.model.TransferContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Loads the beneficiary, sender account and receiver account of a transfer in a single
+ * round trip instead of one query each.
+ */
+@Repository
+public class TransferContextRepository {
+
+    // One-row driver table so every part is LEFT JOINed and a missing row shows up as NULLs
+    private static final String SELECT_CONTEXT =
+            "SELECT b.beneficiary_id, b.beneficiary_userid, b.amount AS beneficiary_limit, " +
+            "s.account_id AS s_account_id, s.user_id AS s_user_id, s.bank AS s_bank, " +
+            "s.account_number AS s_account_number, s.ifsc_code AS s_ifsc_code, s.balance AS s_balance, s.hot AS s_hot, " +
+            "(SELECT COALESCE(SUM(sl.balance), 0) FROM account_slot sl WHERE sl.account_number = s.account_number) AS s_pending, " +
+            "r.account_id AS r_account_id, r.user_id AS r_user_id, r.bank AS r_bank, " +
+            "r.account_number AS r_account_number, r.ifsc_code AS r_ifsc_code, r.balance AS r_balance, r.hot AS r_hot, " +
+            "(SELECT COALESCE(SUM(sl.balance), 0) FROM account_slot sl WHERE sl.account_number = r.account_number) AS r_pending " +
+            "FROM (SELECT 1 AS one) driver " +
+            "LEFT JOIN beneficiary b ON b.beneficiary_id = ? " +
+            "LEFT JOIN account s ON s.account_id = " +
+            "(SELECT MIN(sa.account_id) FROM account sa WHERE sa.user_id = ? AND sa.bank = ?) " +
+            "LEFT JOIN account r ON r.account_number = ? AND r.ifsc_code = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferContextRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The sender account is the user's first account in the given bank
+    public TransferContext findTransferContext(Integer beneficiaryId, Integer senderId, String senderBank,
+                                               String receiverAccountNumber, String receiverIfscCode) {
+        return jdbcTemplate.queryForObject(SELECT_CONTEXT,
+                (rs, rowNum) -> new TransferContext(mapBeneficiary(rs), mapAccount(rs, "s_"), mapAccount(rs, "r_")),
+                beneficiaryId, senderId, senderBank, receiverAccountNumber, receiverIfscCode);
+    }
+
+    private Beneficiary mapBeneficiary(ResultSet rs) throws SQLException {
+        int id = rs.getInt("beneficiary_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryId(id);
+        beneficiary.setBeneficiaryUserId(rs.getInt("beneficiary_userid"));
+        beneficiary.setAmount(rs.getBigDecimal("beneficiary_limit"));
+        return beneficiary;
+    }
+
+    private Account mapAccount(ResultSet rs, String prefix) throws SQLException {
+        int id = rs.getInt(prefix + "account_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        Account account = new Account();
+        account.setAccountId(id);
+        account.setUserId(rs.getInt(prefix + "user_id"));
+        account.setBank(rs.getString(prefix + "bank"));
+        account.setAccountNumber(rs.getString(prefix + "account_number"));
+        account.setIfscCode(rs.getString(prefix + "ifsc_code"));
+        // A hot account's funds include credits still sitting in its slots
+        account.setBalance(rs.getBigDecimal(prefix + "balance").add(rs.getBigDecimal(prefix + "pending")));
+        account.setHot(rs.getBoolean(prefix + "hot"));
+        return account;
+    }
+}
@@ -0,0 +1,164 @@
+package com.secure.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the admin dashboard (bank stats, latest transactions, suspicious and fraud lists and
+ * blocked users) in one response. The sections load in parallel on a small fixed pool with a
+ * bounded queue; a section that fails, outlasts its timeout or finds the queue full is left out and
+ * named under "unavailable" instead of failing the whole snapshot. Concurrent requests share one
+ * load, and a complete snapshot is served from memory for a short window.
+ */
+@Service
+public class AdminDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminDashboardService.class);
+
+    private final AdminService adminService;
+    private final ExecutorService loaders;
+    private final long sectionTimeoutMillis;
+    private final long cacheMillis;
+
+    private volatile Snapshot snapshot;
+    // The load in progress, shared by every request that arrives while it runs
+    private final AtomicReference<CompletableFuture<Map<String, Object>>> inFlight = new AtomicReference<>();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder sectionFailures = new LongAdder();
+
+    public AdminDashboardService(AdminService adminService,
+                                 @Value("${admin.dashboard.threads:5}") int threads,
+                                 @Value("${admin.dashboard.queue-capacity:10}") int queueCapacity,
+                                 @Value("${admin.dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis,
+                                 @Value("${admin.dashboard.cache-ms:5000}") long cacheMillis) {
+        this.adminService = adminService;
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+        this.cacheMillis = cacheMillis;
+        // Timed-out sections keep their thread until they return, so once the pool and queue are
+        // taken by stuck sections new ones are rejected instead of piling up behind them
+        this.loaders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("admin-dashboard-"));
+    }
+
+    public Map<String, Object> getDashboard() {
+        Snapshot current = freshSnapshot();
+        if (current != null) {
+            cacheHits.increment();
+            return current.body();
+        }
+
+        CompletableFuture<Map<String, Object>> flight = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.compareAndExchange(null, flight);
+        if (running != null) {
+            sharedLoads.increment();
+            return running.join();
+        }
+
+        try {
+            // A flight that finished between the first check and winning this one may have cached a snapshot
+            current = freshSnapshot();
+            if (current != null) {
+                cacheHits.increment();
+                flight.complete(current.body());
+                return current.body();
+            }
+
+            Map<String, Object> body = load();
+            if (((List<?>) body.get("unavailable")).isEmpty()) {
+                snapshot = new Snapshot(body, System.currentTimeMillis() + cacheMillis);
+            }
+            flight.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    // The cached snapshot, or null once it has expired
+    private Snapshot freshSnapshot() {
+        Snapshot current = snapshot;
+        return current != null && current.expiresAt() > System.currentTimeMillis() ? current : null;
+    }
+
+    // Starts every section at once and waits for each until the shared deadline
+    private Map<String, Object> load() {
+        loads.increment();
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        sections.put("stats", adminService::getTransactionStatsByBank);
+        sections.put("latest", adminService::getLatestTransactions);
+        sections.put("suspicious", adminService::getSuspiciousTransactions);
+        sections.put("fraud", adminService::getFraudTransactions);
+        sections.put("blockedUsers", () -> adminService.getBlockedUsers().getBody());
+
+        Map<String, CompletableFuture<Object>> pending = new LinkedHashMap<>();
+        sections.forEach((name, section) -> {
+            try {
+                pending.put(name, CompletableFuture.supplyAsync(section, loaders));
+            } catch (RejectedExecutionException e) {
+                pending.put(name, CompletableFuture.failedFuture(e));
+            }
+        });
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        for (Map.Entry<String, CompletableFuture<Object>> section : pending.entrySet()) {
+            String name = section.getKey();
+            try {
+                body.put(name, section.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                section.getValue().cancel(true);
+                sectionFailures.increment();
+                log.warn("Dashboard section {} timed out after {} ms", name, sectionTimeoutMillis);
+                body.put(name, null);
+                unavailable.add(name);
+            } catch (ExecutionException e) {
+                sectionFailures.increment();
+                log.warn("Dashboard section {} failed: {}", name, e.getCause().getMessage());
+                body.put(name, null);
+                unavailable.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                body.put(name, null);
+                unavailable.add(name);
+            }
+        }
+        body.put("unavailable", unavailable);
+        body.put("generatedAt", System.currentTimeMillis());
+        return Collections.unmodifiableMap(body);
+    }
+
+    // Returns load, cache hit, shared load and failed section counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loads", loads.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("sharedLoads", sharedLoads.sum());
+        stats.put("sectionFailures", sectionFailures.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaders.shutdownNow();
+    }
+
+    private record Snapshot(Map<String, Object> body, long expiresAt) {
+    }
+}
@@ -6,7 +6,9 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.secure.exception.CustomException;
 import com.secure.model.*;
 import com.secure.repository.*;
+import com.secure.utils.AdminEventBus;
 import com.secure.utils.ApplicationCache;
+import com.secure.utils.BlockedUsersCache;
 import com.secure.utils.EmailProvider;
 import com.secure.utils.JwtProvider;
 import com.secure.utils.TemplateProvider;
@@ -15,18 +17,28 @@ import jakarta.transaction.Transactional;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.sql.Timestamp;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import jakarta.servlet.http.Cookie;
 
 @Component
 public class AdminService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+    private static final int MAX_REVIEW_BATCH = 500;
+    private static final long REVIEW_WAIT_MILLIS = 30_000;
+
     private final EmailProvider emailProvider;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
@@ -37,6 +49,10 @@ public class AdminService {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final TemplateProvider templateProvider;
+    private final BankStatsService bankStatsService;
+    private final AdminEventBus adminEventBus;
+    private final BlockedUsersCache blockedUsersCache;
+    private final BlockedUserIndex blockedUserIndex;
 
     public AdminService(EmailProvider emailProvider,
                         AccountRepository accountRepository,
@@ -47,7 +63,11 @@ public class AdminService {
                         TransactionService transactionService,
                         UserRepository userRepository,
                         BCryptPasswordEncoder passwordEncoder,
-                        TemplateProvider templateProvider) {
+                        TemplateProvider templateProvider,
+                        BankStatsService bankStatsService,
+                        AdminEventBus adminEventBus,
+                        BlockedUsersCache blockedUsersCache,
+                        BlockedUserIndex blockedUserIndex) {
         this.emailProvider = emailProvider;
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
@@ -58,6 +78,10 @@ public class AdminService {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.templateProvider = templateProvider;
+        this.bankStatsService = bankStatsService;
+        this.adminEventBus = adminEventBus;
+        this.blockedUsersCache = blockedUsersCache;
+        this.blockedUserIndex = blockedUserIndex;
     }
 
     public ResponseEntity<Map<String,Object>> authenticateAdmin(String email, String password, HttpServletResponse response) {
@@ -78,18 +102,6 @@ public class AdminService {
         response.addCookie(authCookie);
         ApplicationCache.put(token,true);
 
-        List<BlockedUser> blockedUsers = blockedUserRepository.findAll(Sort.by("createdAt").descending());
-        Timestamp twoHoursAgo = new Timestamp(System.currentTimeMillis() - (2 * 60 * 60 * 1000));
-
-        List<BlockedUser> usersToUnblock = blockedUsers.stream()
-                .filter(user -> user.getCreatedAt().before(twoHoursAgo))
-                .collect(Collectors.toList());
-
-        if (!usersToUnblock.isEmpty()) {
-            blockedUserRepository.deleteAll(usersToUnblock);
-            System.out.println("🔹 Unblocked " + usersToUnblock.size() + " users who were blocked for more than 2 hours");
-        }
-
         String subject = "Admin Login Detected - SecurePulse Dashboard";
         String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a, dd MMM yyyy"));
 
@@ -160,70 +172,12 @@ public class AdminService {
         }
     }
 
+    /**
+     * Returns incoming, outgoing, success, failed, suspicious and fraud counts per bank from the
+     * in-memory counters; no query is run.
+     */
     public List<Map<String, Object>> getTransactionStatsByBank() {
-        List<Transaction> allTransactions = transactionRepository.findAll();
-        Map<String, Map<String, Long>> bankStatsMap = new HashMap<>();
-
-        // Initialize stats for each bank
-        String[] banks = {"HERITAGE", "FINOVA", "WISSEN"};
-        for (String bank : banks) {
-            Map<String, Long> stats = new HashMap<>();
-            stats.put("incoming", 0L);
-            stats.put("outgoing", 0L);
-            stats.put("suspicious", 0L);
-            stats.put("failed", 0L);
-            stats.put("success", 0L);
-            stats.put("fraud", 0L);
-            bankStatsMap.put(bank, stats);
-        }
-
-        // Process transactions
-        for (Transaction transaction : allTransactions) {
-            Optional<Account> senderAccount = accountRepository.findByAccountNumber(transaction.getSenderAccountNumber());
-            Optional<Account> receiverAccount = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber());
-
-            senderAccount.ifPresent(sender -> {
-                String senderBank = sender.getBank();
-                if (bankStatsMap.containsKey(senderBank)) {
-                    bankStatsMap.get(senderBank).merge("outgoing", 1L, Long::sum);
-
-                    // Update status counts
-                    if (transaction.getFlag() == Transaction.TransactionFlag.COMPLETED) {
-                        bankStatsMap.get(senderBank).merge("success", 1L, Long::sum);
-                    } else if (transaction.getFlag() == Transaction.TransactionFlag.FAILED) {
-                        bankStatsMap.get(senderBank).merge("failed", 1L, Long::sum);
-                    }
-
-                    // Update marked counts
-                    if (transaction.getMarked() == Transaction.TransactionMarked.SUSPICIOUS) {
-                        bankStatsMap.get(senderBank).merge("suspicious", 1L, Long::sum);
-                    } else if (transaction.getMarked() == Transaction.TransactionMarked.FRAUD) {
-                        bankStatsMap.get(senderBank).merge("fraud", 1L, Long::sum);
-                    }
-                }
-            });
-
-            receiverAccount.ifPresent(receiver -> {
-                String receiverBank = receiver.getBank();
-                if (bankStatsMap.containsKey(receiverBank)) {
-                    bankStatsMap.get(receiverBank).merge("incoming", 1L, Long::sum);
-                }
-            });
-        }
-
-        // Convert to desired format
-        return Arrays.stream(banks)
-                .map(bank -> {
-                    Map<String, Object> bankStats = new LinkedHashMap<>();
-                    bankStats.put("name", bank);
-                    bankStats.putAll(bankStatsMap.get(bank).entrySet().stream()
-                            .collect(Collectors.toMap(
-                                    Map.Entry::getKey,
-                                    e -> e.getValue().intValue() // Convert Long to Integer
-                            )));
-                    return bankStats;
-                })
-                .collect(Collectors.toList());
+        return bankStatsService.getStats();
     }
 
     // Returns all transactions marked as fraud
@@ -277,14 +231,14 @@ public class AdminService {
 
     public List<Map<String, Object>> getRecentBankTransactions(String bankName) {
         List<Transaction> transactions = transactionRepository
-                .findRecentByBank(bankName, PageRequest.of(0, 10));
+                .findRecentByBank(bankName, 10);
         return formatTransactions(transactions);
     }
 
     // Returns all transactions for a specific bank
     public List<Map<String, Object>> getAllBankTransactions(String bankName) {
         List<Transaction> transactions = transactionRepository
-                .findRecentByBank(bankName, PageRequest.of(0, 150));
+                .findRecentByBank(bankName, 150);
         return formatTransactions(transactions);
     }
 
@@ -357,39 +311,7 @@ public class AdminService {
                 PageRequest.of(0, 10, Sort.by("timestamp").descending())
         ).getContent();
 
-        return transactions.stream().map(transaction -> {
-            Map<String, Object> details = new LinkedHashMap<>();
-            details.put("transactionId", transaction.getTransactionId());
-            details.put("amount", transaction.getAmountTransferred());
-            details.put("timestamp", transaction.getTimestamp());
-            details.put("status", transaction.getFlag());
-            details.put("description", transaction.getDescription());
-            details.put("marked", transaction.getMarked());
-
-            // Fetch sender account and user details
-            Optional<Account> senderAccountOpt = accountRepository.findByAccountNumber(transaction.getSenderAccountNumber());
-            senderAccountOpt.ifPresent(senderAccount -> {
-                details.put("senderAccountNumber", senderAccount.getAccountNumber());
-                details.put("senderBank", senderAccount.getBank());
-                Optional<User> senderUserOpt = userRepository.findById(senderAccount.getUserId());
-                senderUserOpt.ifPresent(senderUser -> {
-                    details.put("senderName", senderUser.getFirstName()+" " +senderUser.getLastName());
-                });
-            });
-
-            // Fetch receiver account and user details
-            Optional<Account> receiverAccountOpt = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber());
-            receiverAccountOpt.ifPresent(receiverAccount -> {
-                details.put("receiverAccountNumber", receiverAccount.getAccountNumber());
-                details.put("receiverBank", receiverAccount.getBank());
-                Optional<User> receiverUserOpt = userRepository.findById(receiverAccount.getUserId());
-                receiverUserOpt.ifPresent(receiverUser -> {
-                    details.put("receiverName", receiverUser.getFirstName()+" " + receiverUser.getLastName());
-                });
-            });
-
-            return details;
-        }).collect(Collectors.toList());
+        return formatWithHolders(transactions);
     }
 
 
@@ -399,6 +321,14 @@ public class AdminService {
                 PageRequest.of(0, 150, Sort.by("timestamp").descending())
         ).getContent();
 
+        return formatWithHolders(transactions);
+    }
+
+    // Formats transactions with sender and receiver bank and name; the holders of every account
+    // on the page are read with a single query instead of looking each one up per row
+    private List<Map<String, Object>> formatWithHolders(List<Transaction> transactions) {
+        Map<String, AccountHolder> holders = findHolders(transactions);
+
         return transactions.stream().map(transaction -> {
             Map<String, Object> details = new LinkedHashMap<>();
             details.put("transactionId", transaction.getTransactionId());
@@ -408,32 +338,137 @@ public class AdminService {
             details.put("description", transaction.getDescription());
             details.put("marked", transaction.getMarked());
 
-            // Fetch sender account and user details
-            Optional<Account> senderAccountOpt = accountRepository.findByAccountNumber(transaction.getSenderAccountNumber());
-            senderAccountOpt.ifPresent(senderAccount -> {
-                details.put("senderAccountNumber", senderAccount.getAccountNumber());
-                details.put("senderBank", senderAccount.getBank());
-                Optional<User> senderUserOpt = userRepository.findById(senderAccount.getUserId());
-                senderUserOpt.ifPresent(senderUser -> {
-                    details.put("senderName", senderUser.getFirstName()+" " +senderUser.getLastName());
-                });
-            });
-
-            // Fetch receiver account and user details
-            Optional<Account> receiverAccountOpt = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber());
-            receiverAccountOpt.ifPresent(receiverAccount -> {
-                details.put("receiverAccountNumber", receiverAccount.getAccountNumber());
-                details.put("receiverBank", receiverAccount.getBank());
-                Optional<User> receiverUserOpt = userRepository.findById(receiverAccount.getUserId());
-                receiverUserOpt.ifPresent(receiverUser -> {
-                    details.put("receiverName", receiverUser.getFirstName()+" " + receiverUser.getLastName());
-                });
-            });
+            // Sender account and user details
+            AccountHolder sender = holders.get(transaction.getSenderAccountNumber());
+            if (sender != null) {
+                details.put("senderAccountNumber", sender.getAccountNumber());
+                details.put("senderBank", sender.getBank());
+                if (sender.hasUser()) {
+                    details.put("senderName", sender.getFirstName() + " " + sender.getLastName());
+                }
+            }
+
+            // Receiver account and user details
+            AccountHolder receiver = holders.get(transaction.getReceiverAccountNumber());
+            if (receiver != null) {
+                details.put("receiverAccountNumber", receiver.getAccountNumber());
+                details.put("receiverBank", receiver.getBank());
+                if (receiver.hasUser()) {
+                    details.put("receiverName", receiver.getFirstName() + " " + receiver.getLastName());
+                }
+            }
 
             return details;
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Searches all transactions with the given filters, newest first, one page at a time. The page
+     * starts after the row identified by the cursor (null for the newest page) and the response
+     * carries the cursor of the next page, or null when no rows are left. Each page is a range
+     * scan from the cursor, so its cost does not depend on how deep into the log it is.
+     */
+    public Map<String, Object> searchTransactions(TransactionFilter filter, String before, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+            throw new CustomException("limit must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+
+        Specification<Transaction> spec = Specification.where(null);
+        if (filter.getBank() != null && !filter.getBank().isBlank()) {
+            spec = spec.and(TransactionSpecifications.hasBank(filter.getBank().toUpperCase()));
+        }
+        if (filter.getAccountNumber() != null && !filter.getAccountNumber().isBlank()) {
+            spec = spec.and(TransactionSpecifications.involvesAccount(filter.getAccountNumber()));
+        }
+        if (filter.getFlag() != null && !filter.getFlag().isBlank()) {
+            spec = spec.and(TransactionSpecifications.hasFlag(parseEnum(Transaction.TransactionFlag.class, filter.getFlag(), "flag")));
+        }
+        if (filter.getMarked() != null && !filter.getMarked().isBlank()) {
+            spec = spec.and(TransactionSpecifications.hasMarked(parseEnum(Transaction.TransactionMarked.class, filter.getMarked(), "marked")));
+        }
+        if (filter.getMinAmount() != null) {
+            spec = spec.and(TransactionSpecifications.amountAtLeast(filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            spec = spec.and(TransactionSpecifications.amountAtMost(filter.getMaxAmount()));
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and(TransactionSpecifications.from(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and(TransactionSpecifications.to(filter.getTo()));
+        }
+        if (before != null && !before.isBlank()) {
+            SearchCursor cursor = decodeSearchCursor(before);
+            spec = spec.and(TransactionSpecifications.before(cursor.timestamp(), cursor.transactionId()));
+        }
+
+        // One extra row tells whether another page follows
+        List<Transaction> rows = transactionRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("transactionId")))
+                .limit(limit + 1)
+                .all());
+        boolean hasNext = rows.size() > limit;
+        List<Transaction> page = hasNext ? rows.subList(0, limit) : rows;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("transactions", formatWithHolders(page));
+        response.put("nextCursor", hasNext ? encodeSearchCursor(page.get(limit - 1)) : null);
+        return response;
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Opaque cursor: the row's timestamp and transaction id, URL-safe Base64 encoded
+    private String encodeSearchCursor(Transaction transaction) {
+        String raw = transaction.getTimestamp() + "|" + transaction.getTransactionId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SearchCursor decodeSearchCursor(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(token);
+            }
+            return new SearchCursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (RuntimeException e) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+
+    // Position of the last row of a search page
+    private record SearchCursor(LocalDateTime timestamp, Integer transactionId) {
+    }
+
+    // Resolves the sender and receiver accounts of the transactions, keyed by account number
+    private Map<String, AccountHolder> findHolders(List<Transaction> transactions) {
+        Set<String> accountNumbers = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getSenderAccountNumber() != null) {
+                accountNumbers.add(transaction.getSenderAccountNumber());
+            }
+            if (transaction.getReceiverAccountNumber() != null) {
+                accountNumbers.add(transaction.getReceiverAccountNumber());
+            }
+        }
+        Map<String, AccountHolder> holders = new HashMap<>();
+        if (accountNumbers.isEmpty()) {
+            return holders;
+        }
+        for (AccountHolder holder : accountRepository.findHoldersByAccountNumberIn(accountNumbers)) {
+            holders.put(holder.getAccountNumber(), holder);
+        }
+        return holders;
+    }
+
     public ResponseEntity<Object> getTransactionDetails(Integer transactionId) {
         Optional<Transaction> transactionOpt = transactionRepository.findById(transactionId);
 
@@ -443,11 +478,9 @@ public class AdminService {
 
         Transaction transaction = transactionOpt.get();
 
-        Optional<Account> senderAccount = accountRepository.findByAccountNumber(transaction.getSenderAccountNumber());
-        Optional<Account> receiverAccount = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber());
-
-        Optional<User> senderUser = senderAccount.map(account -> userRepository.findById(account.getUserId())).orElse(Optional.empty());
-        Optional<User> receiverUser = receiverAccount.map(account -> userRepository.findById(account.getUserId())).orElse(Optional.empty());
+        Map<String, AccountHolder> holders = findHolders(List.of(transaction));
+        Optional<AccountHolder> senderAccount = Optional.ofNullable(holders.get(transaction.getSenderAccountNumber()));
+        Optional<AccountHolder> receiverAccount = Optional.ofNullable(holders.get(transaction.getReceiverAccountNumber()));
 
         Map<String, Object> transactionDetails = new LinkedHashMap<>();
 
@@ -465,10 +498,10 @@ public class AdminService {
             senderDetails.put("accountNumber", sender.getAccountNumber());
             senderDetails.put("ifscCode", sender.getIfscCode());
             senderDetails.put("bank", sender.getBank());
-        });
-        senderUser.ifPresent(user -> {
-            senderDetails.put("firstName", user.getFirstName());
-            senderDetails.put("lastName", user.getLastName());
+            if (sender.hasUser()) {
+                senderDetails.put("firstName", sender.getFirstName());
+                senderDetails.put("lastName", sender.getLastName());
+            }
         });
         transactionDetails.put("sender", senderDetails);
 
@@ -478,11 +511,10 @@ public class AdminService {
             receiverDetails.put("accountNumber", receiver.getAccountNumber());
             receiverDetails.put("ifscCode", receiver.getIfscCode());
             receiverDetails.put("bank", receiver.getBank());
-
-        });
-        receiverUser.ifPresent(user -> {
-            receiverDetails.put("firstName", user.getFirstName());
-            receiverDetails.put("lastName", user.getLastName());
+            if (receiver.hasUser()) {
+                receiverDetails.put("firstName", receiver.getFirstName());
+                receiverDetails.put("lastName", receiver.getLastName());
+            }
         });
         transactionDetails.put("receiver", receiverDetails);
 
@@ -491,38 +523,11 @@ public class AdminService {
     }
 
 
-    // Returns all blocked users
+    // Returns all blocked users, newest block first. Name and account number are null when the
+    // blocked email has no user or no account in the blocked bank.
     public ResponseEntity<List<Map<String, Object>>> getBlockedUsers() {
         try {
-            List<BlockedUser> blockedUsers = blockedUserRepository.findAll(Sort.by("createdAt").descending());
-
-            List<Map<String, Object>> formattedUsers = blockedUsers.stream()
-                    .map(user -> {
-                        Map<String, Object> userMap = new LinkedHashMap<>();
-                        Optional<User> userOpt = userRepository.findByEmail(user.getEmail());
-                        if (userOpt.isEmpty()) {
-                            throw new CustomException("User not found for email: " + user.getEmail());
-                        }
-
-                        List<Account> accounts = accountRepository.findByUserIdAndBank(userOpt.get().getUserId(), user.getBankName());
-                        if (accounts.isEmpty()) {
-                            throw new CustomException("No accounts found for user: " + user.getEmail());
-                        }
-
-                        User userData = userOpt.get();
-                        userMap.put("name", userData.getFirstName() + " " + userData.getLastName());
-                        userMap.put("id", user.getId());
-                        userMap.put("accountNumber", accounts.get(0).getAccountNumber());
-                        userMap.put("email", user.getEmail());
-                        userMap.put("bankName", user.getBankName());
-                        userMap.put("blockedAt", user.getCreatedAt());
-                        userMap.put("reason", user.getReason());
-                        return userMap;
-                    })
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(formattedUsers);
-
+            return ResponseEntity.ok(blockedUsersCache.get(this::loadBlockedUsers));
         } catch (CustomException e) {
             throw e; // Let the global exception handler handle this
         } catch (Exception e) {
@@ -530,6 +535,26 @@ public class AdminService {
         }
     }
 
+    // One row per block; the query returns one row per matching account, oldest account first
+    private List<Map<String, Object>> loadBlockedUsers() {
+        Map<Integer, Map<String, Object>> formattedUsers = new LinkedHashMap<>();
+        for (BlockedUserView user : blockedUserRepository.findAllWithAccounts()) {
+            if (formattedUsers.containsKey(user.getId())) {
+                continue;
+            }
+            Map<String, Object> userMap = new LinkedHashMap<>();
+            userMap.put("name", user.getFirstName() == null ? null : user.getFirstName() + " " + user.getLastName());
+            userMap.put("id", user.getId());
+            userMap.put("accountNumber", user.getAccountNumber());
+            userMap.put("email", user.getEmail());
+            userMap.put("bankName", user.getBankName());
+            userMap.put("blockedAt", user.getCreatedAt());
+            userMap.put("reason", user.getReason());
+            formattedUsers.put(user.getId(), userMap);
+        }
+        return new ArrayList<>(formattedUsers.values());
+    }
+
     // Deletes a blocked user by ID
     public ResponseEntity<Map<String,Object>> deleteBlockedUser(int id) {
         if (!blockedUserRepository.existsById(id)) {
@@ -537,11 +562,14 @@ public class AdminService {
         }
 
         try {
-            String userEmail = blockedUserRepository.findById(id)
-                    .orElseThrow(() -> new CustomException("Blocked user not found"))
-                    .getEmail();
+            BlockedUser blockedUser = blockedUserRepository.findById(id)
+                    .orElseThrow(() -> new CustomException("Blocked user not found"));
+            String userEmail = blockedUser.getEmail();
 
             blockedUserRepository.deleteById(id);
+            blockedUsersCache.invalidate();
+            blockedUserIndex.unblock(blockedUser);
+            publishUnblocked(blockedUser);
 
             String subject = "Account Access Restored - SecurePulse";
             String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a, dd MMM yyyy"));
@@ -558,52 +586,142 @@ public class AdminService {
         }
     }
 
+    // Releases a suspicious transfer: its held amount is paid to the receiver under the original transaction id
     @Transactional
     public boolean markTransactionAsNormal(Integer transactionId) {
-        Optional<Transaction> txnOpt = transactionRepository.findById(transactionId);
-        if (txnOpt.isPresent()) {
-            Transaction txn = txnOpt.get();
-            Account sender = accountRepository.findByAccountNumber(txn.getSenderAccountNumber()).orElse(null);
-            Account receiver = accountRepository.findByAccountNumber(txn.getReceiverAccountNumber()).orElse(null);
-
-            if (sender == null || receiver == null) {
-                return false;
+        if (!transactionService.releaseSuspicious(transactionId)) {
+            return false;
+        }
+        publishMarked(transactionId, Transaction.TransactionMarked.NORMAL);
+        return true;
+    }
+
+    // Rejects a suspicious transfer as fraud and returns its held amount to the sender
+    @Transactional
+    public boolean markTransactionAsFraud(Integer transactionId) {
+        if (!transactionService.rejectSuspicious(transactionId)) {
+            return false;
+        }
+        publishMarked(transactionId, Transaction.TransactionMarked.FRAUD);
+        return true;
+    }
+
+    /**
+     * Applies one review decision (NORMAL or FRAUD) to many suspicious transactions. They are loaded
+     * with one IN query; fraud decisions are applied together in one transaction, and releases run
+     * concurrently on the senders' transfer lanes. Returns a result for every requested id.
+     */
+    public Map<String, Object> reviewTransactions(List<Integer> transactionIds, String decision) {
+        if (transactionIds == null || transactionIds.isEmpty()) {
+            throw new CustomException("transactionIds are required");
+        }
+        if (decision == null) {
+            throw new CustomException("decision is required");
+        }
+        Transaction.TransactionMarked marked = parseEnum(Transaction.TransactionMarked.class, decision, "decision");
+        if (marked == Transaction.TransactionMarked.SUSPICIOUS) {
+            throw new CustomException("Invalid decision: " + decision);
+        }
+        Set<Integer> ids = new LinkedHashSet<>(transactionIds);
+        ids.remove(null);
+        if (ids.size() > MAX_REVIEW_BATCH) {
+            throw new CustomException("At most " + MAX_REVIEW_BATCH + " transactions can be reviewed at once");
+        }
+
+        Map<Integer, Transaction> found = transactionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, t -> t));
+        Map<Integer, Map<String, Object>> results = new LinkedHashMap<>();
+        List<Transaction> awaiting = new ArrayList<>();
+        for (Integer id : ids) {
+            Transaction transaction = found.get(id);
+            if (transaction == null) {
+                results.put(id, reviewResult(id, false, "Transaction not found"));
+            } else if (transaction.getMarked() != Transaction.TransactionMarked.SUSPICIOUS
+                    || transaction.getFlag() != Transaction.TransactionFlag.PENDING) {
+                results.put(id, reviewResult(id, false, "Transaction is not awaiting review"));
+            } else {
+                results.put(id, null);
+                awaiting.add(transaction);
             }
+        }
 
-            Map<String, Object> isDone = transactionService.processTransaction(
-                    sender,
-                    receiver,
-                    txn.getAmountTransferred(),
-                    txn.getSenderId(),
-                    txn.getReceiverId(),
-                    txn.getDescription()
-            );
-
-            if (isDone != null && Boolean.TRUE.equals(isDone.get("status"))) {
-                transactionRepository.delete(txn);
-                try{
-                    Thread.sleep(2000);
-                }catch(InterruptedException e){
-                    e.printStackTrace();
-                }
+        if (!awaiting.isEmpty()) {
+            if (marked == Transaction.TransactionMarked.FRAUD) {
+                rejectAll(awaiting, results);
+            } else {
+                releaseAll(awaiting, results);
+            }
+        }
 
-                return true;
+        long reviewed = results.values().stream().filter(r -> Boolean.TRUE.equals(r.get("success"))).count();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("decision", marked);
+        response.put("reviewed", reviewed);
+        response.put("results", new ArrayList<>(results.values()));
+        return response;
+    }
+
+    private void rejectAll(List<Transaction> awaiting, Map<Integer, Map<String, Object>> results) {
+        List<Integer> ids = awaiting.stream().map(Transaction::getTransactionId).toList();
+        Set<Integer> rejected = transactionService.rejectSuspicious(ids);
+        for (Integer id : ids) {
+            if (rejected.contains(id)) {
+                results.put(id, reviewResult(id, true, "Transaction marked as fraud"));
+                publishMarked(id, Transaction.TransactionMarked.FRAUD);
+            } else {
+                results.put(id, reviewResult(id, false, "Transaction is not awaiting review"));
             }
         }
-        return false;
     }
 
-    public boolean markTransactionAsFraud(Integer transactionId) {
-        Optional<Transaction> txnOpt = transactionRepository.findById(transactionId);
-        if (txnOpt.isPresent()) {
-            Transaction txn = txnOpt.get();
-            if (txn.getMarked() == Transaction.TransactionMarked.SUSPICIOUS) {
-                txn.setMarked(Transaction.TransactionMarked.FRAUD);
-                transactionRepository.save(txn);
-                return true;
+    // Waits for the queued releases up to a shared deadline; slower ones still complete afterwards
+    private void releaseAll(List<Transaction> awaiting, Map<Integer, Map<String, Object>> results) {
+        Map<Integer, CompletableFuture<Map<String, Object>>> releases = transactionService.submitReleases(awaiting);
+        releases.forEach((id, release) -> release.thenAccept(outcome -> {
+            if (Boolean.TRUE.equals(outcome.get("status"))) {
+                publishMarked(id, Transaction.TransactionMarked.NORMAL);
+            }
+        }));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REVIEW_WAIT_MILLIS);
+        for (Map.Entry<Integer, CompletableFuture<Map<String, Object>>> release : releases.entrySet()) {
+            Integer id = release.getKey();
+            try {
+                Map<String, Object> outcome = release.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                results.put(id, reviewResult(id, Boolean.TRUE.equals(outcome.get("status")), String.valueOf(outcome.get("message"))));
+            } catch (TimeoutException e) {
+                results.put(id, reviewResult(id, false, "Release is still being processed"));
+            } catch (ExecutionException e) {
+                results.put(id, reviewResult(id, false, "Error releasing transaction: " + e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.put(id, reviewResult(id, false, "Release is still being processed"));
             }
         }
-        return false;
     }
 
-}
\ No newline at end of file
+    private Map<String, Object> reviewResult(Integer transactionId, boolean success, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("transactionId", transactionId);
+        result.put("success", success);
+        result.put("message", message);
+        return result;
+    }
+
+    // Announces a mark change of a suspicious transaction on the admin live feed
+    private void publishMarked(Integer transactionId, Transaction.TransactionMarked marked) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("transactionId", transactionId);
+        event.put("marked", marked);
+        adminEventBus.publish(AdminEventBus.MARKED, event);
+    }
+
+    // Announces a lifted block on the admin live feed
+    private void publishUnblocked(BlockedUser blockedUser) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", blockedUser.getId());
+        event.put("email", blockedUser.getEmail());
+        event.put("bankName", blockedUser.getBankName());
+        adminEventBus.publish(AdminEventBus.UNBLOCKED, event);
+    }
+}
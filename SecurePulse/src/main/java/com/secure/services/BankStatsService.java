@@ -0,0 +1,234 @@
+package com.secure.services;
+
+import com.secure.model.Transaction;
+import com.secure.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory per-bank transaction counters behind the admin dashboard. Counters are seeded from
+ * the database at startup and adjusted whenever a transaction is committed, removed or re-marked,
+ * so reading them costs no query. A periodic job recounts from the database and corrects drift.
+ */
+@Service
+public class BankStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BankStatsService.class);
+
+    public enum Metric {
+        INCOMING, OUTGOING, SUCCESS, FAILED, SUSPICIOUS, FRAUD
+    }
+
+    private final TransactionRepository transactionRepository;
+
+    // Sorted by bank so the dashboard lists banks in a stable order
+    private final Map<String, Map<Metric, LongAdder>> counters = new ConcurrentSkipListMap<>();
+
+    private final LongAdder reconciliations = new LongAdder();
+    private final LongAdder driftCorrected = new LongAdder();
+    private volatile long lastDrift = 0;
+
+    public BankStatsService(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    // Seeds the counters once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        correctFromDatabase(false);
+        log.info("Seeded transaction counters for {} banks", counters.size());
+    }
+
+    /**
+     * Counts a transaction that now exists: outgoing plus its flag and mark for the sender's bank,
+     * incoming for the receiver's bank. Applied after commit when called inside a transaction.
+     */
+    public void recordSaved(String senderBank, String receiverBank,
+                            Transaction.TransactionFlag flag, Transaction.TransactionMarked marked) {
+        afterCommit(() -> apply(senderBank, receiverBank, flag, marked, 1));
+    }
+
+    /**
+     * Reverses {@link #recordSaved} for a transaction that was deleted.
+     */
+    public void recordRemoved(String senderBank, String receiverBank,
+                              Transaction.TransactionFlag flag, Transaction.TransactionMarked marked) {
+        afterCommit(() -> apply(senderBank, receiverBank, flag, marked, -1));
+    }
+
+    /**
+     * Moves a transaction of the sender's bank from one mark to another.
+     */
+    public void recordRemarked(String senderBank, Transaction.TransactionMarked from, Transaction.TransactionMarked to) {
+        afterCommit(() -> {
+            add(senderBank, markMetric(from), -1);
+            add(senderBank, markMetric(to), 1);
+        });
+    }
+
+    private void apply(String senderBank, String receiverBank,
+                       Transaction.TransactionFlag flag, Transaction.TransactionMarked marked, int delta) {
+        add(senderBank, Metric.OUTGOING, delta);
+        add(senderBank, flagMetric(flag), delta);
+        add(senderBank, markMetric(marked), delta);
+        add(receiverBank, Metric.INCOMING, delta);
+    }
+
+    private Metric flagMetric(Transaction.TransactionFlag flag) {
+        if (flag == Transaction.TransactionFlag.COMPLETED) {
+            return Metric.SUCCESS;
+        }
+        return flag == Transaction.TransactionFlag.FAILED ? Metric.FAILED : null;
+    }
+
+    private Metric markMetric(Transaction.TransactionMarked marked) {
+        if (marked == Transaction.TransactionMarked.SUSPICIOUS) {
+            return Metric.SUSPICIOUS;
+        }
+        return marked == Transaction.TransactionMarked.FRAUD ? Metric.FRAUD : null;
+    }
+
+    private void add(String bank, Metric metric, long delta) {
+        if (bank == null || metric == null) {
+            return;
+        }
+        counter(bank, metric).add(delta);
+    }
+
+    private LongAdder counter(String bank, Metric metric) {
+        return counters.computeIfAbsent(bank, b -> {
+            Map<Metric, LongAdder> metrics = new EnumMap<>(Metric.class);
+            for (Metric m : Metric.values()) {
+                metrics.put(m, new LongAdder());
+            }
+            return metrics;
+        }).get(metric);
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Returns the counters per bank in the dashboard's format.
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        counters.forEach((bank, metrics) -> {
+            Map<String, Object> bankStats = new LinkedHashMap<>();
+            bankStats.put("name", bank);
+            bankStats.put("incoming", metrics.get(Metric.INCOMING).intValue());
+            bankStats.put("outgoing", metrics.get(Metric.OUTGOING).intValue());
+            bankStats.put("success", metrics.get(Metric.SUCCESS).intValue());
+            bankStats.put("failed", metrics.get(Metric.FAILED).intValue());
+            bankStats.put("suspicious", metrics.get(Metric.SUSPICIOUS).intValue());
+            bankStats.put("fraud", metrics.get(Metric.FRAUD).intValue());
+            result.add(bankStats);
+        });
+        return result;
+    }
+
+    /**
+     * Recounts every bank with the grouped queries and corrects counters that differ. A counter
+     * that changed while the database was being counted is left for the next run, since the
+     * difference may just be a transaction committed in between.
+     */
+    @Scheduled(initialDelayString = "${admin.bank-stats.reconcile-ms:300000}",
+            fixedDelayString = "${admin.bank-stats.reconcile-ms:300000}")
+    public void reconcile() {
+        long drift = correctFromDatabase(true);
+        reconciliations.increment();
+        driftCorrected.add(drift);
+        lastDrift = drift;
+    }
+
+    // Brings the counters in line with the database and returns the total correction
+    private long correctFromDatabase(boolean reportDrift) {
+        Map<String, Map<Metric, Long>> before = snapshot();
+        Map<String, Map<Metric, Long>> counted = countFromDatabase();
+        Map<String, Map<Metric, Long>> after = snapshot();
+
+        long drift = 0;
+        for (Map.Entry<String, Map<Metric, Long>> bank : counted.entrySet()) {
+            for (Map.Entry<Metric, Long> metric : bank.getValue().entrySet()) {
+                long was = valueOf(before, bank.getKey(), metric.getKey());
+                long now = valueOf(after, bank.getKey(), metric.getKey());
+                if (was != now) {
+                    continue;
+                }
+                long diff = metric.getValue() - now;
+                if (diff != 0) {
+                    counter(bank.getKey(), metric.getKey()).add(diff);
+                    drift += Math.abs(diff);
+                    if (reportDrift) {
+                        log.warn("Bank stats drift for {} {}: counter {} but database {}",
+                                bank.getKey(), metric.getKey(), now, metric.getValue());
+                    }
+                }
+            }
+        }
+        return drift;
+    }
+
+    private Map<String, Map<Metric, Long>> countFromDatabase() {
+        Map<String, Map<Metric, Long>> counted = new TreeMap<>();
+        for (Object[] row : transactionRepository.countOutgoingByBank()) {
+            Map<Metric, Long> metrics = counted.computeIfAbsent((String) row[0], b -> new EnumMap<>(Metric.class));
+            metrics.put(Metric.INCOMING, 0L);
+            metrics.put(Metric.OUTGOING, ((Number) row[1]).longValue());
+            metrics.put(Metric.SUCCESS, ((Number) row[2]).longValue());
+            metrics.put(Metric.FAILED, ((Number) row[3]).longValue());
+            metrics.put(Metric.SUSPICIOUS, ((Number) row[4]).longValue());
+            metrics.put(Metric.FRAUD, ((Number) row[5]).longValue());
+        }
+        for (Object[] row : transactionRepository.countIncomingByBank()) {
+            counted.computeIfAbsent((String) row[0], b -> new EnumMap<>(Metric.class))
+                    .put(Metric.INCOMING, ((Number) row[1]).longValue());
+        }
+        return counted;
+    }
+
+    private Map<String, Map<Metric, Long>> snapshot() {
+        Map<String, Map<Metric, Long>> values = new HashMap<>();
+        counters.forEach((bank, metrics) -> {
+            Map<Metric, Long> copy = new EnumMap<>(Metric.class);
+            metrics.forEach((metric, adder) -> copy.put(metric, adder.sum()));
+            values.put(bank, copy);
+        });
+        return values;
+    }
+
+    private long valueOf(Map<String, Map<Metric, Long>> values, String bank, Metric metric) {
+        Map<Metric, Long> metrics = values.get(bank);
+        return metrics == null ? 0 : metrics.getOrDefault(metric, 0L);
+    }
+
+    // Returns reconciliation counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("banks", counters.size());
+        stats.put("reconciliations", reconciliations.sum());
+        stats.put("lastDrift", lastDrift);
+        stats.put("driftCorrected", driftCorrected.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,161 @@
+package com.secure.services;
+
+import com.secure.model.BlockedUser;
+import com.secure.repository.BlockedUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory set of active blocks keyed by (email, bank), so a login can be refused before its
+ * password is hashed and without a query. Loaded at startup, updated by block and unblock, and
+ * reloaded periodically to pick up blocks written by other instances. A block stops applying on
+ * its own once it is older than the block TTL, whether or not the sweep has deleted it yet.
+ */
+@Service
+public class BlockedUserIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockedUserIndex.class);
+
+    private final BlockedUserRepository blockedUserRepository;
+    private final long ttlMillis;
+
+    // Guards swapping in a reloaded map against concurrent block and unblock
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<String, Entry> blocked = new ConcurrentHashMap<>();
+    // Keys unblocked since the last reload, with the time they were unblocked
+    private final Map<String, Long> lifted = new ConcurrentHashMap<>();
+
+    public BlockedUserIndex(BlockedUserRepository blockedUserRepository,
+                            @Value("${blocked-users.ttl-ms:3600000}") long ttlMillis) {
+        this.blockedUserRepository = blockedUserRepository;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        log.info("Loaded {} active blocks", blocked.size());
+    }
+
+    @Scheduled(initialDelayString = "${blocked-users.index-refresh-ms:60000}",
+            fixedDelayString = "${blocked-users.index-refresh-ms:60000}")
+    public void refresh() {
+        reload();
+    }
+
+    public boolean isBlocked(String email, String bankName) {
+        Entry entry = blocked.get(key(email, bankName));
+        return entry != null && entry.expiresAt() > System.currentTimeMillis();
+    }
+
+    /**
+     * Adds a block as soon as it is saved; refusing a login early is safe even if the save is
+     * later rolled back, since the next reload drops it.
+     */
+    public void block(BlockedUser blockedUser) {
+        String key = key(blockedUser.getEmail(), blockedUser.getBankName());
+        Entry entry = new Entry(expiresAt(blockedUser), System.currentTimeMillis());
+        lock.lock();
+        try {
+            blocked.merge(key, entry, Entry::later);
+            lifted.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a block. Inside a transaction this happens after commit, so a rolled back unblock
+     * never lets the user in.
+     */
+    public void unblock(BlockedUser blockedUser) {
+        String key = key(blockedUser.getEmail(), blockedUser.getBankName());
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                blocked.remove(key);
+                lifted.put(key, System.currentTimeMillis());
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Replaces the index with the active blocks in the database. Blocks and unblocks applied
+     * while the query ran are replayed on top, since the query may not have seen them.
+     */
+    void reload() {
+        long started = System.currentTimeMillis();
+        Map<String, Entry> loaded = new ConcurrentHashMap<>();
+        for (BlockedUser blockedUser : blockedUserRepository.findByCreatedAtAfter(new Timestamp(started - ttlMillis))) {
+            loaded.merge(key(blockedUser.getEmail(), blockedUser.getBankName()),
+                    new Entry(expiresAt(blockedUser), started), Entry::later);
+        }
+
+        lock.lock();
+        try {
+            blocked.forEach((key, entry) -> {
+                if (entry.changedAt() >= started) {
+                    loaded.merge(key, entry, Entry::later);
+                }
+            });
+            lifted.forEach((key, liftedAt) -> {
+                if (liftedAt >= started) {
+                    loaded.remove(key);
+                }
+            });
+            lifted.clear();
+            blocked = loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return blocked.size();
+    }
+
+    private long expiresAt(BlockedUser blockedUser) {
+        Timestamp createdAt = blockedUser.getCreatedAt();
+        long blockedAt = createdAt != null ? createdAt.getTime() : System.currentTimeMillis();
+        return blockedAt + ttlMillis;
+    }
+
+    // Email and bank compare case-insensitively, as they do in the database
+    private static String key(String email, String bankName) {
+        return (email + "|" + bankName).toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(long expiresAt, long changedAt) {
+        private Entry later(Entry other) {
+            return other.expiresAt() > expiresAt ? other : this;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.secure.services;
+
+import com.secure.model.BlockedUser;
+import com.secure.repository.BlockedUserRepository;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.BlockedUsersCache;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lifts blocks once they are older than the configured TTL. Expiry runs on a schedule with one
+ * indexed range delete, so neither user nor admin logins scan the blocked table, and both see
+ * the same TTL.
+ */
+@Service
+public class BlockedUserSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockedUserSweeper.class);
+
+    private final BlockedUserRepository blockedUserRepository;
+    private final AdminEventBus adminEventBus;
+    private final BlockedUsersCache blockedUsersCache;
+    private final long ttlMillis;
+
+    public BlockedUserSweeper(BlockedUserRepository blockedUserRepository,
+                              AdminEventBus adminEventBus,
+                              BlockedUsersCache blockedUsersCache,
+                              @Value("${blocked-users.ttl-ms:3600000}") long ttlMillis) {
+        this.blockedUserRepository = blockedUserRepository;
+        this.adminEventBus = adminEventBus;
+        this.blockedUsersCache = blockedUsersCache;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Deletes every expired block and announces each one on the admin live feed.
+     *
+     * @return the number of blocks lifted
+     */
+    @Scheduled(fixedDelayString = "${blocked-users.sweep-ms:60000}")
+    @Transactional
+    public int sweep() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - ttlMillis);
+        List<BlockedUser> expired = blockedUserRepository.findByCreatedAtBefore(cutoff);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = blockedUserRepository.deleteCreatedBefore(cutoff);
+        blockedUsersCache.invalidate();
+        for (BlockedUser blockedUser : expired) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", blockedUser.getId());
+            event.put("email", blockedUser.getEmail());
+            event.put("bankName", blockedUser.getBankName());
+            adminEventBus.publish(AdminEventBus.UNBLOCKED, event);
+        }
+        log.info("Lifted {} blocks older than {} ms", deleted, ttlMillis);
+        return deleted;
+    }
+}
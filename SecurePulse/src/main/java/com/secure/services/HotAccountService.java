@@ -0,0 +1,143 @@
+package com.secure.services;
+
+import com.secure.exception.CustomException;
+import com.secure.model.AccountSlot;
+import com.secure.repository.AccountRepository;
+import com.secure.repository.AccountSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Sharded sub-balances for accounts that receive many concurrent payments. A hot account's
+ * credits go to one of N slot rows chosen at random, so payers no longer queue on the single
+ * account row. Slots are swept back into the account row by a background job, and on demand
+ * when a debit needs the funds. Locks are always taken account row first, then slots.
+ */
+@Service
+public class HotAccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotAccountService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountSlotRepository accountSlotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int slots;
+
+    private final LongAdder slotCredits = new LongAdder();
+    private final LongAdder sweeps = new LongAdder();
+
+    public HotAccountService(AccountRepository accountRepository,
+                             AccountSlotRepository accountSlotRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${transfer.hot-account.slots:8}") int slots) {
+        this.accountRepository = accountRepository;
+        this.accountSlotRepository = accountSlotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.slots = slots;
+    }
+
+    /**
+     * Credits a random slot of a hot account inside the caller's transaction.
+     *
+     * @return false if the slot does not exist; the caller then credits the account row
+     */
+    public boolean credit(String accountNumber, BigDecimal amount) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        if (accountSlotRepository.credit(accountNumber, slot, amount) == 0) {
+            return false;
+        }
+        slotCredits.increment();
+        return true;
+    }
+
+    /**
+     * Moves every slot balance of the account into the account row inside the caller's
+     * transaction and returns the amount moved.
+     */
+    public BigDecimal sweep(String accountNumber) {
+        accountRepository.findForUpdateByAccountNumber(accountNumber);
+        List<AccountSlot> locked = accountSlotRepository.findForUpdateByAccountNumber(accountNumber);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountSlot slot : locked) {
+            total = total.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        if (total.signum() == 0) {
+            return total;
+        }
+
+        accountSlotRepository.saveAll(locked);
+        accountRepository.credit(accountNumber, total);
+        sweeps.increment();
+        return total;
+    }
+
+    // Funds credited to the account's slots and not yet swept
+    public BigDecimal pendingBalance(String accountNumber) {
+        return accountSlotRepository.sumBalanceByAccountNumber(accountNumber);
+    }
+
+    /**
+     * Sweeps every account that has funds in its slots. This also covers accounts whose
+     * hot flag was removed while a credit to a slot was still in flight.
+     */
+    @Scheduled(fixedDelayString = "${transfer.hot-account.consolidate-ms:1000}")
+    public void consolidate() {
+        for (String accountNumber : accountSlotRepository.findAccountNumbersWithPendingBalance()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> sweep(accountNumber));
+            } catch (RuntimeException e) {
+                log.warn("Could not consolidate slots of account {}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Turns hot mode on or off for an account. Enabling creates the missing slot rows;
+     * disabling sweeps the slots back into the account row.
+     */
+    public void setHot(String accountNumber, boolean hot) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (accountRepository.findForUpdateByAccountNumber(accountNumber).isEmpty()) {
+                throw new CustomException("Account not found");
+            }
+
+            if (hot) {
+                Set<Integer> existing = accountSlotRepository.findByAccountNumber(accountNumber).stream()
+                        .map(AccountSlot::getSlot)
+                        .collect(Collectors.toSet());
+                List<AccountSlot> missing = new ArrayList<>();
+                for (int slot = 0; slot < slots; slot++) {
+                    if (!existing.contains(slot)) {
+                        missing.add(new AccountSlot(accountNumber, slot));
+                    }
+                }
+                accountSlotRepository.saveAll(missing);
+            } else {
+                sweep(accountNumber);
+            }
+            accountRepository.updateHot(accountNumber, hot);
+        });
+    }
+
+    // Returns slot counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("slots", slots);
+        stats.put("hotAccounts", accountRepository.findHotAccountNumbers().size());
+        stats.put("slotCredits", slotCredits.sum());
+        stats.put("sweeps", sweeps.sum());
+        return stats;
+    }
+}
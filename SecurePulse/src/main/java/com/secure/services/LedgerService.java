@@ -0,0 +1,195 @@
+package com.secure.services;
+
+import com.secure.model.Account;
+import com.secure.model.AccountSlot;
+import com.secure.model.BalanceSnapshot;
+import com.secure.repository.AccountRepository;
+import com.secure.repository.AccountSlotRepository;
+import com.secure.repository.BalanceSnapshotRepository;
+import com.secure.repository.LedgerEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Derives account balances from the append-only ledger. Transfers insert one debit and one
+ * credit entry next to the conditional balance updates; a periodic job folds new entries into
+ * per-account snapshots, so a balance is the latest snapshot plus a short tail of entries.
+ * The same computation can rebuild {@code account.balance}, which is kept as a materialized
+ * value for existing readers and as the overdraft guard.
+ */
+@Service
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountSlotRepository accountSlotRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Latest committed snapshot per account
+    private final Map<String, BalanceSnapshot> latestSnapshots = new ConcurrentHashMap<>();
+
+    // Ledger id up to which accounts with new entries were already snapshotted
+    private volatile long snapshottedUpTo = 0;
+
+    private final LongAdder snapshotsTaken = new LongAdder();
+    private final LongAdder driftDetected = new LongAdder();
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         AccountRepository accountRepository,
+                         AccountSlotRepository accountSlotRepository,
+                         TransactionTemplate transactionTemplate) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.accountRepository = accountRepository;
+        this.accountSlotRepository = accountSlotRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Returns the balance derived from the ledger, or null if the account has no snapshot yet.
+     */
+    public BigDecimal balanceOf(String accountNumber) {
+        BalanceSnapshot snapshot = latestSnapshots.get(accountNumber);
+        if (snapshot == null) {
+            snapshot = balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc(accountNumber).orElse(null);
+            if (snapshot == null) {
+                return null;
+            }
+            latestSnapshots.merge(accountNumber, snapshot, this::newer);
+        }
+        return snapshot.getBalance().add(
+                ledgerEntryRepository.sumBetween(accountNumber, snapshot.getLastEntryId(), Long.MAX_VALUE));
+    }
+
+    /**
+     * Snapshots every account that has no snapshot yet or received entries since the last run.
+     */
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:300000}")
+    public void takeSnapshots() {
+        long upTo = ledgerEntryRepository.findMaxId();
+
+        Set<String> accounts = new LinkedHashSet<>(balanceSnapshotRepository.findAccountNumbersWithoutSnapshot());
+        accounts.addAll(ledgerEntryRepository.findAccountNumbersWithEntriesAfter(snapshottedUpTo));
+
+        boolean complete = true;
+        for (String accountNumber : accounts) {
+            try {
+                BalanceSnapshot snapshot = transactionTemplate.execute(status -> snapshot(accountNumber));
+                if (snapshot != null) {
+                    latestSnapshots.merge(accountNumber, snapshot, this::newer);
+                }
+            } catch (RuntimeException e) {
+                complete = false;
+                log.warn("Could not snapshot account {}: {}", accountNumber, e.getMessage());
+            }
+        }
+        if (complete) {
+            snapshottedUpTo = Math.max(snapshottedUpTo, upTo);
+        }
+    }
+
+    /**
+     * Writes a new snapshot for one account. The account row and its hot-account slots are locked
+     * first: every ledger entry is written by a transaction that also updates one of these rows, so no
+     * entry for the account is in flight while the entries are summed. An account's first snapshot is
+     * seeded from its stored balance.
+     */
+    private BalanceSnapshot snapshot(String accountNumber) {
+        Account account = accountRepository.findForUpdateByAccountNumber(accountNumber).orElse(null);
+        if (account == null) {
+            return null;
+        }
+        BigDecimal stored = storedBalance(account);
+
+        BalanceSnapshot previous = balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc(accountNumber).orElse(null);
+        long lastEntryId = ledgerEntryRepository.findMaxIdByAccountNumber(accountNumber);
+
+        BigDecimal balance;
+        if (previous == null) {
+            balance = stored;
+        } else if (previous.getLastEntryId() == lastEntryId) {
+            return previous;
+        } else {
+            balance = previous.getBalance().add(
+                    ledgerEntryRepository.sumBetween(accountNumber, previous.getLastEntryId(), lastEntryId));
+            if (balance.compareTo(stored) != 0) {
+                driftDetected.increment();
+                log.warn("Ledger balance {} of account {} differs from stored balance {}",
+                        balance, accountNumber, stored);
+            }
+        }
+
+        snapshotsTaken.increment();
+        return balanceSnapshotRepository.save(new BalanceSnapshot(accountNumber, balance, lastEntryId));
+    }
+
+    /**
+     * Recomputes {@code account.balance} from the ledger for every snapshotted account and
+     * returns the number of accounts that were corrected.
+     */
+    public int rebuildBalances() {
+        int corrected = 0;
+        for (String accountNumber : balanceSnapshotRepository.findSnapshottedAccountNumbers()) {
+            Boolean changed = transactionTemplate.execute(status -> rebuild(accountNumber));
+            if (Boolean.TRUE.equals(changed)) {
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private boolean rebuild(String accountNumber) {
+        Account account = accountRepository.findForUpdateByAccountNumber(accountNumber).orElse(null);
+        if (account == null) {
+            return false;
+        }
+        // Slot funds and held funds stay where they are; the available balance holds the rest
+        BigDecimal elsewhere = lockedSlotTotal(accountNumber).add(account.getReservedBalance());
+        BigDecimal derived = balanceOf(accountNumber);
+        if (derived == null || derived.compareTo(account.getBalance().add(elsewhere)) == 0) {
+            return false;
+        }
+        log.warn("Rebuilding balance of account {} from {} to {}", accountNumber, account.getBalance(), derived.subtract(elsewhere));
+        account.setBalance(derived.subtract(elsewhere));
+        accountRepository.save(account);
+        return true;
+    }
+
+    // Stored balance of an account including unswept slot credits and funds held for review;
+    // locks the slots like the account row. A hold moves no money, so it writes no ledger entry.
+    private BigDecimal storedBalance(Account account) {
+        return account.getBalance().add(account.getReservedBalance()).add(lockedSlotTotal(account.getAccountNumber()));
+    }
+
+    private BigDecimal lockedSlotTotal(String accountNumber) {
+        return accountSlotRepository.findForUpdateByAccountNumber(accountNumber).stream()
+                .map(AccountSlot::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private BalanceSnapshot newer(BalanceSnapshot a, BalanceSnapshot b) {
+        return a.getLastEntryId() >= b.getLastEntryId() ? a : b;
+    }
+
+    // Returns snapshot counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedSnapshots", latestSnapshots.size());
+        stats.put("snapshottedUpTo", snapshottedUpTo);
+        stats.put("snapshotsTaken", snapshotsTaken.sum());
+        stats.put("driftDetected", driftDetected.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,209 @@
+package com.secure.services;
+
+import com.secure.model.*;
+import com.secure.repository.NotificationOutboxRepository;
+import com.secure.repository.TransactionRepository;
+import com.secure.repository.UserRepository;
+import com.secure.utils.CircuitBreaker;
+import com.secure.utils.EmailProvider;
+import com.secure.utils.TemplateProvider;
+import jakarta.mail.MessagingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox written by transfers and delivers the debit/credit emails.
+ * Runs outside any transfer transaction, so slow or failing SMTP never holds account locks
+ * or pooled connections. Failed deliveries are retried with exponential backoff, and a
+ * circuit breaker stops attempts entirely while SMTP is down.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final DateTimeFormatter EMAIL_TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a, dd MMM yyyy");
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final EmailProvider emailProvider;
+    private final TemplateProvider templateProvider;
+    private final CircuitBreaker circuitBreaker;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long leaseMillis;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  TransactionRepository transactionRepository,
+                                  UserRepository userRepository,
+                                  EmailProvider emailProvider,
+                                  TemplateProvider templateProvider,
+                                  @Value("${notification.outbox.batch-size:50}") int batchSize,
+                                  @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+                                  @Value("${notification.outbox.backoff-ms:2000}") long baseBackoffMillis,
+                                  @Value("${notification.outbox.lease-ms:60000}") long leaseMillis,
+                                  @Value("${notification.smtp.failure-threshold:5}") int failureThreshold,
+                                  @Value("${notification.smtp.open-ms:30000}") long openMillis) {
+        this.outboxRepository = outboxRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.emailProvider = emailProvider;
+        this.templateProvider = templateProvider;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.leaseMillis = leaseMillis;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    }
+
+    /**
+     * Delivers one batch of due notifications. Transactions and users referenced by the
+     * batch are loaded with one query each.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-ms:2000}")
+    public void dispatch() {
+        List<NotificationOutbox> due = outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty() || !circuitBreaker.allowRequest()) {
+            return;
+        }
+
+        Map<Integer, Transaction> transactions = transactionRepository.findAllById(
+                        due.stream().map(NotificationOutbox::getTransactionId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+
+        Set<Integer> userIds = new HashSet<>();
+        for (NotificationOutbox notification : due) {
+            userIds.add(notification.getRecipientUserId());
+            Transaction transaction = transactions.get(notification.getTransactionId());
+            if (transaction != null) {
+                userIds.add(transaction.getSenderId());
+            }
+        }
+        Map<Integer, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        for (int i = 0; i < due.size(); i++) {
+            // Stop the batch as soon as the breaker trips; remaining rows stay pending untouched
+            if (i > 0 && !circuitBreaker.allowRequest()) {
+                break;
+            }
+            deliver(due.get(i), transactions, users);
+        }
+    }
+
+    private void deliver(NotificationOutbox notification, Map<Integer, Transaction> transactions, Map<Integer, User> users) {
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.claim(notification.getId(), notification.getAttempts(), now.plus(Duration.ofMillis(leaseMillis))) == 0) {
+            return; // claimed by another node
+        }
+        int attempt = notification.getAttempts() + 1;
+
+        Transaction transaction = transactions.get(notification.getTransactionId());
+        User recipient = users.get(notification.getRecipientUserId());
+        User sender = transaction == null ? null : users.get(transaction.getSenderId());
+        if (transaction == null || recipient == null || sender == null) {
+            // Retrying cannot fix missing data
+            failed.increment();
+            outboxRepository.updateOutcome(notification.getId(), NotificationOutbox.OutboxStatus.FAILED, now,
+                    "Transaction or user no longer exists");
+            return;
+        }
+
+        try {
+            String timestamp = transaction.getTimestamp().format(EMAIL_TIME_FORMAT);
+            if (notification.getType() == NotificationOutbox.NotificationType.DEBIT) {
+                String body = templateProvider.buildDebitNotificationEmail(transaction,
+                        accountSnapshot(transaction.getSenderAccountNumber(), transaction.getCurrentBalanceSender()),
+                        accountSnapshot(transaction.getReceiverAccountNumber(), transaction.getCurrentBalanceReceiver()),
+                        timestamp);
+                emailProvider.sendEmailNow(recipient.getEmail(), "Account Debited - Transaction Alert", body);
+            } else {
+                String body = templateProvider.buildCreditNotificationEmail(transaction,
+                        accountSnapshot(transaction.getReceiverAccountNumber(), transaction.getCurrentBalanceReceiver()),
+                        sender, timestamp, transaction.getDescription());
+                emailProvider.sendEmailNow(recipient.getEmail(), "Account Credited - Payment Received", body);
+            }
+
+            circuitBreaker.recordSuccess();
+            sent.increment();
+            outboxRepository.updateOutcome(notification.getId(), NotificationOutbox.OutboxStatus.SENT, now, null);
+        } catch (MessagingException | MailException e) {
+            circuitBreaker.recordFailure();
+            reschedule(notification.getId(), attempt, e);
+        } catch (Exception e) {
+            reschedule(notification.getId(), attempt, e);
+        }
+    }
+
+    // Schedules the next attempt with exponential backoff, or gives up after the last attempt
+    private void reschedule(Long id, int attempt, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        error = error.length() > 500 ? error.substring(0, 500) : error;
+
+        if (attempt >= maxAttempts) {
+            failed.increment();
+            log.warn("Giving up on notification {} after {} attempts: {}", id, attempt, error);
+            outboxRepository.updateOutcome(id, NotificationOutbox.OutboxStatus.FAILED, LocalDateTime.now(), error);
+            return;
+        }
+
+        retried.increment();
+        long backoff = baseBackoffMillis << Math.min(attempt - 1, 16);
+        outboxRepository.updateOutcome(id, NotificationOutbox.OutboxStatus.PENDING,
+                LocalDateTime.now().plus(Duration.ofMillis(backoff)), error);
+    }
+
+    // Builds the account view the email templates need from the balances recorded on the transaction
+    private Account accountSnapshot(String accountNumber, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        return account;
+    }
+
+    // Deletes delivered notifications after a week
+    @Scheduled(cron = "${notification.outbox.purge-cron:0 0 3 * * *}")
+    public void purgeDelivered() {
+        int purged = outboxRepository.purgeSentBefore(LocalDateTime.now().minusDays(7));
+        if (purged > 0) {
+            log.info("Purged {} delivered notifications", purged);
+        }
+    }
+
+    // Returns delivery counters and breaker state
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("circuit", circuitBreaker.getState().name());
+        stats.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        stats.put("pending", outboxRepository.countByStatus(NotificationOutbox.OutboxStatus.PENDING));
+        stats.put("sent", sent.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
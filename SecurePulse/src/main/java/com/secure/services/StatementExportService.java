@@ -0,0 +1,116 @@
+package com.secure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secure.exception.CustomException;
+import com.secure.model.TransactionSummary;
+import com.secure.repository.TransactionStatementRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a user's full statement as CSV or NDJSON while the rows are read from the database,
+ * so a download takes the same memory for ten lines as for ten years of history.
+ */
+@Service
+public class StatementExportService {
+
+    private static final String CSV_HEADER = "transactionId,description,timestamp,creditedAmount,debitedAmount,currentBalance";
+
+    private final TransactionStatementRepository transactionStatementRepository;
+    private final ObjectMapper objectMapper;
+
+    public StatementExportService(TransactionStatementRepository transactionStatementRepository, ObjectMapper objectMapper) {
+        this.transactionStatementRepository = transactionStatementRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Resolves the requested export format, ignoring case.
+     */
+    public Format parseFormat(String format) {
+        for (Format candidate : Format.values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new CustomException("Unsupported format: " + format + " (use csv or ndjson)");
+    }
+
+    /**
+     * Streams every completed transaction of the user, newest first, to the output stream.
+     */
+    public void export(Integer userId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try {
+            transactionStatementRepository.streamStatement(userId, line -> {
+                try {
+                    writer.write(format == Format.CSV ? toCsv(line) : objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; stop reading rows
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private String toCsv(TransactionSummary line) {
+        return line.getTransactionId() + ","
+                + csvField(line.getDescription()) + ","
+                + line.getTimestamp() + ","
+                + amount(line.getCreditedAmount()) + ","
+                + amount(line.getDebitedAmount()) + ","
+                + amount(line.getCurrentBalance());
+    }
+
+    private String amount(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    // Quotes fields containing separators, quotes or line breaks (descriptions may span lines)
+    // and defuses user text that a spreadsheet would evaluate as a formula
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
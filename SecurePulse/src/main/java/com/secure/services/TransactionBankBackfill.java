@@ -0,0 +1,73 @@
+package com.secure.services;
+
+import com.secure.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the sender and receiver bank of transactions written before those columns existed.
+ * Runs once in the background after startup and walks the affected id range in short
+ * transactions, so it never holds locks on a large part of the table. New rows carry their
+ * banks already, so after one complete pass there is nothing left to do.
+ */
+@Service
+public class TransactionBankBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionBankBackfill.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public TransactionBankBackfill(TransactionRepository transactionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${transaction.bank-backfill.batch-size:1000}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // Starts the backfill in the background once the application is up
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        run();
+    }
+
+    /**
+     * Copies the account banks onto every transaction still missing them and returns the number
+     * of rows updated. Rows whose account no longer exists are left without a bank.
+     */
+    int run() {
+        List<Object[]> range = transactionRepository.findIdRangeWithoutBank();
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return 0;
+        }
+        int fromId = ((Number) range.get(0)[0]).intValue();
+        int toId = ((Number) range.get(0)[1]).intValue();
+
+        int updated = 0;
+        for (long start = fromId; start <= toId; start += batchSize) {
+            int from = (int) start;
+            int to = (int) Math.min(start + batchSize - 1, toId);
+            try {
+                Integer rows = transactionTemplate.execute(status -> transactionRepository.backfillBanks(from, to));
+                updated += rows == null ? 0 : rows;
+            } catch (RuntimeException e) {
+                // Leave the remaining rows to the next startup rather than retrying in a loop
+                log.warn("Bank backfill stopped at transaction {}: {}", from, e.getMessage());
+                break;
+            }
+        }
+        log.info("Backfilled banks of {} transactions", updated);
+        return updated;
+    }
+}
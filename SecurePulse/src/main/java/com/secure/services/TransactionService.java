@@ -5,112 +5,291 @@ import com.secure.exception.CustomException;
 import com.secure.model.*;
 import com.secure.repository.AccountRepository;
 import com.secure.repository.BeneficiaryRepository;
+import com.secure.repository.LedgerEntryRepository;
+import com.secure.repository.NotificationOutboxRepository;
 import com.secure.repository.TransactionRepository;
-import com.secure.repository.UserRepository;
-import com.secure.utils.EmailProvider;
-import com.secure.utils.TemplateProvider;
+import com.secure.repository.TransactionStatementRepository;
+import com.secure.repository.TransferBatchRepository;
+import com.secure.repository.TransferContextRepository;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.IdempotencyStore;
+import com.secure.utils.RecentActivityCache;
+import com.secure.utils.TransferLanes;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
+
+    // Upper bound on entries accepted by a single batch request
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Upper bound on statement lines returned per page
+    private static final int MAX_PAGE_SIZE = 200;
+
     // Repositories and utilities required for transaction operations
     private final AccountRepository accountRepository;
     private final BeneficiaryRepository beneficiaryRepository;
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-    private final EmailProvider emailProvider;
-    private final TemplateProvider templateProvider;
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransferBatchRepository transferBatchRepository;
+    private final TransferContextRepository transferContextRepository;
+    private final TransactionStatementRepository transactionStatementRepository;
+
+    // Responses already returned per Idempotency-Key
+    private final IdempotencyStore idempotencyStore;
+
+    // Slot-based credits and sweeps for hot accounts
+    private final HotAccountService hotAccountService;
+
+    // Per-account single-writer queues with group commit
+    private final TransferLanes transferLanes;
 
-    // Map to handle concurrency for account locking during transactions
-    private static final Map<String, Object> accountLocks = new ConcurrentHashMap<>();
+    // Most recent statement lines per user, updated when transfers commit
+    private final RecentActivityCache recentActivityCache;
+
+    // Per-bank dashboard counters, updated when transactions commit
+    private final BankStatsService bankStatsService;
+    private final AdminEventBus adminEventBus;
 
     // Constructor injection for dependencies
-    public TransactionService(AccountRepository accountRepository, BeneficiaryRepository beneficiaryRepository, TransactionRepository transactionRepository, UserRepository userRepository, EmailProvider emailProvider, TemplateProvider templateProvider) {
+    public TransactionService(AccountRepository accountRepository, BeneficiaryRepository beneficiaryRepository, TransactionRepository transactionRepository, NotificationOutboxRepository notificationOutboxRepository, LedgerEntryRepository ledgerEntryRepository, TransferBatchRepository transferBatchRepository, TransferContextRepository transferContextRepository, TransactionStatementRepository transactionStatementRepository, IdempotencyStore idempotencyStore, HotAccountService hotAccountService, TransferLanes transferLanes, RecentActivityCache recentActivityCache, BankStatsService bankStatsService, AdminEventBus adminEventBus) {
         this.accountRepository = accountRepository;
         this.beneficiaryRepository = beneficiaryRepository;
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
-        this.emailProvider = emailProvider;
-        this.templateProvider = templateProvider;
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.transferBatchRepository = transferBatchRepository;
+        this.transferContextRepository = transferContextRepository;
+        this.transactionStatementRepository = transactionStatementRepository;
+        this.idempotencyStore = idempotencyStore;
+        this.hotAccountService = hotAccountService;
+        this.transferLanes = transferLanes;
+        this.recentActivityCache = recentActivityCache;
+        this.bankStatsService = bankStatsService;
+        this.adminEventBus = adminEventBus;
     }
 
     /**
-     * Adds a new transaction after validating OTP, beneficiary, accounts and balances.
-     * If 3 or more incorrect OTP attempts, the transaction is flagged as suspicious and saved as pending.
+     * Validates a transfer on the calling thread and hands the account writes to the sender's lane,
+     * where they are committed together with the other transfers queued on that lane. The future
+     * completes with the transfer's response once it has committed. A key that already produced a
+     * successful response returns that response again without touching any account. The
+     * Idempotency-Key is required: it is the reference a client polls with
+     * {@link #getTransferStatus} when it stops waiting.
      */
-    @Transactional
-    public Map<String, Object> addTransaction(Integer senderId, Integer beneficiaryId, String receiverAccountNumber,
-                                              BigDecimal amountTransferred, String ifscCode, String userBank, String description, Integer otpAttempt) {
+    public CompletableFuture<Map<String, Object>> submitTransaction(Integer senderId, Integer beneficiaryId, String receiverAccountNumber,
+                                                                    BigDecimal amountTransferred, String ifscCode, String userBank,
+                                                                    String description, Integer otpAttempt, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > 64) {
+            return CompletableFuture.completedFuture(
+                    Map.of("status", false, "message", "Idempotency-Key must be between 1 and 64 characters"));
+        }
+        String key = senderId + ":" + idempotencyKey;
+
+        Map<String, Object> remembered = idempotencyStore.get(key);
+        if (remembered != null) {
+            return CompletableFuture.completedFuture(remembered);
+        }
+
+        Optional<Transaction> stored = transactionRepository.findByIdempotencyKey(key);
+        if (stored.isPresent()) {
+            Map<String, Object> replay = replayResponse(stored.get());
+            idempotencyStore.complete(key, replay);
+            return CompletableFuture.completedFuture(replay);
+        }
+
+        if (!idempotencyStore.begin(key)) {
+            return CompletableFuture.completedFuture(
+                    Map.of("status", false, "message", "A request with this Idempotency-Key is already in progress"));
+        }
+
+        CompletableFuture<Map<String, Object>> applied;
         try {
-            System.out.println("🔹 Starting Transaction Process...");
+            TransferContext context = transferContextRepository.findTransferContext(
+                    beneficiaryId, senderId, userBank, receiverAccountNumber, ifscCode);
 
-            // Validate beneficiary and amount limit
-            Beneficiary beneficiary = validateBeneficiary(senderId, beneficiaryId, amountTransferred);
-            if (beneficiary == null) {
-                return Map.of("status", false, "message", "Invalid beneficiary or limit exceeded");
+            Map<String, Object> rejection = checkTransfer(context, amountTransferred);
+            if (rejection != null) {
+                idempotencyStore.release(key);
+                return CompletableFuture.completedFuture(rejection);
             }
 
-            // Fetch sender's account
-            Account senderAccount = fetchSenderAccount(senderId, userBank);
-            if (senderAccount == null) {
-                return Map.of("status", false, "message", "Sender account not found");
+            Account senderAccount = context.getSenderAccount();
+            Account receiverAccount = context.getReceiverAccount();
+            Integer receiverId = context.getBeneficiary().getBeneficiaryUserId();
+            if (otpAttempt >= 3) {
+                // The hold writes the sender's row, so it is queued on the sender's lane like a transfer
+                applied = transferLanes.submit(senderAccount.getAccountNumber(), List.of(senderAccount.getAccountNumber()), () -> saveSuspicious(
+                        context, senderId, amountTransferred, description, otpAttempt, key));
+            } else {
+                applied = transferLanes.submit(senderAccount.getAccountNumber(), lockedAccounts(senderAccount, receiverAccount), () -> applyTransfer(
+                        senderAccount, receiverAccount, amountTransferred, senderId, receiverId, description, key));
             }
+        } catch (RuntimeException e) {
+            idempotencyStore.release(key);
+            log.error("Transfer from user {} could not be queued", senderId, e);
+            return CompletableFuture.completedFuture(Map.of("status", false, "message", "Transaction failed: " + e.getMessage()));
+        }
 
-            // Check sender's balance
-            if (senderAccount.getBalance().compareTo(amountTransferred) < 0) {
-                return Map.of("status", false, "message", "Insufficient balance");
+        // The lane completes the future after commit, so a successful response can be remembered directly
+        return applied.handle((response, error) -> {
+            if (error != null) {
+                idempotencyStore.release(key);
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                return Map.of("status", false, "message", "Transaction failed: " + cause.getMessage());
             }
-
-            // Fetch receiver's account
-            Account receiverAccount = fetchReceiverAccount(receiverAccountNumber, ifscCode);
-            if (receiverAccount == null) {
-                return Map.of("status", false, "message", "Receiver account not found");
+            if (Boolean.TRUE.equals(response.get("status"))) {
+                idempotencyStore.complete(key, response);
+            } else {
+                idempotencyStore.release(key);
             }
+            return response;
+        });
+    }
 
-            // If multiple incorrect OTP attempts, flag as suspicious
-            if (otpAttempt >= 3) {
-                Transaction transaction = new Transaction();
-                transaction.setSenderId(senderId);
-                transaction.setReceiverId(receiverAccount.getUserId());
-                transaction.setSenderAccountNumber(senderAccount.getAccountNumber());
-                transaction.setReceiverAccountNumber(receiverAccount.getAccountNumber());
-                transaction.setAmountTransferred(amountTransferred);
-                transaction.setDescription(description + "\n" + "Multiple incorrect otp attempts");
-                transaction.setFlag(Transaction.TransactionFlag.PENDING);
-                transaction.setOtpAttempt(otpAttempt);
-                transaction.setMarked(Transaction.TransactionMarked.SUSPICIOUS);
-                transaction.setCurrentBalanceSender(senderAccount.getBalance());
-                transaction.setCurrentBalanceReceiver(receiverAccount.getBalance());
-                transactionRepository.save(transaction);
-
-                return Map.of("status", true, "message", "Transaction suspicious: Multiple incorrect OTP attempts");
-            }
+    /**
+     * Returns the outcome of a transfer submitted with the given Idempotency-Key by this sender:
+     * the original response once it has committed, a processing notice while it is still queued,
+     * or a failure if no transfer is known under the key.
+     */
+    public Map<String, Object> getTransferStatus(Integer senderId, String reference) {
+        String key = senderId + ":" + reference;
 
-            // Process a valid transaction
-            return processTransaction(senderAccount, receiverAccount, amountTransferred, senderId, beneficiary.getBeneficiaryUserId(), description);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Map.of("status", false, "message", "Transaction failed: " + e.getMessage());
+        Map<String, Object> remembered = idempotencyStore.get(key);
+        if (remembered != null) {
+            return remembered;
+        }
+
+        Optional<Transaction> stored = transactionRepository.findByIdempotencyKey(key);
+        if (stored.isPresent()) {
+            return replayResponse(stored.get());
+        }
+
+        if (idempotencyStore.isInFlight(key)) {
+            return Map.of("status", true, "message", "Transaction is being processed", "reference", reference);
+        }
+        return Map.of("status", false, "message", "No completed transaction found for this reference");
+    }
+
+    /**
+     * Rebuilds the response originally returned for a stored transaction.
+     */
+    private Map<String, Object> replayResponse(Transaction transaction) {
+        // Only suspicious transfers are stored without completing: pending review, or rejected
+        if (transaction.getFlag() != Transaction.TransactionFlag.COMPLETED) {
+            return Map.of("status", true, "message", "Transaction suspicious: Multiple incorrect OTP attempts");
+        }
+        return Map.of("status", true, "message", "Transaction successful", "transactionId", transaction.getTransactionId());
+    }
+
+    // Account rows a transfer writes; credits to a hot receiver go to its slots, not its row
+    private static List<String> lockedAccounts(Account sender, Account receiver) {
+        return lockedAccounts(sender.getAccountNumber(), receiver.getAccountNumber(), receiver.isHot());
+    }
+
+    private static List<String> lockedAccounts(String senderAccountNumber, String receiverAccountNumber, boolean receiverHot) {
+        return receiverHot ? List.of(senderAccountNumber) : List.of(senderAccountNumber, receiverAccountNumber);
+    }
+
+    /**
+     * Checks the loaded beneficiary, accounts and balance of a transfer.
+     * Returns the rejection response, or null if the transfer may go ahead.
+     */
+    private Map<String, Object> checkTransfer(TransferContext context, BigDecimal amountTransferred) {
+        // Validate beneficiary and amount limit
+        if (validateBeneficiary(context.getBeneficiary(), amountTransferred) == null) {
+            return Map.of("status", false, "message", "Invalid beneficiary or limit exceeded");
+        }
+
+        // Check sender's account
+        Account senderAccount = context.getSenderAccount();
+        if (senderAccount == null) {
+            return Map.of("status", false, "message", "Sender account not found");
+        }
+
+        // Check sender's balance
+        if (senderAccount.getBalance().compareTo(amountTransferred) < 0) {
+            return Map.of("status", false, "message", "Insufficient balance");
+        }
+
+        // Check receiver's account
+        if (context.getReceiverAccount() == null) {
+            return Map.of("status", false, "message", "Receiver account not found");
+        }
+        return null;
+    }
+
+    /**
+     * Saves a transfer with too many incorrect OTP attempts as a pending suspicious transaction and
+     * moves its amount to the sender's reserved balance, where it stays until an admin releases or
+     * rejects the transfer. Runs on the sender's lane.
+     */
+    private Map<String, Object> saveSuspicious(TransferContext context, Integer senderId, BigDecimal amountTransferred,
+                                               String description, Integer otpAttempt, String idempotencyKey) {
+        Account senderAccount = context.getSenderAccount();
+        Account receiverAccount = context.getReceiverAccount();
+
+        if (!reserve(senderAccount, amountTransferred)) {
+            return Map.of("status", false, "message", "Insufficient balance after locking");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(senderId);
+        transaction.setReceiverId(receiverAccount.getUserId());
+        transaction.setSenderAccountNumber(senderAccount.getAccountNumber());
+        transaction.setReceiverAccountNumber(receiverAccount.getAccountNumber());
+        transaction.setSenderBank(senderAccount.getBank());
+        transaction.setReceiverBank(receiverAccount.getBank());
+        transaction.setAmountTransferred(amountTransferred);
+        transaction.setDescription(description + "\n" + "Multiple incorrect otp attempts");
+        transaction.setFlag(Transaction.TransactionFlag.PENDING);
+        transaction.setOtpAttempt(otpAttempt);
+        transaction.setMarked(Transaction.TransactionMarked.SUSPICIOUS);
+        transaction.setCurrentBalanceSender(currentBalance(senderAccount));
+        transaction.setCurrentBalanceReceiver(receiverAccount.getBalance());
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setFundsHeld(true);
+        transactionRepository.save(transaction);
+        bankStatsService.recordSaved(transaction.getSenderBank(), transaction.getReceiverBank(),
+                transaction.getFlag(), transaction.getMarked());
+        publishTransaction(transaction);
+
+        return Map.of("status", true, "message", "Transaction suspicious: Multiple incorrect OTP attempts");
+    }
+
+    /**
+     * Marks the surrounding transaction (if any) for rollback.
+     */
+    private void markRollbackOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
         }
     }
 
     /**
      * Validates if the beneficiary exists and transaction amount is within allowed limit.
      */
-    private Beneficiary validateBeneficiary(Integer senderId, Integer receiverId, BigDecimal amountTransferred) {
-        Optional<Beneficiary> opt = beneficiaryRepository.findById(receiverId);
-        if (opt.isPresent()) {
-            Beneficiary beneficiary = opt.get();
-            if (amountTransferred.compareTo(beneficiary.getAmount()) <= 0) {
-                return beneficiary;
-            }
+    private Beneficiary validateBeneficiary(Beneficiary beneficiary, BigDecimal amountTransferred) {
+        if (beneficiary != null && amountTransferred.compareTo(beneficiary.getAmount()) <= 0) {
+            return beneficiary;
         }
         return null;
     }
@@ -124,129 +303,567 @@ public class TransactionService {
     }
 
     /**
-     * Fetches receiver's account using account number and IFSC code.
+     * Applies a validated transfer inside the caller's transaction, whose lane has already locked
+     * the account rows it touches: conditional debit, credit, the transaction row, its ledger pair and the outbox notifications.
+     * Unexpected errors propagate so the caller decides what to roll back.
      */
-    private Account fetchReceiverAccount(String accountNumber, String ifscCode) {
-        return accountRepository.findByAccountNumberAndIfscCode(accountNumber, ifscCode);
+    private Map<String, Object> applyTransfer(Account sender, Account receiver, BigDecimal amount,
+                                              Integer senderId, Integer receiverId, String description, String idempotencyKey) {
+        // Debit only if the sender still has enough funds at write time
+        if (!debit(sender, amount)) {
+            return Map.of("status", false, "message", "Insufficient balance after locking");
+        }
+
+        // Credit the receiver; undo the debit if the account disappeared meanwhile
+        if (!credit(receiver, amount)) {
+            accountRepository.credit(sender.getAccountNumber(), amount);
+            return Map.of("status", false, "message", "Receiver account not found");
+        }
+
+        // The written rows are locked by this transaction, so these reads are the post-transfer balances
+        sender.setBalance(currentBalance(sender));
+        receiver.setBalance(currentBalance(receiver));
+
+        // Create and save transaction
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(senderId);
+        transaction.setReceiverId(receiverId);
+        transaction.setSenderAccountNumber(sender.getAccountNumber());
+        transaction.setReceiverAccountNumber(receiver.getAccountNumber());
+        transaction.setSenderBank(sender.getBank());
+        transaction.setReceiverBank(receiver.getBank());
+        transaction.setAmountTransferred(amount);
+        transaction.setDescription(description);
+        transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+        transaction.setCurrentBalanceSender(sender.getBalance());
+        transaction.setCurrentBalanceReceiver(receiver.getBalance());
+        transaction.setIdempotencyKey(idempotencyKey);
+        transactionRepository.save(transaction);
+
+        // Append the debit/credit pair to the ledger
+        ledgerEntryRepository.saveAll(LedgerEntry.forTransfer(transaction.getTransactionId(),
+                sender.getAccountNumber(), receiver.getAccountNumber(), amount));
+
+        // Queue debit/credit emails in the same DB transaction; the dispatcher sends them after commit
+        notificationOutboxRepository.saveAll(List.of(
+                new NotificationOutbox(NotificationOutbox.NotificationType.DEBIT, transaction.getTransactionId(), senderId),
+                new NotificationOutbox(NotificationOutbox.NotificationType.CREDIT, transaction.getTransactionId(), receiverId)
+        ));
+
+        pushRecentActivityAfterCommit(List.of(transaction));
+        bankStatsService.recordSaved(transaction.getSenderBank(), transaction.getReceiverBank(),
+                transaction.getFlag(), transaction.getMarked());
+        publishTransaction(transaction);
+
+        return Map.of("status", true, "message", "Transaction successful", "transactionId", transaction.getTransactionId());
     }
 
     /**
-     * Processes the actual transaction:
-     *  - Locks sender and receiver accounts
-     *  - Verifies balance
-     *  - Updates balances
-     *  - Records the transaction
-     *  - Sends email notifications to both parties
+     * Completes a suspicious transfer an admin released. The held amount leaves the sender's reserved
+     * balance and is credited to the receiver, and the pending row becomes the completed transfer
+     * under its original id, with its ledger pair and notifications. A transfer saved before holds
+     * existed is debited from the available balance instead.
+     * Returns false if the transaction is not awaiting review or cannot be settled.
      */
     @Transactional
-    public Map<String, Object> processTransaction(Account sender, Account receiver, BigDecimal amount,
-                                                  Integer senderId, Integer receiverId, String description) {
-        // Create locks for concurrency handling
-        Object senderLock = accountLocks.computeIfAbsent(sender.getAccountNumber(), key -> new Object());
-        Object receiverLock = accountLocks.computeIfAbsent(receiver.getAccountNumber(), key -> new Object());
-
-        // Determine locking order to prevent deadlocks
-        Object firstLock = senderLock.toString().compareTo(receiverLock.toString()) < 0 ? senderLock : receiverLock;
-        Object secondLock = firstLock == senderLock ? receiverLock : senderLock;
-
-        synchronized (firstLock) {
-            synchronized (secondLock) {
-                // Recheck balance after acquiring lock
-                if (sender.getBalance().compareTo(amount) < 0) {
-                    return Map.of("status", false, "message", "Insufficient balance after locking");
-                }
-
-                // Update balances
-                sender.setBalance(sender.getBalance().subtract(amount));
-                receiver.setBalance(receiver.getBalance().add(amount));
-
-                try {
-                    // Save updated balances
-                    accountRepository.save(sender);
-                    accountRepository.save(receiver);
-
-                    // Create and save transaction
-                    Transaction transaction = new Transaction();
-                    transaction.setSenderId(senderId);
-                    transaction.setReceiverId(receiverId);
-                    transaction.setSenderAccountNumber(sender.getAccountNumber());
-                    transaction.setReceiverAccountNumber(receiver.getAccountNumber());
-                    transaction.setAmountTransferred(amount);
-                    transaction.setDescription(description);
-                    transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
-                    transaction.setCurrentBalanceSender(sender.getBalance());
-                    transaction.setCurrentBalanceReceiver(receiver.getBalance());
-                    transactionRepository.save(transaction);
-
-                    // Prepare email details
-                    Optional<User> user = userRepository.findById(senderId);
-                    Optional<User> user2 = userRepository.findById(receiverId);
-
-                    String senderEmail = user.get().getEmail();
-                    String receiverEmail = user2.get().getEmail();
-                    String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a, dd MMM yyyy"));
-
-                    // Send debit email to sender
-                    String senderMessageBody = templateProvider.buildDebitNotificationEmail(transaction, sender, receiver, timestamp);
-                    emailProvider.sendEmail(senderEmail, "Account Debited - Transaction Alert", senderMessageBody);
-
-                    // Send credit email to receiver
-                    String receiverMessageBody = templateProvider.buildCreditNotificationEmail(transaction, receiver, user.get(), timestamp, description);
-                    emailProvider.sendEmail(receiverEmail, "Account Credited - Payment Received", receiverMessageBody);
-
-                    return Map.of("status", true, "message", "Transaction successful", "transactionId", transaction.getTransactionId());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    throw new CustomException("Transaction failed: " + e.getMessage());
-                }
+    public boolean releaseSuspicious(Integer transactionId) {
+        Transaction transaction = transactionRepository.findForUpdateById(transactionId).orElse(null);
+        if (!isAwaitingReview(transaction)) {
+            return false;
+        }
+        Account sender = accountRepository.findByAccountNumber(transaction.getSenderAccountNumber()).orElse(null);
+        Account receiver = accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber()).orElse(null);
+        if (sender == null || receiver == null) {
+            return false;
+        }
+
+        // Same account-ordered row locks as the lanes, so a direct release cannot cross a queued transfer
+        transferBatchRepository.lockBalances(lockedAccounts(sender, receiver));
+
+        BigDecimal amount = transaction.getAmountTransferred();
+        boolean debited = transaction.isFundsHeld()
+                ? accountRepository.captureReserved(sender.getAccountNumber(), amount) == 1
+                : debit(sender, amount);
+        if (!debited) {
+            return false;
+        }
+        if (!credit(receiver, amount)) {
+            throw new CustomException("Receiver account not found");
+        }
+
+        Transaction.TransactionFlag previousFlag = transaction.getFlag();
+        Transaction.TransactionMarked previousMarked = transaction.getMarked();
+        if (!transaction.isFundsHeld()) {
+            transaction.setCurrentBalanceSender(currentBalance(sender));
+        }
+        transaction.setCurrentBalanceReceiver(currentBalance(receiver));
+        transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+        transaction.setMarked(Transaction.TransactionMarked.NORMAL);
+        transaction.setFundsHeld(false);
+        transactionRepository.save(transaction);
+
+        ledgerEntryRepository.saveAll(LedgerEntry.forTransfer(transaction.getTransactionId(),
+                sender.getAccountNumber(), receiver.getAccountNumber(), amount));
+        notificationOutboxRepository.saveAll(List.of(
+                new NotificationOutbox(NotificationOutbox.NotificationType.DEBIT, transaction.getTransactionId(), transaction.getSenderId()),
+                new NotificationOutbox(NotificationOutbox.NotificationType.CREDIT, transaction.getTransactionId(), transaction.getReceiverId())
+        ));
+
+        pushRecentActivityAfterCommit(List.of(transaction));
+        String senderBank = transaction.getSenderBank() != null ? transaction.getSenderBank() : sender.getBank();
+        String receiverBank = transaction.getReceiverBank() != null ? transaction.getReceiverBank() : receiver.getBank();
+        bankStatsService.recordRemoved(senderBank, receiverBank, previousFlag, previousMarked);
+        bankStatsService.recordSaved(senderBank, receiverBank, transaction.getFlag(), transaction.getMarked());
+        return true;
+    }
+
+    /**
+     * Rejects a suspicious transfer as fraud: the held amount goes back to the sender's available
+     * balance and the row is kept as a rejected transfer under its original id.
+     * Returns false if the transaction is not awaiting review.
+     */
+    @Transactional
+    public boolean rejectSuspicious(Integer transactionId) {
+        Transaction transaction = transactionRepository.findForUpdateById(transactionId).orElse(null);
+        if (!isAwaitingReview(transaction)) {
+            return false;
+        }
+        if (transaction.isFundsHeld()
+                && accountRepository.returnReserved(transaction.getSenderAccountNumber(), transaction.getAmountTransferred()) == 0) {
+            throw new CustomException("Held funds not found on account " + transaction.getSenderAccountNumber());
+        }
+
+        transaction.setFlag(Transaction.TransactionFlag.REJECTED);
+        transaction.setMarked(Transaction.TransactionMarked.FRAUD);
+        transaction.setFundsHeld(false);
+        transactionRepository.save(transaction);
+
+        String senderBank = transaction.getSenderBank() != null ? transaction.getSenderBank()
+                : accountRepository.findByAccountNumber(transaction.getSenderAccountNumber())
+                        .map(Account::getBank)
+                        .orElse(null);
+        bankStatsService.recordRemarked(senderBank, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionMarked.FRAUD);
+        return true;
+    }
+
+    /**
+     * Rejects a batch of suspicious transfers as fraud in one transaction. The rows are locked with
+     * one IN query, each sender gets its held funds back in a single update, and the rows are marked
+     * with one batched UPDATE. Returns the ids that were rejected; any other id was missing or no
+     * longer awaiting review.
+     */
+    @Transactional
+    public Set<Integer> rejectSuspicious(Collection<Integer> transactionIds) {
+        List<Transaction> awaiting = transactionRepository.findAllForUpdateByIdIn(transactionIds).stream()
+                .filter(this::isAwaitingReview)
+                .toList();
+        if (awaiting.isEmpty()) {
+            return Set.of();
+        }
+
+        // Sorted so concurrent batches update the sender rows in the same order
+        Map<String, BigDecimal> heldBySender = new TreeMap<>();
+        for (Transaction transaction : awaiting) {
+            if (transaction.isFundsHeld()) {
+                heldBySender.merge(transaction.getSenderAccountNumber(), transaction.getAmountTransferred(), BigDecimal::add);
+            }
+        }
+        heldBySender.forEach((accountNumber, held) -> {
+            if (accountRepository.returnReserved(accountNumber, held) == 0) {
+                throw new CustomException("Held funds not found on account " + accountNumber);
             }
+        });
+
+        Set<Integer> rejected = awaiting.stream()
+                .map(Transaction::getTransactionId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        transactionRepository.rejectAsFraud(rejected);
+
+        Map<String, String> legacyBanks = new HashMap<>();
+        for (Transaction transaction : awaiting) {
+            String senderBank = transaction.getSenderBank() != null ? transaction.getSenderBank()
+                    : legacyBanks.computeIfAbsent(transaction.getSenderAccountNumber(), accountNumber ->
+                            accountRepository.findByAccountNumber(accountNumber).map(Account::getBank).orElse(null));
+            bankStatsService.recordRemarked(senderBank, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionMarked.FRAUD);
         }
+        return rejected;
     }
 
     /**
-     * Retrieves all completed transactions (sent and received) for a specific user.
-     * Returns a combined, sorted transaction summary list.
+     * Queues the release of each suspicious transfer on its sender's lane. Releases from different
+     * senders run concurrently and share group commits, while one sender's releases apply in order
+     * without contending for its row. As for single transfers, a hot receiver's row is not locked
+     * because the release credits its slots. Each future completes once its release has committed.
      */
-    public Map<String, Object> getTransactionsByUserId(Integer userId) {
+    public Map<Integer, CompletableFuture<Map<String, Object>>> submitReleases(List<Transaction> transactions) {
+        Map<Integer, CompletableFuture<Map<String, Object>>> releases = new LinkedHashMap<>();
+        Set<String> hotAccounts = new HashSet<>(accountRepository.findHotAccountNumbers());
+        for (Transaction transaction : transactions) {
+            Integer transactionId = transaction.getTransactionId();
+            String receiverAccountNumber = transaction.getReceiverAccountNumber();
+            List<String> accounts = lockedAccounts(transaction.getSenderAccountNumber(), receiverAccountNumber,
+                    hotAccounts.contains(receiverAccountNumber));
+            releases.put(transactionId, transferLanes.submit(transaction.getSenderAccountNumber(), accounts, () -> releaseSuspicious(transactionId)
+                    ? Map.of("status", true, "message", "Transaction marked as normal")
+                    : Map.of("status", false, "message", "Transaction is no longer awaiting review or the funds are unavailable")));
+        }
+        return releases;
+    }
+
+    // A suspicious transfer no admin has released or rejected yet
+    private boolean isAwaitingReview(Transaction transaction) {
+        return transaction != null
+                && transaction.getMarked() == Transaction.TransactionMarked.SUSPICIOUS
+                && transaction.getFlag() == Transaction.TransactionFlag.PENDING;
+    }
+
+    /**
+     * Announces a committed transaction on the admin live feed.
+     */
+    private void publishTransaction(Transaction transaction) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("transactionId", transaction.getTransactionId());
+        event.put("senderAccountNumber", transaction.getSenderAccountNumber());
+        event.put("receiverAccountNumber", transaction.getReceiverAccountNumber());
+        event.put("senderBank", transaction.getSenderBank());
+        event.put("receiverBank", transaction.getReceiverBank());
+        event.put("amount", transaction.getAmountTransferred());
+        event.put("timestamp", transaction.getTimestamp());
+        event.put("status", transaction.getFlag());
+        event.put("marked", transaction.getMarked());
+        adminEventBus.publish(AdminEventBus.TRANSACTION, event);
+    }
+
+    /**
+     * Adds the committed transactions to the cached recent activity of both parties: a debit line for
+     * the sender and a credit line for the receiver. Nothing is pushed if the transaction rolls back.
+     */
+    private void pushRecentActivityAfterCommit(List<Transaction> transactions) {
+        Runnable push = () -> {
+            for (Transaction txn : transactions) {
+                recentActivityCache.push(txn.getSenderId(), new TransactionSummary(txn.getTransactionId(), txn.getDescription(),
+                        txn.getTimestamp(), null, txn.getAmountTransferred(), txn.getCurrentBalanceSender()));
+                recentActivityCache.push(txn.getReceiverId(), new TransactionSummary(txn.getTransactionId(), txn.getDescription(),
+                        txn.getTimestamp(), txn.getAmountTransferred(), null, txn.getCurrentBalanceReceiver()));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            push.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                push.run();
+            }
+        });
+    }
+
+    /**
+     * Debits an account if it holds enough funds. A hot account whose row alone is short
+     * first sweeps its slots into the row and tries again.
+     */
+    private boolean debit(Account account, BigDecimal amount) {
+        if (accountRepository.debitIfSufficient(account.getAccountNumber(), amount) == 1) {
+            return true;
+        }
+        return account.isHot()
+                && hotAccountService.sweep(account.getAccountNumber()).signum() > 0
+                && accountRepository.debitIfSufficient(account.getAccountNumber(), amount) == 1;
+    }
+
+    /**
+     * Moves an amount to the account's reserved balance if it holds enough available funds,
+     * sweeping a hot account's slots first when its row alone is short.
+     */
+    private boolean reserve(Account account, BigDecimal amount) {
+        if (accountRepository.reserveIfSufficient(account.getAccountNumber(), amount) == 1) {
+            return true;
+        }
+        return account.isHot()
+                && hotAccountService.sweep(account.getAccountNumber()).signum() > 0
+                && accountRepository.reserveIfSufficient(account.getAccountNumber(), amount) == 1;
+    }
+
+    /**
+     * Credits an account, spreading credits to a hot account over its slots.
+     */
+    private boolean credit(Account account, BigDecimal amount) {
+        if (account.isHot() && hotAccountService.credit(account.getAccountNumber(), amount)) {
+            return true;
+        }
+        return accountRepository.credit(account.getAccountNumber(), amount) == 1;
+    }
+
+    // Stored balance plus, for hot accounts, the credits not yet swept from the slots
+    private BigDecimal currentBalance(Account account) {
+        BigDecimal balance = accountRepository.findBalanceByAccountNumber(account.getAccountNumber());
+        return account.isHot() ? balance.add(hotAccountService.pendingBalance(account.getAccountNumber())) : balance;
+    }
+
+    /**
+     * Executes a batch of transfers from the authenticated user's account.
+     * Every entry is validated up front (beneficiaries and receiver accounts are each resolved with
+     * one query); the valid entries are then applied with the involved rows locked once, a single
+     * aggregated debit, batched credits and batched inserts. Returns one result per submitted entry.
+     */
+    @Transactional
+    public Map<String, Object> addBatchTransactions(Integer senderId, String userBank, List<BatchTransferItem> items) {
+        if (items == null || items.isEmpty()) {
+            return Map.of("status", false, "message", "No transfers submitted");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            return Map.of("status", false, "message", "A batch may contain at most " + MAX_BATCH_SIZE + " transfers");
+        }
+
         try {
-            List<Transaction> sentTransactions = transactionRepository.findBySenderIdAndFlag(
-                    userId, Transaction.TransactionFlag.COMPLETED);
-            List<Transaction> receivedTransactions = transactionRepository.findByReceiverIdAndFlag(
-                    userId, Transaction.TransactionFlag.COMPLETED);
-
-            List<TransactionSummary> allTransactions = new ArrayList<>();
-
-            for (Transaction txn : sentTransactions) {
-                allTransactions.add(new TransactionSummary(
-                        txn.getTransactionId(),
-                        txn.getDescription(),
-                        txn.getTimestamp(),
-                        null,
-                        txn.getAmountTransferred(),
-                        txn.getCurrentBalanceSender()
-                ));
+            // All entries of a request debit the caller's account in the selected bank, so they form one group
+            Account senderAccount = fetchSenderAccount(senderId, userBank);
+            if (senderAccount == null) {
+                return Map.of("status", false, "message", "Sender account not found");
             }
 
-            for (Transaction txn : receivedTransactions) {
-                allTransactions.add(new TransactionSummary(
-                        txn.getTransactionId(),
-                        txn.getDescription(),
-                        txn.getTimestamp(),
-                        txn.getAmountTransferred(),
-                        null,
-                        txn.getCurrentBalanceReceiver()
-                ));
+            Map<Integer, Map<String, Object>> results = new TreeMap<>();
+            List<ValidatedTransfer> valid = validateBatch(senderAccount, items, results);
+            if (!valid.isEmpty()) {
+                applyBatch(senderId, senderAccount, valid, results);
             }
 
-            // Sort by most recent
-            allTransactions = allTransactions.stream()
-                    .sorted(Comparator.comparing(TransactionSummary::getTimestamp).reversed())
-                    .collect(Collectors.toList());
+            long succeeded = results.values().stream().filter(r -> Boolean.TRUE.equals(r.get("status"))).count();
+            return Map.of(
+                    "status", succeeded > 0,
+                    "message", succeeded + " of " + items.size() + " transfers completed",
+                    "results", new ArrayList<>(results.values())
+            );
+        } catch (Exception e) {
+            log.error("Batch of {} transfers from user {} failed", items.size(), senderId, e);
+            markRollbackOnly();
+            return Map.of("status", false, "message", "Batch failed: " + e.getMessage());
+        }
+    }
 
-            return Map.of("status", true, "transactions", allTransactions);
+    /**
+     * Checks every batch entry against its beneficiary limit and receiver account.
+     * Returns the valid entries; failures go straight into results.
+     */
+    private List<ValidatedTransfer> validateBatch(Account senderAccount, List<BatchTransferItem> items,
+                                         Map<Integer, Map<String, Object>> results) {
+        Map<Integer, Beneficiary> beneficiaries = beneficiaryRepository.findAllById(
+                        items.stream().map(BatchTransferItem::getBeneficiaryId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Beneficiary::getBeneficiaryId, b -> b));
+        Map<String, Account> receivers = accountRepository.findByAccountNumberIn(
+                        items.stream().map(BatchTransferItem::getReceiverAccountNumber).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, a -> a));
+
+        List<ValidatedTransfer> valid = new ArrayList<>();
+        for (BatchTransferItem item : items) {
+            Beneficiary beneficiary = beneficiaries.get(item.getBeneficiaryId());
+            Account receiver = receivers.get(item.getReceiverAccountNumber());
+
+            if (item.getAmount() == null || item.getAmount().signum() <= 0) {
+                results.put(item.getIndex(), batchResult(item, false, "Invalid amount", null));
+            } else if (beneficiary == null || item.getAmount().compareTo(beneficiary.getAmount()) > 0) {
+                results.put(item.getIndex(), batchResult(item, false, "Invalid beneficiary or limit exceeded", null));
+            } else if (receiver == null || !receiver.getIfscCode().equals(item.getIfscCode())) {
+                results.put(item.getIndex(), batchResult(item, false, "Receiver account not found", null));
+            } else if (receiver.getAccountNumber().equals(senderAccount.getAccountNumber())) {
+                results.put(item.getIndex(), batchResult(item, false, "Cannot transfer to the same account", null));
+            } else {
+                valid.add(new ValidatedTransfer(item, beneficiary, receiver));
+            }
+        }
+        return valid;
+    }
 
+    /**
+     * Applies the validated entries in submission order while the sender and receiver rows are locked.
+     * Entries that would overdraw the sender are rejected; the rest are written with one debit,
+     * one batched credit per receiver and batched inserts.
+     */
+    private void applyBatch(Integer senderId, Account senderAccount, List<ValidatedTransfer> valid,
+                            Map<Integer, Map<String, Object>> results) {
+        String senderAccountNumber = senderAccount.getAccountNumber();
+        Set<String> involved = new HashSet<>();
+        involved.add(senderAccountNumber);
+        valid.forEach(v -> involved.add(v.receiver().getAccountNumber()));
+        Map<String, BigDecimal> balances = transferBatchRepository.lockBalances(involved);
+
+        BigDecimal senderBalance = balances.get(senderAccountNumber);
+        if (senderBalance != null && senderAccount.isHot()) {
+            // Slots are locked after all account rows, so the lock order stays the same as single transfers
+            senderBalance = senderBalance.add(hotAccountService.sweep(senderAccountNumber));
+        }
+        BigDecimal totalDebit = BigDecimal.ZERO;
+        Map<String, BigDecimal> credits = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>();
+        List<BatchTransferItem> applied = new ArrayList<>();
+
+        for (ValidatedTransfer v : valid) {
+            BatchTransferItem item = v.item();
+            Beneficiary beneficiary = v.beneficiary();
+            String receiverAccountNumber = v.receiver().getAccountNumber();
+
+            if (senderBalance == null || senderBalance.compareTo(item.getAmount()) < 0) {
+                results.put(item.getIndex(), batchResult(item, false, "Insufficient balance", null));
+                continue;
+            }
+
+            senderBalance = senderBalance.subtract(item.getAmount());
+            BigDecimal receiverBalance = balances.merge(receiverAccountNumber, item.getAmount(), BigDecimal::add);
+            totalDebit = totalDebit.add(item.getAmount());
+            credits.merge(receiverAccountNumber, item.getAmount(), BigDecimal::add);
+
+            Transaction transaction = new Transaction();
+            transaction.setSenderId(senderId);
+            transaction.setReceiverId(beneficiary.getBeneficiaryUserId());
+            transaction.setSenderAccountNumber(senderAccountNumber);
+            transaction.setReceiverAccountNumber(receiverAccountNumber);
+            transaction.setSenderBank(senderAccount.getBank());
+            transaction.setReceiverBank(v.receiver().getBank());
+            transaction.setAmountTransferred(item.getAmount());
+            transaction.setDescription(item.getDescription() == null ? "" : item.getDescription());
+            transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+            transaction.setCurrentBalanceSender(senderBalance);
+            transaction.setCurrentBalanceReceiver(receiverBalance);
+            transactions.add(transaction);
+            applied.add(item);
+        }
+
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        // The sender row is locked, so the aggregated debit cannot fail on funds
+        if (transferBatchRepository.debitIfSufficient(senderAccountNumber, totalDebit) == 0) {
+            throw new CustomException("Sender balance changed during batch");
+        }
+        transferBatchRepository.credit(credits);
+        transferBatchRepository.insertTransactions(transactions);
+
+        List<LedgerEntry> entries = new ArrayList<>();
+        List<NotificationOutbox> notifications = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            entries.addAll(LedgerEntry.forTransfer(transaction.getTransactionId(),
+                    transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber(), transaction.getAmountTransferred()));
+            notifications.add(new NotificationOutbox(NotificationOutbox.NotificationType.DEBIT, transaction.getTransactionId(), senderId));
+            notifications.add(new NotificationOutbox(NotificationOutbox.NotificationType.CREDIT, transaction.getTransactionId(), transaction.getReceiverId()));
+        }
+        transferBatchRepository.insertLedgerEntries(entries);
+        transferBatchRepository.insertNotifications(notifications);
+        pushRecentActivityAfterCommit(transactions);
+        for (Transaction transaction : transactions) {
+            bankStatsService.recordSaved(transaction.getSenderBank(), transaction.getReceiverBank(),
+                    transaction.getFlag(), transaction.getMarked());
+            publishTransaction(transaction);
+        }
+
+        for (int i = 0; i < applied.size(); i++) {
+            results.put(applied.get(i).getIndex(),
+                    batchResult(applied.get(i), true, "Transaction successful", transactions.get(i).getTransactionId()));
+        }
+    }
+
+    // A batch entry that passed validation, with the entities it resolved to
+    private record ValidatedTransfer(BatchTransferItem item, Beneficiary beneficiary, Account receiver) {
+    }
+
+    private Map<String, Object> batchResult(BatchTransferItem item, boolean status, String message, Integer transactionId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", item.getIndex());
+        result.put("status", status);
+        result.put("message", message);
+        if (transactionId != null) {
+            result.put("transactionId", transactionId);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves one page of completed transactions (sent and received) for a specific user, newest first.
+     * The page starts after the line identified by the cursor (null for the newest page) and the response
+     * carries the cursor of the next page, or null when the history is exhausted.
+     */
+    public Map<String, Object> getTransactionsByUserId(Integer userId, String before, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new CustomException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TransactionStatementRepository.Cursor cursor = before == null || before.isBlank() ? null : decodeCursor(before);
+
+        // The newest page of a dashboard refresh is answered from the recent activity cache
+        if (cursor == null && limit <= recentActivityCache.getLinesPerUser()) {
+            RecentActivityCache.Page recent = recentLines(userId);
+            return pageResponse(recent.lines(), limit, recent.more());
+        }
+
+        List<TransactionSummary> page;
+        try {
+            // One extra line tells whether another page follows
+            page = transactionStatementRepository.findPage(userId, cursor, limit + 1);
+        } catch (Exception e) {
+            throw new CustomException("Failed to fetch transactions");
+        }
+
+        return pageResponse(page, limit, false);
+    }
+
+    // Cached recent lines of the user, loaded from the database on a miss
+    private RecentActivityCache.Page recentLines(Integer userId) {
+        RecentActivityCache.Page cached = recentActivityCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int size = recentActivityCache.getLinesPerUser();
+        Object token = recentActivityCache.beginLoad(userId);
+        List<TransactionSummary> lines;
+        try {
+            lines = transactionStatementRepository.findPage(userId, null, size + 1);
         } catch (Exception e) {
+            recentActivityCache.cancelLoad(userId, token);
             throw new CustomException("Failed to fetch transactions");
         }
+        boolean more = lines.size() > size;
+        if (more) {
+            lines = lines.subList(0, size);
+        }
+        recentActivityCache.store(userId, token, lines, more);
+        return new RecentActivityCache.Page(lines, more);
+    }
+
+    /**
+     * Builds the response for the first {@code limit} of the given lines. The next cursor is set when
+     * more lines were given than requested, or when {@code more} says older lines exist beyond them.
+     */
+    private Map<String, Object> pageResponse(List<TransactionSummary> lines, int limit, boolean more) {
+        List<TransactionSummary> page = lines.size() > limit ? lines.subList(0, limit) : lines;
+        boolean hasNext = lines.size() > limit || (lines.size() == limit && more);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", true);
+        response.put("transactions", page);
+        response.put("nextCursor", hasNext ? encodeCursor(page.get(limit - 1)) : null);
+        return response;
+    }
+
+    // Opaque cursor: the line's timestamp, transaction id and side, URL-safe Base64 encoded
+    private String encodeCursor(TransactionSummary line) {
+        String side = line.getDebitedAmount() != null ? "D" : "C";
+        String raw = line.getTimestamp() + "|" + line.getTransactionId() + "|" + side;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TransactionStatementRepository.Cursor decodeCursor(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !(parts[2].equals("D") || parts[2].equals("C"))) {
+                throw new IllegalArgumentException(token);
+            }
+            return new TransactionStatementRepository.Cursor(
+                    LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]), parts[2].equals("D"));
+        } catch (RuntimeException e) {
+            throw new CustomException("Invalid cursor");
+        }
     }
 }
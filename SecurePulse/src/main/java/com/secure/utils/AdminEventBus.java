@@ -0,0 +1,220 @@
+package com.secure.utils;
+
+import com.secure.exception.CustomException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process broadcast of admin dashboard events (new transactions, mark changes, blocks and
+ * unblocks) to every connected Server-Sent Events subscriber. Publishing only appends to each
+ * subscriber's bounded buffer; a small sender pool writes the buffers to the connections, so a
+ * slow admin never delays a transfer. When a buffer is full its oldest event is dropped.
+ */
+@Component
+public class AdminEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminEventBus.class);
+
+    public static final String TRANSACTION = "transaction";
+    public static final String MARKED = "marked";
+    public static final String BLOCKED = "blocked";
+    public static final String UNBLOCKED = "unblocked";
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Makes the subscriber limit check and the add one step
+    private final ReentrantLock subscribeLock = new ReentrantLock();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public AdminEventBus(@Value("${admin.stream.buffer-size:256}") int bufferSize,
+                         @Value("${admin.stream.max-subscribers:100}") int maxSubscribers,
+                         @Value("${admin.stream.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${admin.stream.senders:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("admin-stream-"));
+    }
+
+    /**
+     * Opens a stream for one admin. The connection closes after the configured timeout and the
+     * browser's EventSource reconnects on its own.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribeLock.lock();
+        try {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new CustomException("Too many open admin streams");
+            }
+            subscribers.add(subscriber);
+        } finally {
+            subscribeLock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Broadcasts an event to all subscribers. Inside a transaction the event is sent after commit,
+     * so admins never see a change that was rolled back.
+     */
+    public void publish(String type, Map<String, Object> data) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast(type, data);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast(type, data);
+            }
+        });
+    }
+
+    private void broadcast(String type, Map<String, Object> data) {
+        published.increment();
+        Event event = new Event(sequence.incrementAndGet(), type, data);
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    // Keeps idle connections open through proxies that close silent ones
+    @Scheduled(fixedDelayString = "${admin.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Event event = new Event(0, null, null);
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Event event) {
+        boolean startSender;
+        subscriber.lock.lock();
+        try {
+            if (subscriber.buffer.size() >= bufferSize) {
+                subscriber.buffer.pollFirst();
+                dropped.increment();
+            }
+            subscriber.buffer.addLast(event);
+            startSender = !subscriber.sending;
+            subscriber.sending = true;
+        } finally {
+            subscriber.lock.unlock();
+        }
+        if (startSender) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.lock.lock();
+                try {
+                    subscriber.sending = false;
+                } finally {
+                    subscriber.lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Writes the subscriber's buffer to its connection until the buffer is empty
+    private void send(Subscriber subscriber) {
+        while (true) {
+            Event event;
+            subscriber.lock.lock();
+            try {
+                event = subscriber.buffer.pollFirst();
+                if (event == null) {
+                    subscriber.sending = false;
+                    return;
+                }
+            } finally {
+                subscriber.lock.unlock();
+            }
+            try {
+                subscriber.emitter.send(toSse(event));
+                if (event.type() != null) {
+                    delivered.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The admin went away; drop the subscriber and whatever it had buffered
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Event event) {
+        if (event.type() == null) {
+            return SseEmitter.event().comment("keepalive");
+        }
+        return SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.type())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    // Returns subscriber count and published, delivered and dropped event counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("published", published.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        log.info("Admin event stream stopped");
+    }
+
+    private record Event(long id, String type, Map<String, Object> data) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<Event> buffer = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        // True while a sender task owns this subscriber's connection; guarded by lock
+        private boolean sending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.secure.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived copy of the admin blocked-users listing. Every block or unblock invalidates it, so
+ * the TTL only bounds how long a change made outside the application can go unnoticed.
+ */
+@Component
+public class BlockedUsersCache {
+
+    private final long ttlMillis;
+
+    // Bumped on every invalidation; a listing loaded under an older generation is never served
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public BlockedUsersCache(@Value("${admin.blocked-users.cache-ms:30000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the cached listing, or loads and caches it when it is missing, expired or invalidated.
+     */
+    public List<Map<String, Object>> get(Supplier<List<Map<String, Object>>> loader) {
+        long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get() && current.expiresAt() > now) {
+            return current.rows();
+        }
+
+        long loadedUnder = generation.get();
+        List<Map<String, Object>> rows = Collections.unmodifiableList(loader.get());
+        snapshot = new Snapshot(rows, loadedUnder, now + ttlMillis);
+        return rows;
+    }
+
+    /**
+     * Drops the cached listing. Inside a transaction this happens after commit, so a listing read
+     * before the change is visible cannot be cached as current.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private record Snapshot(List<Map<String, Object>> rows, long generation, long expiresAt) {
+    }
+}
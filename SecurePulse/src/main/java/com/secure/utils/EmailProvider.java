@@ -20,16 +20,21 @@ public class EmailProvider {
     @Async
     public void sendEmail(String toEmail, String subject, String messageBody) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(messageBody, true); // true = HTML
-
-            mailSender.send(message);
+            sendEmailNow(toEmail, subject, messageBody);
         } catch (MessagingException e) {
             e.printStackTrace(); // Consider logging this with a logger instead
         }
     }
+
+    // Sends on the calling thread and lets delivery failures reach the caller (used by the outbox dispatcher)
+    public void sendEmailNow(String toEmail, String subject, String messageBody) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(toEmail);
+        helper.setSubject(subject);
+        helper.setText(messageBody, true); // true = HTML
+
+        mailSender.send(message);
+    }
 }
@@ -0,0 +1,101 @@
+package com.secure.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory record of responses already returned for an Idempotency-Key.
+ * Entries expire after a fixed TTL and the oldest are evicted once the size cap is hit;
+ * the unique key stored on the transaction row is the durable fallback.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Insertion-ordered, and every entry has the same TTL, so the head is always the next to expire
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyStore(@Value("${transfer.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${transfer.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // Returns the remembered response for the key, or null if unknown or expired
+    public Map<String, Object> get(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.response;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Marks the key as being processed; returns false if another request holds it
+    public boolean begin(String key) {
+        return inFlight.add(key);
+    }
+
+    // Remembers the final response for the key and releases it
+    public void complete(String key, Map<String, Object> response) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            entries.remove(key);
+            entries.put(key, new Entry(response, now + ttlMillis));
+
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry head = it.next();
+                if (entries.size() <= maxEntries && head.expiresAt > now) {
+                    break;
+                }
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+            inFlight.remove(key);
+        }
+    }
+
+    // True while a request holding the key has not finished yet
+    public boolean isInFlight(String key) {
+        return inFlight.contains(key);
+    }
+
+    // Releases the key without remembering a response, so a retry is processed again
+    public void release(String key) {
+        inFlight.remove(key);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(Map<String, Object> response, long expiresAt) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.secure.utils;
 
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.Random;
@@ -10,32 +11,39 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class OtpProvider {
 
-    private final ConcurrentHashMap<String, String> otpStorage = new ConcurrentHashMap<>();
+    private static final long OTP_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ConcurrentHashMap<String, StoredOtp> otpStorage = new ConcurrentHashMap<>();
     private final Random random = new Random();
 
-    // Generate and store OTP
+    // Generate and store OTP; it expires after 5 minutes
     public String generateOtp(String email) {
         String otp = String.valueOf(100000 + random.nextInt(900000)); // 6-digit OTP
-        otpStorage.put(email, otp);
-
-        // Auto-remove OTP after 5 minutes
-        new Thread(() -> {
-            try {
-                TimeUnit.MINUTES.sleep(5);
-                otpStorage.remove(email);
-            } catch (InterruptedException ignored) {}
-        }).start();
-
+        otpStorage.put(email, new StoredOtp(otp, System.currentTimeMillis() + OTP_TTL_MILLIS));
         return otp;
     }
 
     // Validate OTP
     public boolean validateOtp(String email, String userOtp) {
-        String storedOtp = otpStorage.get(email);
-        if (storedOtp != null && storedOtp.equals(userOtp)) {
-            otpStorage.remove(email); // Remove OTP after successful verification
-            return true;
+        StoredOtp stored = otpStorage.get(email);
+        if (stored == null) {
+            return false;
+        }
+        if (stored.expiresAt() <= System.currentTimeMillis()) {
+            otpStorage.remove(email, stored);
+            return false;
         }
-        return false;
+        // Remove OTP after successful verification; only one concurrent caller can succeed
+        return stored.otp().equals(userOtp) && otpStorage.remove(email, stored);
+    }
+
+    // Drops expired OTPs that were never verified
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        otpStorage.values().removeIf(stored -> stored.expiresAt() <= now);
+    }
+
+    private record StoredOtp(String otp, long expiresAt) {
     }
 }
@@ -0,0 +1,187 @@
+package com.secure.utils;
+
+import com.secure.model.TransactionSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory copy of each active user's most recent statement lines, newest first.
+ * Committed transfers are pushed into the entries of both parties instead of evicting them,
+ * so dashboard refreshes are answered without touching the database. Entries expire after a
+ * fixed TTL and the least recently used users are evicted once the size cap is hit.
+ */
+@Component
+public class RecentActivityCache {
+
+    // Same statement order as the database: timestamp, transaction id, debit before credit; descending
+    private static final Comparator<TransactionSummary> NEWEST_FIRST = Comparator
+            .comparing(TransactionSummary::getTimestamp)
+            .thenComparing(TransactionSummary::getTransactionId)
+            .thenComparing(line -> line.getDebitedAmount() != null)
+            .reversed();
+
+    private final int maxUsers;
+    private final int linesPerUser;
+    private final long ttlMillis;
+
+    // Access-ordered, so the head is the least recently used user
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Loads in progress; a push for the user invalidates the load so a stale page is not cached
+    private final Map<Integer, Object> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+
+    public RecentActivityCache(@Value("${transaction.recent-cache.max-users:10000}") int maxUsers,
+                               @Value("${transaction.recent-cache.lines-per-user:50}") int linesPerUser,
+                               @Value("${transaction.recent-cache.ttl-ms:300000}") long ttlMillis) {
+        this.maxUsers = maxUsers;
+        this.linesPerUser = linesPerUser;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // Number of most recent lines kept per user; larger pages bypass the cache
+    public int getLinesPerUser() {
+        return linesPerUser;
+    }
+
+    /**
+     * Returns the cached recent lines of the user, or null on a miss.
+     */
+    public Page get(Integer userId) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(userId);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return new Page(List.copyOf(entry.lines), entry.more);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Call before reading the user's lines from the database; pass the token to store()
+    public Object beginLoad(Integer userId) {
+        Object token = new Object();
+        loading.put(userId, token);
+        return token;
+    }
+
+    // Call when the load failed, so the user's slot in the in-progress map is freed
+    public void cancelLoad(Integer userId, Object token) {
+        loading.remove(userId, token);
+    }
+
+    /**
+     * Caches the lines read from the database, unless a transfer of the user committed while they
+     * were being read. {@code more} tells whether the history goes beyond these lines.
+     */
+    public void store(Integer userId, Object token, List<TransactionSummary> lines, boolean more) {
+        if (!loading.remove(userId, token)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            entries.put(userId, new Entry(new ArrayList<>(lines), more, now + ttlMillis));
+            evictOverflow(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a committed statement line to the user's entry, if the user is cached, keeping the
+     * newest lines only.
+     */
+    public void push(Integer userId, TransactionSummary line) {
+        loading.remove(userId);
+        lock.lock();
+        try {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            int at = Collections.binarySearch(entry.lines, line, NEWEST_FIRST);
+            if (at >= 0) {
+                // Already read from the database by the load that created the entry
+                return;
+            }
+            entry.lines.add(-at - 1, line);
+            if (entry.lines.size() > linesPerUser) {
+                entry.lines.remove(entry.lines.size() - 1);
+                entry.more = true;
+            }
+            pushes.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverflow(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && entries.size() > maxUsers) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+        // Drop expired users that happen to sit at the least recently used end
+        while (it.hasNext()) {
+            if (it.next().expiresAt > now) {
+                break;
+            }
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // Returns cache size and hit, miss, eviction and push counters
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("users", entries.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("maxUsers", maxUsers);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("pushes", pushes.sum());
+        return stats;
+    }
+
+    // A user's cached lines; more is true when older lines exist beyond them
+    public record Page(List<TransactionSummary> lines, boolean more) {
+    }
+
+    private static final class Entry {
+        private final List<TransactionSummary> lines;
+        private boolean more;
+        private final long expiresAt;
+
+        private Entry(List<TransactionSummary> lines, boolean more, long expiresAt) {
+            this.lines = lines;
+            this.more = more;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.secure.utils;
+
+import com.secure.repository.TransferBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer lanes for transfers. Each transfer is queued on the lane chosen by its sender
+ * account and one worker per lane applies the queue in order, so transfers from the same account
+ * never contend with each other. A worker takes everything waiting on its lane (up to the batch
+ * size) and commits it in one database transaction; if that transaction fails, each transfer of
+ * the group is retried in a transaction of its own so one bad transfer cannot fail the rest.
+ * Before any transfer is applied, every account row the group writes is locked in account-number
+ * order, the same order batch transfers use, so lanes cannot deadlock each other or a batch on
+ * those rows. A transfer that still loses a deadlock (on a slot or transaction row) is retried.
+ */
+@Component
+public class TransferLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferLanes.class);
+
+    // Attempts given to a transfer that keeps losing deadlocks when applied on its own
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransferBatchRepository transferBatchRepository;
+    private final List<BlockingQueue<LaneTask>> lanes = new ArrayList<>();
+    private final ExecutorService workers;
+    private final int maxBatch;
+    private final long deadlineMillis;
+    private volatile boolean running = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder groupCommits = new LongAdder();
+    private final LongAdder groupedTransfers = new LongAdder();
+    private final LongAdder groupFallbacks = new LongAdder();
+    private final LongAdder deadlockRetries = new LongAdder();
+
+    public TransferLanes(TransactionTemplate transactionTemplate,
+                         TransferBatchRepository transferBatchRepository,
+                         @Value("${transfer.lanes.count:16}") int laneCount,
+                         @Value("${transfer.lanes.capacity:1000}") int capacity,
+                         @Value("${transfer.lanes.max-batch:32}") int maxBatch,
+                         @Value("${transfer.lanes.deadline-ms:3000}") long deadlineMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.transferBatchRepository = transferBatchRepository;
+        this.maxBatch = maxBatch;
+        this.deadlineMillis = deadlineMillis;
+        this.workers = Executors.newFixedThreadPool(laneCount, new CustomizableThreadFactory("transfer-lane-"));
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<LaneTask> queue = new LinkedBlockingQueue<>(capacity);
+            lanes.add(queue);
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    /**
+     * Queues work on the lane of the given account. {@code lockedAccounts} are the account rows the
+     * work writes; they are locked with the rest of its group before it runs. The future completes
+     * with the work's result once its transaction has committed, or exceptionally if it failed.
+     */
+    public CompletableFuture<Map<String, Object>> submit(String accountNumber, Collection<String> lockedAccounts,
+                                                         Supplier<Map<String, Object>> work) {
+        LaneTask task = new LaneTask(List.copyOf(lockedAccounts), work, new CompletableFuture<>());
+        if (!running || !laneOf(accountNumber).offer(task)) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(
+                    Map.of("status", false, "message", "Too many pending transfers, please try again"));
+        }
+        submitted.increment();
+        return task.future();
+    }
+
+    // How long a request should wait for its transfer before answering with a reference to poll
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    private BlockingQueue<LaneTask> laneOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        h ^= (h >>> 16);
+        return lanes.get(Math.floorMod(h, lanes.size()));
+    }
+
+    private void drain(BlockingQueue<LaneTask> queue) {
+        List<LaneTask> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                LaneTask first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxBatch - 1);
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Never let the worker die; the group's futures were already completed
+                log.error("Transfer lane worker error", e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commitGroup(List<LaneTask> group) {
+        List<Map<String, Object>> results;
+        try {
+            results = transactionTemplate.execute(status -> {
+                Set<String> accounts = new TreeSet<>();
+                group.forEach(task -> accounts.addAll(task.lockedAccounts()));
+                transferBatchRepository.lockBalances(accounts);
+                List<Map<String, Object>> out = new ArrayList<>(group.size());
+                for (LaneTask task : group) {
+                    out.add(task.work().get());
+                }
+                return out;
+            });
+        } catch (RuntimeException e) {
+            if (group.size() == 1 && !isDeadlock(e)) {
+                group.get(0).future().completeExceptionally(e);
+                return;
+            }
+            groupFallbacks.increment();
+            log.warn("Group of {} transfers failed, applying them one by one: {}", group.size(), e.getMessage());
+            group.forEach(this::commitAlone);
+            return;
+        }
+
+        groupCommits.increment();
+        groupedTransfers.add(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).future().complete(results.get(i));
+        }
+    }
+
+    private void commitAlone(LaneTask task) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                task.future().complete(transactionTemplate.execute(status -> {
+                    transferBatchRepository.lockBalances(task.lockedAccounts());
+                    return task.work().get();
+                }));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isDeadlock(e)) {
+                    task.future().completeExceptionally(e);
+                    return;
+                }
+                deadlockRetries.increment();
+                log.warn("Transfer lost a deadlock, retrying (attempt {} of {})", attempt + 1, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    // Deadlock victims and lock wait timeouts; the rolled back transfer is safe to apply again
+    private static boolean isDeadlock(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockingFailureException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && ("40001".equals(sql.getSQLState()) || sql.getErrorCode() == 1213)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns queue depths and group commit counters
+    public Map<String, Object> stats() {
+        long commits = groupCommits.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lanes", lanes.size());
+        stats.put("queued", lanes.stream().mapToInt(BlockingQueue::size).sum());
+        stats.put("submitted", submitted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("groupCommits", commits);
+        stats.put("avgGroupSize", commits == 0 ? 0 : (double) groupedTransfers.sum() / commits);
+        stats.put("groupFallbacks", groupFallbacks.sum());
+        stats.put("deadlockRetries", deadlockRetries.sum());
+        return stats;
+    }
+
+    // Stops accepting transfers and lets the workers finish what is queued
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+    }
+
+    private record LaneTask(List<String> lockedAccounts, Supplier<Map<String, Object>> work,
+                            CompletableFuture<Map<String, Object>> future) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.secure;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards against code that pins virtual threads. A thread blocking inside a
+ * {@code synchronized} region (JDBC, SMTP, sleeps) holds its carrier thread, so the
+ * application code uses java.util.concurrent locks instead.
+ */
+class VirtualThreadReadinessTest {
+
+    private static final Pattern PINNING = Pattern.compile("\\bsynchronized\\b|new Thread\\(");
+
+    @Test
+    void mainSourcesDoNotUsePinningConstructs() throws IOException {
+        Path sources = Paths.get("src", "main", "java");
+        try (Stream<Path> files = Files.walk(sources)) {
+            List<String> offenders = files
+                    .filter(path -> path.toString().endsWith(".java"))
+                    .filter(VirtualThreadReadinessTest::containsPinningConstruct)
+                    .map(path -> sources.relativize(path).toString())
+                    .toList();
+
+            assertTrue(offenders.isEmpty(), "Replace synchronized/raw threads with java.util.concurrent in: " + offenders);
+        }
+    }
+
+    private static boolean containsPinningConstruct(Path path) {
+        try {
+            return Files.readAllLines(path).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.startsWith("//") && !line.startsWith("*"))
+                    .anyMatch(line -> PINNING.matcher(line).find());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,7 +2,11 @@ package com.secure.controller;
 
 
 import com.secure.exception.CustomException;
+import com.secure.model.TransactionFilter;
+import com.secure.services.AdminDashboardService;
 import com.secure.services.AdminService;
+import com.secure.services.HotAccountService;
+import com.secure.services.LedgerService;
 import com.secure.utils.*;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
@@ -13,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,6 +28,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +51,18 @@ class AdminControllerTest {
     @Mock
     private TemplateProvider templateProvider;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private HotAccountService hotAccountService;
+
+    @Mock
+    private AdminEventBus adminEventBus;
+
+    @Mock
+    private AdminDashboardService adminDashboardService;
+
 
     @Test
     void test_verifyMpinSucess(){
@@ -241,6 +261,28 @@ class AdminControllerTest {
         assertEquals(true, result.getBody().get("success"));
     }
 
+    @Test
+    void test_reviewTransactions() {
+        Map<String, Object> review = Map.of("success", true, "reviewed", 2L, "results", List.of());
+        when(adminService.reviewTransactions(List.of(4, 7), "FRAUD")).thenReturn(review);
+
+        ResponseEntity<Map<String, Object>> result = adminController.reviewTransactions(
+                Map.of("transactionIds", List.of(4, "7"), "decision", "FRAUD"));
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(review, result.getBody());
+    }
+
+    @Test
+    void test_reviewTransactions_invalidIds() {
+        ResponseEntity<Map<String, Object>> result = adminController.reviewTransactions(
+                Map.of("transactionIds", List.of(4, "x"), "decision", "FRAUD"));
+
+        assertEquals(400, result.getStatusCodeValue());
+        assertEquals("Invalid transaction id: x", result.getBody().get("message"));
+        verifyNoInteractions(adminService);
+    }
+
     @Test
     void test_verifyMpinFailure_dueToMissingAuthToken() {
         String email = "test@example.com";
@@ -373,4 +415,94 @@ class AdminControllerTest {
 
 
 
-}
\ No newline at end of file
+
+    @Test
+    void test_rebuildBalances_reportsCorrectedAccounts() {
+        when(ledgerService.rebuildBalances()).thenReturn(2);
+
+        ResponseEntity<Map<String, Object>> response = adminController.rebuildBalances();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(true, response.getBody().get("success"));
+        assertEquals("2 account balances corrected", response.getBody().get("message"));
+    }
+
+    @Test
+    void test_setHotAccount_enablesHotMode() {
+        ResponseEntity<Map<String, Object>> response = adminController.setHotAccount("ACC1", Map.of("enabled", true));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("Hot account mode enabled", response.getBody().get("message"));
+        verify(hotAccountService).setHot("ACC1", true);
+    }
+
+    @Test
+    void test_setHotAccount_unknownAccount() {
+        doThrow(new CustomException("Account not found")).when(hotAccountService).setHot("NOPE", false);
+
+        ResponseEntity<Map<String, Object>> response = adminController.setHotAccount("NOPE", Map.of("enabled", false));
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("Account not found", response.getBody().get("message"));
+    }
+
+    @Test
+    void test_searchTransactions() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setBank("sbi");
+        Map<String, Object> page = new HashMap<>();
+        page.put("success", true);
+        page.put("transactions", new ArrayList<>());
+        page.put("nextCursor", null);
+        when(adminService.searchTransactions(filter, null, 50)).thenReturn(page);
+
+        ResponseEntity<Map<String, Object>> response = adminController.searchTransactions(filter, null, 50);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void test_searchTransactions_invalidFilter() {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFlag("DONE");
+        when(adminService.searchTransactions(filter, null, 50)).thenThrow(new CustomException("Invalid flag: DONE"));
+
+        ResponseEntity<Map<String, Object>> response = adminController.searchTransactions(filter, null, 50);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals(false, response.getBody().get("success"));
+        assertEquals("Invalid flag: DONE", response.getBody().get("message"));
+    }
+
+    @Test
+    void test_stream_subscribes() {
+        SseEmitter emitter = new SseEmitter();
+        when(adminEventBus.subscribe()).thenReturn(emitter);
+
+        ResponseEntity<SseEmitter> response = adminController.stream();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(emitter, response.getBody());
+    }
+
+    @Test
+    void test_stream_tooManySubscribers() {
+        when(adminEventBus.subscribe()).thenThrow(new CustomException("Too many open admin streams"));
+
+        ResponseEntity<SseEmitter> response = adminController.stream();
+
+        assertEquals(503, response.getStatusCodeValue());
+    }
+
+    @Test
+    void test_getDashboard() {
+        Map<String, Object> dashboard = Map.of("stats", List.of(), "unavailable", List.of("fraud"));
+        when(adminDashboardService.getDashboard()).thenReturn(dashboard);
+
+        ResponseEntity<Map<String, Object>> response = adminController.getDashboard();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(dashboard, response.getBody());
+    }
+}
@@ -5,6 +5,9 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.secure.exception.CustomException;
 import com.secure.model.BlockedUser;
 import com.secure.repository.BlockedUserRepository;
+import com.secure.services.BlockedUserIndex;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.BlockedUsersCache;
 import com.secure.utils.EmailProvider;
 import com.secure.utils.JwtProvider;
 import com.secure.utils.TemplateProvider;
@@ -44,11 +47,18 @@ class BlockedUserControllerTest {
     @Mock
     private DecodedJWT decodedJWT;
 
+    @Mock
+    private AdminEventBus adminEventBus;
+    @Mock
+    private BlockedUsersCache blockedUsersCache;
+    @Mock
+    private BlockedUserIndex blockedUserIndex;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         blockedUserController = new BlockedUserController(
-                blockedUserRepository, emailProvider, jwtProvider, templateProvider
+                blockedUserRepository, emailProvider, jwtProvider, templateProvider, adminEventBus, blockedUsersCache, blockedUserIndex
         );
     }
 
@@ -106,6 +116,10 @@ class BlockedUserControllerTest {
         assertEquals("success", response.getBody().get("status"));
         verify(blockedUserRepository, times(1)).save(any(BlockedUser.class));
         verify(emailProvider, times(1)).sendEmail(eq("block@example.com"), any(), eq("Blocked email content"));
+        verify(adminEventBus).publish(eq(AdminEventBus.BLOCKED), argThat(event ->
+                "block@example.com".equals(event.get("email")) && "TestBank".equals(event.get("bankName"))));
+        verify(blockedUsersCache).invalidate();
+        verify(blockedUserIndex).block(any(BlockedUser.class));
     }
 
     @Test
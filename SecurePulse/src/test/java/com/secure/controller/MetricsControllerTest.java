@@ -0,0 +1,69 @@
+package com.secure.controller;
+
+import com.secure.services.AdminDashboardService;
+import com.secure.services.BankStatsService;
+import com.secure.services.HotAccountService;
+import com.secure.services.LedgerService;
+import com.secure.services.NotificationDispatcher;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.RecentActivityCache;
+import com.secure.utils.TransferLanes;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsControllerTest {
+
+    private final NotificationDispatcher notificationDispatcher = mock(NotificationDispatcher.class);
+    private final LedgerService ledgerService = mock(LedgerService.class);
+    private final HotAccountService hotAccountService = mock(HotAccountService.class);
+    private final TransferLanes transferLanes = mock(TransferLanes.class);
+    private final RecentActivityCache recentActivityCache = new RecentActivityCache(10, 5, 60000);
+    private final BankStatsService bankStatsService = mock(BankStatsService.class);
+    private final AdminEventBus adminEventBus = new AdminEventBus(16, 10, 60000, 1);
+    private final AdminDashboardService adminDashboardService = mock(AdminDashboardService.class);
+    private final MetricsController metricsController =
+            new MetricsController(notificationDispatcher, ledgerService, hotAccountService, transferLanes,
+                    recentActivityCache, bankStatsService, adminEventBus, adminDashboardService);
+
+    @Test
+    void getNotificationStats_returnsDispatcherStats() {
+        when(notificationDispatcher.stats()).thenReturn(Map.of("circuit", "CLOSED", "pending", 3L));
+
+        ResponseEntity<Map<String, Object>> result = metricsController.getNotificationStats();
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals("CLOSED", result.getBody().get("circuit"));
+    }
+
+    @Test
+    void getRecentActivityStats_reportsHitsAndMisses() {
+        recentActivityCache.get(1);
+        recentActivityCache.store(1, recentActivityCache.beginLoad(1), List.of(), false);
+        recentActivityCache.get(1);
+
+        ResponseEntity<Map<String, Object>> result = metricsController.getRecentActivityStats();
+
+        assertEquals(1L, result.getBody().get("hits"));
+        assertEquals(1L, result.getBody().get("misses"));
+        assertEquals(1, result.getBody().get("users"));
+    }
+
+    @Test
+    void getStreamStats_reportsSubscribersAndPublishedEvents() {
+        adminEventBus.subscribe();
+        adminEventBus.publish(AdminEventBus.MARKED, Map.of("transactionId", 7, "marked", "FRAUD"));
+
+        ResponseEntity<Map<String, Object>> result = metricsController.getStreamStats();
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(1, result.getBody().get("subscribers"));
+        assertEquals(1L, result.getBody().get("published"));
+    }
+}
@@ -3,22 +3,32 @@ package com.secure.controller;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
+import com.secure.exception.CustomException;
+import com.secure.model.BatchTransferItem;
+import com.secure.services.StatementExportService;
 import com.secure.services.TransactionService;
 import com.secure.utils.DecryptionProvider;
 import com.secure.utils.JwtProvider;
+import com.secure.utils.TransferLanes;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +43,10 @@ class TransactionControllerTest {
     private JwtProvider jwtProvider;
     @Mock
     private DecryptionProvider Decrypt;
+    @Mock
+    private TransferLanes transferLanes;
+    @Mock
+    private StatementExportService statementExportService;
 
     @Test
     void addTransaction_Success() {
@@ -68,8 +82,9 @@ class TransactionControllerTest {
         when(decodedJWT.getClaim("userBank")).thenReturn(userBankClaim);
 
         Map<String, Object> response = Map.of("status", true, "message", "Transaction successful");
-        when(transactionService.addTransaction(1, 123, "100", new BigDecimal("100"), eIfscCodeUser, "BankName", description, totpAttempt))
-                .thenReturn(response);
+        when(transactionService.submitTransaction(eq(1), eq(123), eq("100"), eq(new BigDecimal("100")), eq(eIfscCodeUser), eq("BankName"), eq(description), eq(totpAttempt), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        when(transferLanes.getDeadlineMillis()).thenReturn(3000L);
 
         ResponseEntity<Map<String, Object>> result = transactionController.addTransaction(requestBody, request);
 
@@ -113,7 +128,7 @@ class TransactionControllerTest {
         when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
         when(decodedJWT.getClaim("userBank")).thenReturn(userBankClaim);
 
-        when(transactionService.addTransaction(1, 123, "100", new BigDecimal("100"), eIfscCodeUser, "BankName", description, totpAttempt))
+        when(transactionService.submitTransaction(eq(1), eq(123), eq("100"), eq(new BigDecimal("100")), eq(eIfscCodeUser), eq("BankName"), eq(description), eq(totpAttempt), anyString()))
                 .thenThrow(new RuntimeException("Service failure"));
 
         ResponseEntity<Map<String, Object>> result = transactionController.addTransaction(requestBody, request);
@@ -122,6 +137,114 @@ class TransactionControllerTest {
         assertTrue(result.getBody().get("message").toString().contains("An unexpected error occurred"));
     }
 
+    @Test
+    void addTransaction_DeadlinePassed_ReturnsReferenceToPoll() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Idempotency-Key", "key-1");
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("eSelectedBeneficiaryID", "123");
+        requestBody.put("eReceiverAcc", "100");
+        requestBody.put("eAmount", "100");
+        requestBody.put("description", "Test transaction");
+        requestBody.put("eIfscCodeUser", "IFSC123");
+        requestBody.put("totpAttempt", 1);
+
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtProvider.extractClaims("token")).thenReturn(decodedJWT);
+        when(Decrypt.decryptString(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        Claim userIdClaim = mock(Claim.class);
+        Claim userBankClaim = mock(Claim.class);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(userBankClaim.asString()).thenReturn("BankName");
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim("userBank")).thenReturn(userBankClaim);
+
+        // The lane never finishes within the deadline
+        when(transactionService.submitTransaction(1, 123, "100", new BigDecimal("100"), "IFSC123", "BankName", "Test transaction", 1, "key-1"))
+                .thenReturn(new CompletableFuture<>());
+        when(transferLanes.getDeadlineMillis()).thenReturn(10L);
+
+        ResponseEntity<Map<String, Object>> result = transactionController.addTransaction(requestBody, request);
+
+        assertEquals(202, result.getStatusCodeValue());
+        assertEquals("Transaction is being processed", result.getBody().get("message"));
+        assertEquals("key-1", result.getBody().get("reference"));
+    }
+
+    @Test
+    void getTransferStatus_UsesSenderFromToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtProvider.extractClaims("token")).thenReturn(decodedJWT);
+        Claim userIdClaim = mock(Claim.class);
+        when(userIdClaim.asInt()).thenReturn(7);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+
+        Map<String, Object> status = Map.of("status", true, "message", "Transaction successful", "transactionId", 42);
+        when(transactionService.getTransferStatus(7, "key-1")).thenReturn(status);
+
+        ResponseEntity<Map<String, Object>> result = transactionController.getTransferStatus("key-1", request);
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(42, result.getBody().get("transactionId"));
+    }
+
+    @Test
+    void addBatchTransactions_DecryptsEveryEntryAndDelegates() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("eSelectedBeneficiaryID", "eBen");
+        entry.put("eReceiverAcc", "eAcc");
+        entry.put("eAmount", "eAmt");
+        entry.put("eIfscCodeUser", "eIfsc");
+        entry.put("description", "salary");
+        Map<String, Object> requestBody = Map.of("transfers", List.of(entry));
+
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtProvider.extractClaims("token")).thenReturn(decodedJWT);
+        Claim userIdClaim = mock(Claim.class);
+        Claim userBankClaim = mock(Claim.class);
+        when(userIdClaim.asInt()).thenReturn(1);
+        when(userBankClaim.asString()).thenReturn("BankName");
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        when(decodedJWT.getClaim("userBank")).thenReturn(userBankClaim);
+        when(Decrypt.decryptString("eBen")).thenReturn("7");
+        when(Decrypt.decryptString("eAcc")).thenReturn("100");
+        when(Decrypt.decryptString("eAmt")).thenReturn("250");
+        when(Decrypt.decryptString("eIfsc")).thenReturn("IFSC123");
+        when(transactionService.addBatchTransactions(eq(1), eq("BankName"), anyList()))
+                .thenReturn(Map.of("status", true, "message", "1 of 1 transfers completed"));
+
+        ResponseEntity<Map<String, Object>> result = transactionController.addBatchTransactions(requestBody, request);
+
+        assertEquals(200, result.getStatusCodeValue());
+        ArgumentCaptor<List<BatchTransferItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).addBatchTransactions(eq(1), eq("BankName"), items.capture());
+        assertEquals(7, items.getValue().get(0).getBeneficiaryId());
+        assertEquals(new BigDecimal("250"), items.getValue().get(0).getAmount());
+    }
+
+    @Test
+    void addBatchTransactions_RejectsMalformedEntry() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Map<String, Object> requestBody = Map.of("transfers", List.of(Map.of("description", "missing fields")));
+
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtProvider.extractClaims("token")).thenReturn(decodedJWT);
+        Claim claim = mock(Claim.class);
+        when(decodedJWT.getClaim(anyString())).thenReturn(claim);
+
+        ResponseEntity<Map<String, Object>> result = transactionController.addBatchTransactions(requestBody, request);
+
+        assertEquals(400, result.getStatusCodeValue());
+        assertEquals("Invalid transfer at index 0", result.getBody().get("message"));
+        verifyNoInteractions(transactionService);
+    }
+
     @Test
     void getTransactionsByUserId_Success() {
         Integer userId = 1;
@@ -129,9 +252,9 @@ class TransactionControllerTest {
         response.put("status", true);
         response.put("message", "Transactions retrieved successfully");
 
-        when(transactionService.getTransactionsByUserId(userId)).thenReturn(response);
+        when(transactionService.getTransactionsByUserId(userId, null, 50)).thenReturn(response);
 
-        ResponseEntity<Map<String, Object>> result = transactionController.getTransactionsByUserId(userId);
+        ResponseEntity<Map<String, Object>> result = transactionController.getTransactionsByUserId(userId, null, 50);
         assertEquals(200, result.getStatusCodeValue());
         assertEquals(true, result.getBody().get("status"));
         assertEquals("Transactions retrieved successfully", result.getBody().get("message"));
@@ -142,15 +265,60 @@ class TransactionControllerTest {
         // Test case when the getTransactionsByUserId method throws an exception
         Integer userId = 1;
 
-        when(transactionService.getTransactionsByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(transactionService.getTransactionsByUserId(userId, null, 50)).thenThrow(new RuntimeException("Database error"));
 
-        ResponseEntity<Map<String, Object>> result = transactionController.getTransactionsByUserId(userId);
+        ResponseEntity<Map<String, Object>> result = transactionController.getTransactionsByUserId(userId, null, 50);
 
         assertEquals(500, result.getStatusCodeValue());
         assertTrue(result.getBody().get("message").toString().contains("An unexpected error occurred"));
     }
 
+    @Test
+    void exportTransactions_StreamsTheCallersStatementInRequestedFormat() throws Exception {
+        MockHttpServletRequest request = authenticatedAs(7);
+        when(statementExportService.parseFormat("ndjson")).thenReturn(StatementExportService.Format.NDJSON);
+
+        ResponseEntity<?> result = transactionController.exportTransactions("ndjson", request);
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals("application/x-ndjson", result.getHeaders().getContentType().toString());
+        assertTrue(result.getHeaders().getFirst("Content-Disposition").contains("statement-7.ndjson"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) result.getBody()).writeTo(out);
+        verify(statementExportService).export(7, StatementExportService.Format.NDJSON, out);
+    }
+
+    @Test
+    void exportTransactions_RejectsUnknownFormat() {
+        MockHttpServletRequest request = authenticatedAs(7);
+        when(statementExportService.parseFormat("xml")).thenThrow(new CustomException("Unsupported format: xml (use csv or ndjson)"));
 
+        ResponseEntity<?> result = transactionController.exportTransactions("xml", request);
 
+        assertEquals(400, result.getStatusCodeValue());
+    }
+
+    @Test
+    void exportTransactions_RejectsInvalidToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        when(jwtProvider.extractClaims("token")).thenReturn(null);
 
+        ResponseEntity<?> result = transactionController.exportTransactions("csv", request);
+
+        assertEquals(400, result.getStatusCodeValue());
+        verifyNoInteractions(statementExportService);
+    }
+
+    private MockHttpServletRequest authenticatedAs(int userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        when(jwtProvider.extractAuthToken(request)).thenReturn("token");
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        when(jwtProvider.extractClaims("token")).thenReturn(decodedJWT);
+        Claim userIdClaim = mock(Claim.class);
+        when(userIdClaim.asInt()).thenReturn(userId);
+        when(decodedJWT.getClaim("userId")).thenReturn(userIdClaim);
+        return request;
+    }
 }
@@ -1,9 +1,8 @@
 package com.secure.controller;
 
 import com.secure.exception.CustomException;
-import com.secure.model.BlockedUser;
 import com.secure.model.User;
-import com.secure.repository.BlockedUserRepository;
+import com.secure.services.BlockedUserIndex;
 import com.secure.services.UserService;
 import com.secure.utils.*;
 
@@ -36,9 +35,6 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
-    @Mock
-    private BlockedUserRepository blockedUserRepository;
-
     @Mock
     private DecryptionProvider decryptionProvider;
 
@@ -56,6 +52,8 @@ class UserControllerTest {
 
     @Mock
     private TemplateProvider templateProvider;
+    @Mock
+    private BlockedUserIndex blockedUserIndex;
 
     @BeforeEach
     void setUp() {
@@ -89,8 +87,7 @@ class UserControllerTest {
         when(userService.getUserByEmailAndPassword("test@example.com", "password", bank))
                 .thenReturn(Optional.of(user));
 
-        when(blockedUserRepository.findByEmailAndBankName("test@example.com", bank))
-                .thenReturn(Optional.empty());
+        when(blockedUserIndex.isBlocked("test@example.com", bank)).thenReturn(false);
 
         when(jwtProvider.generateToken(user, bank)).thenReturn("mocked-jwt-token");
 
@@ -298,21 +295,18 @@ class UserControllerTest {
         String bank = "TestBank";
 
         when(decryptionProvider.decryptString("encEmail")).thenReturn("test@example.com");
-        when(decryptionProvider.decryptString("encPass")).thenReturn("password");
-
-        User user = mockUser();
-
-        when(userService.getUserByEmailAndPassword("test@example.com", "password", bank))
-                .thenReturn(Optional.of(user));
-
-        when(blockedUserRepository.findByEmailAndBankName("test@example.com", bank))
-                .thenReturn(Optional.of(new BlockedUser())); // Mocked object means user is blocked
+        when(blockedUserIndex.isBlocked("test@example.com", bank)).thenReturn(true);
 
         ResponseEntity<Map<String, Object>> result = userController.loginUser(loginRequest, bank, response);
 
         assertEquals(200, result.getStatusCodeValue());
         assertFalse((Boolean) result.getBody().get("status"));
+        // Indistinguishable from a wrong password, and refused before the password is decrypted or checked
+        assertEquals("Invalid email or password or user with selected bank not exists.", result.getBody().get("message"));
+        verify(decryptionProvider, never()).decryptString("encPass");
+        verifyNoInteractions(userService);
     }
+
     @Test
     void testVerifyOtp_SuccessWithDifferentPurpose() throws Exception {
         String encryptedEmail = "encEmail";
@@ -0,0 +1,130 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.AccountHolder;
+import com.secure.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class AccountRepositoryTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void debitIfSufficient_debitsOnlyWhenTheBalanceCoversTheAmount() {
+        account("ACC1", "100");
+
+        assertEquals(0, accountRepository.debitIfSufficient("ACC1", new BigDecimal("100.01")));
+        assertEquals(1, accountRepository.debitIfSufficient("ACC1", new BigDecimal("60")));
+        assertEquals(1, accountRepository.debitIfSufficient("ACC1", new BigDecimal("40")));
+
+        assertEquals(new BigDecimal("0.00"), accountRepository.findBalanceByAccountNumber("ACC1"));
+        assertEquals(0, accountRepository.debitIfSufficient("MISSING", BigDecimal.ONE));
+    }
+
+    @Test
+    void credit_addsToTheBalance_andReportsMissingAccounts() {
+        account("ACC2", "5");
+
+        assertEquals(1, accountRepository.credit("ACC2", new BigDecimal("60")));
+        assertEquals(0, accountRepository.credit("MISSING", new BigDecimal("60")));
+
+        assertEquals(new BigDecimal("65.00"), accountRepository.findBalanceByAccountNumber("ACC2"));
+        assertNull(accountRepository.findBalanceByAccountNumber("MISSING"));
+    }
+
+    @Test
+    void findForUpdateByAccountNumber_loadsTheAccount() {
+        Account saved = account("ACC3", "12");
+
+        assertEquals(saved.getAccountId(), accountRepository.findForUpdateByAccountNumber("ACC3").orElseThrow().getAccountId());
+        assertTrue(accountRepository.findForUpdateByAccountNumber("MISSING").isEmpty());
+    }
+
+    @Test
+    void updateHot_flagsTheAccount_forFindHotAccountNumbers() {
+        account("ACC4", "1");
+        account("ACC5", "1");
+
+        assertEquals(1, accountRepository.updateHot("ACC4", true));
+        assertEquals(0, accountRepository.updateHot("MISSING", true));
+
+        assertEquals(List.of("ACC4"), accountRepository.findHotAccountNumbers());
+    }
+
+    @Test
+    void findHoldersByAccountNumberIn_joinsHolders_andKeepsAccountsWithoutOne() {
+        User user = new User();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user = userRepository.saveAndFlush(user);
+        Account held = account("ACC6", "1");
+        held.setUserId(user.getUserId());
+        accountRepository.saveAndFlush(held);
+        Account orphan = account("ACC7", "1");
+        orphan.setUserId(99999);
+        accountRepository.saveAndFlush(orphan);
+
+        Map<String, AccountHolder> holders = accountRepository.findHoldersByAccountNumberIn(Set.of("ACC6", "ACC7", "MISSING"))
+                .stream().collect(Collectors.toMap(AccountHolder::getAccountNumber, holder -> holder));
+
+        assertEquals(Set.of("ACC6", "ACC7"), holders.keySet());
+        assertTrue(holders.get("ACC6").hasUser());
+        assertEquals("John", holders.get("ACC6").getFirstName());
+        assertFalse(holders.get("ACC7").hasUser());
+        assertEquals("SBI", holders.get("ACC7").getBank());
+    }
+
+    @Test
+    void reserveCaptureAndReturn_moveFundsThroughTheReservedBalance() {
+        account("ACC8", "100");
+
+        assertEquals(0, accountRepository.reserveIfSufficient("ACC8", new BigDecimal("101")));
+        assertEquals(1, accountRepository.reserveIfSufficient("ACC8", new BigDecimal("40")));
+        assertEquals(new BigDecimal("60.00"), accountRepository.findBalanceByAccountNumber("ACC8"));
+        assertEquals(0, accountRepository.captureReserved("ACC8", new BigDecimal("41")));
+        assertEquals(1, accountRepository.captureReserved("ACC8", new BigDecimal("10")));
+        assertEquals(1, accountRepository.returnReserved("ACC8", new BigDecimal("30")));
+        assertEquals(0, accountRepository.returnReserved("ACC8", new BigDecimal("1")));
+
+        Account account = accountRepository.findByAccountNumber("ACC8").orElseThrow();
+        assertEquals(new BigDecimal("90.00"), account.getBalance());
+        assertEquals(new BigDecimal("0.00"), account.getReservedBalance());
+    }
+
+    @Test
+    void reservedBalance_defaultsToZero_forRowsInsertedWithoutIt() {
+        jdbcTemplate.update("INSERT INTO account (user_id, bank, account_number, account_type, balance, ifsc_code, status) " +
+                "VALUES (1, 'SBI', 'RAW1', 'SAVINGS', 5, 'IFSC001', 'ACTIVE')");
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findByAccountNumber("RAW1").orElseThrow().getReservedBalance()));
+        assertEquals(1, accountRepository.reserveIfSufficient("RAW1", new BigDecimal("5")));
+    }
+
+    private Account account(String number, String balance) {
+        Account account = new Account();
+        account.setUserId(1);
+        account.setBank("SBI");
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(new BigDecimal(balance));
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        return accountRepository.save(account);
+    }
+}
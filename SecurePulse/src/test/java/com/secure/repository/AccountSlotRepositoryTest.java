@@ -0,0 +1,40 @@
+package com.secure.repository;
+
+import com.secure.model.AccountSlot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class AccountSlotRepositoryTest {
+
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Test
+    void credit_addsToOneSlot_andReportsMissingSlots() {
+        accountSlotRepository.saveAllAndFlush(List.of(new AccountSlot("H1", 0), new AccountSlot("H1", 1)));
+
+        assertEquals(1, accountSlotRepository.credit("H1", 1, new BigDecimal("7")));
+        assertEquals(1, accountSlotRepository.credit("H1", 1, new BigDecimal("3")));
+        assertEquals(0, accountSlotRepository.credit("H1", 5, new BigDecimal("7")));
+
+        List<AccountSlot> slots = accountSlotRepository.findForUpdateByAccountNumber("H1");
+        assertEquals(List.of(0, 1), slots.stream().map(AccountSlot::getSlot).toList());
+        assertEquals(new BigDecimal("10.00"), slots.get(1).getBalance());
+        assertEquals(new BigDecimal("10.00"), accountSlotRepository.sumBalanceByAccountNumber("H1"));
+    }
+
+    @Test
+    void findAccountNumbersWithPendingBalance_skipsEmptySlots() {
+        accountSlotRepository.saveAllAndFlush(List.of(new AccountSlot("H2", 0), new AccountSlot("H3", 0)));
+        accountSlotRepository.credit("H2", 0, new BigDecimal("4"));
+
+        assertEquals(List.of("H2"), accountSlotRepository.findAccountNumbersWithPendingBalance());
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountSlotRepository.sumBalanceByAccountNumber("MISSING")));
+    }
+}
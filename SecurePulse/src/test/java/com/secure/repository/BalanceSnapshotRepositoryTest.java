@@ -0,0 +1,44 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.BalanceSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class BalanceSnapshotRepositoryTest {
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void findAccountNumbersWithoutSnapshot_skipsSnapshottedAccounts() {
+        account("S1");
+        account("S2");
+        balanceSnapshotRepository.saveAndFlush(new BalanceSnapshot("S1", BigDecimal.TEN, 1L));
+        balanceSnapshotRepository.saveAndFlush(new BalanceSnapshot("S1", BigDecimal.ONE, 2L));
+
+        assertEquals(List.of("S2"), balanceSnapshotRepository.findAccountNumbersWithoutSnapshot());
+        assertEquals(List.of("S1"), balanceSnapshotRepository.findSnapshottedAccountNumbers());
+        assertEquals(2L, balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("S1").orElseThrow().getLastEntryId());
+    }
+
+    private void account(String number) {
+        Account account = new Account();
+        account.setUserId(1);
+        account.setBank("SBI");
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(BigDecimal.ZERO);
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        accountRepository.saveAndFlush(account);
+    }
+}
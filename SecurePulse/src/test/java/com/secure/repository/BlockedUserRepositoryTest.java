@@ -0,0 +1,90 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.BlockedUser;
+import com.secure.model.BlockedUserView;
+import com.secure.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class BlockedUserRepositoryTest {
+
+    private static final long NOW = System.currentTimeMillis();
+
+    @Autowired
+    private BlockedUserRepository blockedUserRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void findAllWithAccounts_listsOneRowPerAccountInTheBlockedBank_newestBlockFirst() {
+        User user = new User();
+        user.setFirstName("Jo");
+        user.setLastName("Doe");
+        user.setEmail("jo@example.com");
+        user = userRepository.saveAndFlush(user);
+        account("B1", user.getUserId(), "SBI");
+        account("B2", user.getUserId(), "SBI");
+        account("B3", user.getUserId(), "PNB");
+        BlockedUser inSbi = block("jo@example.com", "SBI", 3);
+        BlockedUser inHdfc = block("jo@example.com", "HDFC", 2);
+        BlockedUser unknown = block("none@example.com", "SBI", 1);
+
+        List<BlockedUserView> views = blockedUserRepository.findAllWithAccounts();
+
+        assertEquals(List.of(unknown.getId(), inHdfc.getId(), inSbi.getId(), inSbi.getId()),
+                views.stream().map(BlockedUserView::getId).toList());
+        assertEquals(Arrays.asList(null, null, "B1", "B2"),
+                views.stream().map(BlockedUserView::getAccountNumber).toList());
+        assertNull(views.get(0).getFirstName());
+        assertEquals("Jo", views.get(1).getFirstName());
+        assertEquals("SBI", views.get(3).getBankName());
+    }
+
+    @Test
+    void findByCreatedAtBefore_andDeleteCreatedBefore_onlyTouchExpiredBlocks() {
+        BlockedUser expired = block("old@example.com", "SBI", 2);
+        BlockedUser active = block("new@example.com", "SBI", 0);
+        Timestamp cutoff = new Timestamp(NOW - 3_600_000L);
+
+        assertEquals(List.of(expired.getId()),
+                blockedUserRepository.findByCreatedAtBefore(cutoff).stream().map(BlockedUser::getId).toList());
+        assertEquals(List.of(active.getId()),
+                blockedUserRepository.findByCreatedAtAfter(cutoff).stream().map(BlockedUser::getId).toList());
+        assertEquals(1, blockedUserRepository.deleteCreatedBefore(cutoff));
+        assertEquals(0, blockedUserRepository.deleteCreatedBefore(cutoff));
+        assertEquals(List.of(active.getId()),
+                blockedUserRepository.findAll().stream().map(BlockedUser::getId).toList());
+    }
+
+    private BlockedUser block(String email, String bank, int hoursAgo) {
+        BlockedUser blocked = new BlockedUser();
+        blocked.setEmail(email);
+        blocked.setBankName(bank);
+        blocked.setReason("Suspicious activity");
+        blocked.setCreatedAt(new Timestamp(NOW - hoursAgo * 3_600_000L));
+        return blockedUserRepository.saveAndFlush(blocked);
+    }
+
+    private void account(String number, Integer userId, String bank) {
+        Account account = new Account();
+        account.setUserId(userId);
+        account.setBank(bank);
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(BigDecimal.TEN);
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        accountRepository.saveAndFlush(account);
+    }
+}
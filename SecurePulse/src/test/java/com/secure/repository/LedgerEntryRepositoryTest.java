@@ -0,0 +1,44 @@
+package com.secure.repository;
+
+import com.secure.model.LedgerEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class LedgerEntryRepositoryTest {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void sumBetween_netsCreditsAgainstDebits_withinTheIdRange() {
+        List<LedgerEntry> first = ledgerEntryRepository.saveAllAndFlush(
+                LedgerEntry.forTransfer(1, "L1", "L2", new BigDecimal("30")));
+        ledgerEntryRepository.saveAllAndFlush(LedgerEntry.forTransfer(2, "L2", "L1", new BigDecimal("5")));
+        Long afterFirst = first.get(1).getId();
+
+        assertEquals(new BigDecimal("-25.00"), ledgerEntryRepository.sumBetween("L1", 0L, Long.MAX_VALUE));
+        assertEquals(new BigDecimal("5.00"), ledgerEntryRepository.sumBetween("L1", afterFirst, Long.MAX_VALUE));
+        assertEquals(0, BigDecimal.ZERO.compareTo(ledgerEntryRepository.sumBetween("MISSING", 0L, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void findMaxId_andFindAccountNumbersWithEntriesAfter_trackTheNewestEntries() {
+        assertEquals(0L, ledgerEntryRepository.findMaxId());
+        List<LedgerEntry> first = ledgerEntryRepository.saveAllAndFlush(
+                LedgerEntry.forTransfer(1, "M1", "M2", new BigDecimal("10")));
+        Long afterFirst = ledgerEntryRepository.findMaxId();
+        ledgerEntryRepository.saveAllAndFlush(LedgerEntry.forTransfer(2, "M3", "M1", new BigDecimal("4")));
+
+        assertEquals(first.get(1).getId(), ledgerEntryRepository.findMaxIdByAccountNumber("M2"));
+        assertEquals(0L, ledgerEntryRepository.findMaxIdByAccountNumber("MISSING"));
+        assertTrue(ledgerEntryRepository.findMaxId() > afterFirst);
+        assertEquals(List.of("M1", "M3"), ledgerEntryRepository.findAccountNumbersWithEntriesAfter(afterFirst)
+                .stream().sorted().toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.secure.repository;
+
+import com.secure.model.NotificationOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class NotificationOutboxRepositoryTest {
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Test
+    void findDue_returnsPendingNotificationsWhoseAttemptIsDue_oldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox first = pending(1, now.minusMinutes(2));
+        NotificationOutbox second = pending(2, now.minusMinutes(1));
+        pending(3, now.plusMinutes(5));
+
+        List<NotificationOutbox> due = outboxRepository.findDue(now, PageRequest.of(0, 10));
+
+        assertEquals(List.of(first.getId(), second.getId()), due.stream().map(NotificationOutbox::getId).toList());
+        assertEquals(1, outboxRepository.findDue(now, PageRequest.of(0, 1)).size());
+    }
+
+    @Test
+    void claim_succeedsOncePerAttempt_andLeasesTheNotification() {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox notification = pending(1, now.minusMinutes(1));
+
+        assertEquals(1, outboxRepository.claim(notification.getId(), 0, now.plusMinutes(1)));
+        assertEquals(0, outboxRepository.claim(notification.getId(), 0, now.plusMinutes(1)));
+
+        // Leased until the attempt ends, so no other dispatcher picks it up
+        assertTrue(outboxRepository.findDue(now, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void purgeSentBefore_removesOnlyDeliveredNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutbox sent = pending(1, now);
+        pending(2, now);
+
+        assertEquals(1, outboxRepository.updateOutcome(sent.getId(), NotificationOutbox.OutboxStatus.SENT, now, null));
+        assertEquals(1, outboxRepository.countByStatus(NotificationOutbox.OutboxStatus.SENT));
+        assertEquals(1, outboxRepository.countByStatus(NotificationOutbox.OutboxStatus.PENDING));
+
+        assertEquals(1, outboxRepository.purgeSentBefore(now.plusDays(1)));
+        assertEquals(0, outboxRepository.countByStatus(NotificationOutbox.OutboxStatus.SENT));
+        assertEquals(1, outboxRepository.count());
+    }
+
+    private NotificationOutbox pending(int transactionId, LocalDateTime nextAttemptAt) {
+        NotificationOutbox notification = new NotificationOutbox(NotificationOutbox.NotificationType.DEBIT, transactionId, 1);
+        notification.setNextAttemptAt(nextAttemptAt);
+        return outboxRepository.saveAndFlush(notification);
+    }
+}
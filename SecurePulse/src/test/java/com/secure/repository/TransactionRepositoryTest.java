@@ -0,0 +1,189 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class TransactionRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void findForUpdateById_loadsTheHoldOfASuspiciousTransfer() {
+        Transaction held = transaction("T1", "T2", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS);
+        held.setFundsHeld(true);
+        transactionRepository.flush();
+
+        assertTrue(transactionRepository.findForUpdateById(held.getTransactionId()).orElseThrow().isFundsHeld());
+        assertTrue(transactionRepository.findForUpdateById(-1).isEmpty());
+    }
+
+    @Test
+    void rejectAsFraud_onlyRejectsPendingSuspiciousTransfers() {
+        List<Transaction> transfers = List.of(
+                transaction("F1", "F2", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS),
+                transaction("F1", "F2", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS),
+                transaction("F1", "F2", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.NORMAL),
+                transaction("F1", "F2", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.SUSPICIOUS));
+        transfers.forEach(transfer -> transfer.setFundsHeld(true));
+        transactionRepository.flush();
+        List<Integer> ids = ids(transfers);
+
+        assertEquals(ids, ids(transactionRepository.findAllForUpdateByIdIn(List.of(ids.get(3), ids.get(1), ids.get(0), ids.get(2)))));
+        assertEquals(2, transactionRepository.rejectAsFraud(ids));
+        assertEquals(0, transactionRepository.rejectAsFraud(ids));
+
+        Transaction rejected = transactionRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(Transaction.TransactionFlag.REJECTED, rejected.getFlag());
+        assertEquals(Transaction.TransactionMarked.FRAUD, rejected.getMarked());
+        assertFalse(rejected.isFundsHeld());
+        Transaction normal = transactionRepository.findById(ids.get(2)).orElseThrow();
+        assertEquals(Transaction.TransactionFlag.PENDING, normal.getFlag());
+        assertTrue(normal.isFundsHeld());
+        assertEquals(Transaction.TransactionFlag.COMPLETED, transactionRepository.findById(ids.get(3)).orElseThrow().getFlag());
+    }
+
+    @Test
+    void countOutgoingByBank_countsEachOutcome_andListsIdleBanksWithZeros() {
+        account("S1", "SBI");
+        account("P1", "PNB");
+        account("H1", "HERITAGE");
+        transaction("S1", "P1", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+        transaction("S1", "P1", Transaction.TransactionFlag.FAILED, Transaction.TransactionMarked.NORMAL);
+        transaction("S1", "P1", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS);
+        transaction("S1", "S1", Transaction.TransactionFlag.REJECTED, Transaction.TransactionMarked.FRAUD);
+        transaction("P1", "S1", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+        transactionRepository.flush();
+
+        List<Object[]> rows = transactionRepository.countOutgoingByBank();
+
+        assertEquals(List.of("HERITAGE", "PNB", "SBI"), rows.stream().map(row -> (String) row[0]).toList());
+        assertEquals(List.of(0L, 0L, 0L, 0L, 0L), counts(rows.get(0)));
+        assertEquals(List.of(1L, 1L, 0L, 0L, 0L), counts(rows.get(1)));
+        assertEquals(List.of(4L, 1L, 1L, 1L, 1L), counts(rows.get(2)));
+    }
+
+    @Test
+    void countIncomingByBank_countsTransfersIntoEachBank() {
+        account("S2", "SBI");
+        account("P2", "PNB");
+        account("H2", "HERITAGE");
+        transaction("S2", "P2", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+        transaction("S2", "P2", Transaction.TransactionFlag.FAILED, Transaction.TransactionMarked.NORMAL);
+        transaction("P2", "S2", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+        transactionRepository.flush();
+
+        Map<String, Long> incoming = new TreeMap<>();
+        for (Object[] row : transactionRepository.countIncomingByBank()) {
+            incoming.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
+        assertEquals(Map.of("HERITAGE", 0L, "PNB", 2L, "SBI", 1L), incoming);
+    }
+
+    @Test
+    void backfillBanks_copiesAccountBanks_ontoRowsInTheIdRange() {
+        account("B1", "SBI");
+        account("B2", "PNB");
+        Transaction first = completed("B1", "B2", 0);
+        completed("B2", "B1", 1);
+        completed("B1", "B1", 2);
+        transactionRepository.flush();
+
+        Object[] range = transactionRepository.findIdRangeWithoutBank().get(0);
+        int fromId = ((Number) range[0]).intValue();
+        int toId = ((Number) range[1]).intValue();
+
+        assertEquals(first.getTransactionId(), fromId);
+        assertEquals(fromId + 2, toId);
+        assertEquals(2, transactionRepository.backfillBanks(fromId, fromId + 1));
+        assertEquals(1, transactionRepository.backfillBanks(fromId, toId));
+        assertEquals(0, transactionRepository.backfillBanks(fromId, toId));
+        assertNull(transactionRepository.findIdRangeWithoutBank().get(0)[0]);
+
+        Transaction backfilled = transactionRepository.findById(fromId).orElseThrow();
+        assertEquals("SBI", backfilled.getSenderBank());
+        assertEquals("PNB", backfilled.getReceiverBank());
+    }
+
+    @Test
+    void findAllByBank_andFindRecentByBank_mergeBothSidesNewestFirst() {
+        account("C1", "SBI");
+        account("C2", "PNB");
+        account("C3", "SBI");
+        Transaction sbiToPnb = completed("C1", "C2", 0);
+        Transaction pnbToSbi = completed("C2", "C1", 1);
+        Transaction sbiToSbi = completed("C1", "C3", 2);
+        Transaction pnbToPnb = completed("C2", "C2", 3);
+        transactionRepository.flush();
+        transactionRepository.backfillBanks(sbiToPnb.getTransactionId(), pnbToPnb.getTransactionId());
+
+        // A transfer inside the bank is listed once
+        assertEquals(List.of(sbiToSbi.getTransactionId(), pnbToSbi.getTransactionId(), sbiToPnb.getTransactionId()),
+                ids(transactionRepository.findAllByBank("SBI")));
+        assertEquals(List.of(sbiToSbi.getTransactionId(), pnbToSbi.getTransactionId()),
+                ids(transactionRepository.findRecentByBank("SBI", 2)));
+        assertEquals(List.of(pnbToPnb.getTransactionId(), pnbToSbi.getTransactionId(), sbiToPnb.getTransactionId()),
+                ids(transactionRepository.findRecentByBank("PNB", 10)));
+        assertTrue(transactionRepository.findAllByBank("HERITAGE").isEmpty());
+    }
+
+    private static List<Integer> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+
+    // Outgoing, success, failed, suspicious and fraud counts of a countOutgoingByBank row
+    private static List<Long> counts(Object[] row) {
+        return List.of(row[1], row[2], row[3], row[4], row[5]).stream()
+                .map(value -> ((Number) value).longValue())
+                .toList();
+    }
+
+    private void account(String number, String bank) {
+        Account account = new Account();
+        account.setUserId(1);
+        account.setBank(bank);
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(BigDecimal.TEN);
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        accountRepository.saveAndFlush(account);
+    }
+
+    private Transaction completed(String sender, String receiver, int minute) {
+        Transaction transaction = transaction(sender, receiver,
+                Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+        transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, minute));
+        return transaction;
+    }
+
+    private Transaction transaction(String sender, String receiver,
+                                    Transaction.TransactionFlag flag, Transaction.TransactionMarked marked) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(1);
+        transaction.setReceiverId(2);
+        transaction.setSenderAccountNumber(sender);
+        transaction.setReceiverAccountNumber(receiver);
+        transaction.setAmountTransferred(BigDecimal.ONE);
+        transaction.setDescription("transfer");
+        transaction.setFlag(flag);
+        transaction.setMarked(marked);
+        transaction.setCurrentBalanceSender(BigDecimal.ONE);
+        transaction.setCurrentBalanceReceiver(BigDecimal.ONE);
+        return transactionRepository.save(transaction);
+    }
+}
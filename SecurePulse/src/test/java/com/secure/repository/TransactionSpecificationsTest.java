@@ -0,0 +1,103 @@
+package com.secure.repository;
+
+import com.secure.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.secure.repository.TransactionSpecifications.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class TransactionSpecificationsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final List<Transaction> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Two transfers per minute, so the keyset cursor has to break ties on the transaction id
+        for (int i = 0; i < 6; i++) {
+            saved.add(transaction("SR" + (i % 2), "SBI", "PNB", new BigDecimal(i * 10), BASE.plusMinutes(i / 2)));
+        }
+        Transaction flagged = transaction("SR9", "HDFC", "SBI", new BigDecimal("500"), BASE);
+        flagged.setFlag(Transaction.TransactionFlag.PENDING);
+        flagged.setMarked(Transaction.TransactionMarked.SUSPICIOUS);
+        saved.add(flagged);
+        transactionRepository.flush();
+    }
+
+    @Test
+    void filters_matchOnEitherSideAndOnEachColumn() {
+        assertEquals(7, search(hasBank("SBI")).size());
+        assertEquals(6, search(hasBank("PNB")).size());
+        assertEquals(List.of(id(4), id(2), id(0)), search(involvesAccount("SR0")));
+        assertEquals(List.of(id(6)), search(hasFlag(Transaction.TransactionFlag.PENDING)
+                .and(hasMarked(Transaction.TransactionMarked.SUSPICIOUS))));
+        assertEquals(List.of(id(3), id(2), id(1)), search(amountAtLeast(new BigDecimal("10"))
+                .and(amountAtMost(new BigDecimal("30")))));
+        assertEquals(List.of(id(3), id(2)), search(hasBank("PNB").and(from(BASE.plusMinutes(1))).and(to(BASE.plusMinutes(2)))));
+    }
+
+    @Test
+    void before_continuesAfterTheCursorRow_acrossEqualTimestamps() {
+        Specification<Transaction> pnb = hasBank("PNB");
+        List<Integer> all = search(pnb);
+        List<Integer> paged = new ArrayList<>();
+        Specification<Transaction> page = pnb;
+        List<Transaction> rows;
+        do {
+            rows = transactionRepository.findBy(page, query -> query
+                    .sortBy(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("transactionId")))
+                    .limit(4)
+                    .all());
+            rows.forEach(row -> paged.add(row.getTransactionId()));
+            if (!rows.isEmpty()) {
+                Transaction last = rows.get(rows.size() - 1);
+                page = pnb.and(before(last.getTimestamp(), last.getTransactionId()));
+            }
+        } while (rows.size() == 4);
+
+        assertEquals(List.of(id(5), id(4), id(3), id(2), id(1), id(0)), all);
+        assertEquals(all, paged);
+    }
+
+    private Integer id(int index) {
+        return saved.get(index).getTransactionId();
+    }
+
+    // Ids of the matching transactions, newest first like the admin search
+    private List<Integer> search(Specification<Transaction> spec) {
+        return transactionRepository.findAll(spec, Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("transactionId")))
+                .stream().map(Transaction::getTransactionId).toList();
+    }
+
+    private Transaction transaction(String sender, String senderBank, String receiverBank,
+                                    BigDecimal amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(1);
+        transaction.setReceiverId(2);
+        transaction.setSenderAccountNumber(sender);
+        transaction.setReceiverAccountNumber("RCV");
+        transaction.setSenderBank(senderBank);
+        transaction.setReceiverBank(receiverBank);
+        transaction.setAmountTransferred(amount);
+        transaction.setDescription("search");
+        transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+        transaction.setCurrentBalanceSender(BigDecimal.ONE);
+        transaction.setCurrentBalanceReceiver(BigDecimal.ONE);
+        transaction.setTimestamp(timestamp);
+        return transactionRepository.save(transaction);
+    }
+}
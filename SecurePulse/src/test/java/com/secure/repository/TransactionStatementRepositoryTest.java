@@ -0,0 +1,106 @@
+package com.secure.repository;
+
+import com.secure.model.Transaction;
+import com.secure.model.TransactionSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+@Import(TransactionStatementRepository.class)
+class TransactionStatementRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionStatementRepository statementRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Three transfers per minute so pages break inside equal timestamps; transfers 0, 10 and 20 are between user 7's own accounts
+        for (int i = 0; i < 25; i++) {
+            boolean even = i % 2 == 0;
+            Integer receiver = i % 5 == 0 ? 7 : (even ? 8 : 7);
+            transaction(even ? 7 : 8, receiver, BASE.plusMinutes(i / 3));
+        }
+        transaction(7, 8, BASE).setFlag(Transaction.TransactionFlag.FAILED);
+        transactionRepository.flush();
+    }
+
+    @Test
+    void findPage_walksTheWholeStatement_withoutSkippingOrRepeatingLines() {
+        List<TransactionSummary> all = statementRepository.findPage(7, null, 1000);
+        List<TransactionSummary> paged = new ArrayList<>();
+        TransactionStatementRepository.Cursor cursor = null;
+        List<TransactionSummary> page;
+        do {
+            page = statementRepository.findPage(7, cursor, 4);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                TransactionSummary last = page.get(page.size() - 1);
+                cursor = new TransactionStatementRepository.Cursor(
+                        last.getTimestamp(), last.getTransactionId(), last.getDebitedAmount() != null);
+            }
+        } while (page.size() == 4);
+
+        // 25 completed transfers touch user 7, and the 3 self transfers are listed as a debit and a credit
+        assertEquals(28, all.size());
+        assertEquals(lines(all), lines(paged));
+        assertFalse(all.get(0).getTimestamp().isBefore(all.get(27).getTimestamp()));
+    }
+
+    @Test
+    void findPage_listsTheDebitBeforeTheCredit_ofATransferBetweenOwnAccounts() {
+        List<TransactionSummary> all = statementRepository.findPage(7, null, 1000);
+        TransactionSummary last = all.get(all.size() - 1);
+        TransactionSummary beforeLast = all.get(all.size() - 2);
+
+        // Transfer 0 is the oldest and is a self transfer
+        assertEquals(beforeLast.getTransactionId(), last.getTransactionId());
+        assertEquals(BigDecimal.ONE.setScale(2), beforeLast.getDebitedAmount());
+        assertNull(beforeLast.getCreditedAmount());
+        assertEquals(BigDecimal.ONE.setScale(2), last.getCreditedAmount());
+        assertEquals(BigDecimal.TEN.setScale(2), last.getCurrentBalance());
+    }
+
+    @Test
+    void streamStatement_emitsTheSameLinesInTheSameOrder_asTheFullPage() {
+        List<TransactionSummary> streamed = new ArrayList<>();
+
+        statementRepository.streamStatement(7, streamed::add);
+
+        assertEquals(lines(statementRepository.findPage(7, null, 1000)), lines(streamed));
+    }
+
+    // Transaction id and side of each line, so a debit and a credit of the same transfer stay distinct
+    private static List<String> lines(List<TransactionSummary> statement) {
+        return statement.stream()
+                .map(line -> line.getTransactionId() + (line.getDebitedAmount() != null ? "D" : "C"))
+                .toList();
+    }
+
+    private Transaction transaction(Integer senderId, Integer receiverId, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(senderId);
+        transaction.setReceiverId(receiverId);
+        transaction.setSenderAccountNumber("A" + senderId);
+        transaction.setReceiverAccountNumber("B" + receiverId);
+        transaction.setAmountTransferred(BigDecimal.ONE);
+        transaction.setDescription("statement");
+        transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+        transaction.setCurrentBalanceSender(BigDecimal.ONE);
+        transaction.setCurrentBalanceReceiver(BigDecimal.TEN);
+        transaction.setTimestamp(timestamp);
+        return transactionRepository.save(transaction);
+    }
+}
@@ -0,0 +1,113 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.LedgerEntry;
+import com.secure.model.NotificationOutbox;
+import com.secure.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+@Import(TransferBatchRepository.class)
+class TransferBatchRepositoryTest {
+
+    @Autowired
+    private TransferBatchRepository transferBatchRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void lockBalances_returnsBalancesInAccountNumberOrder() {
+        account("C1", "7");
+        account("A1", "100");
+        account("B1", "5");
+
+        Map<String, BigDecimal> balances = transferBatchRepository.lockBalances(List.of("C1", "A1", "MISSING", "B1"));
+
+        assertEquals(List.of("A1", "B1", "C1"), new ArrayList<>(balances.keySet()));
+        assertEquals(new BigDecimal("100.00"), balances.get("A1"));
+        assertTrue(transferBatchRepository.lockBalances(List.of()).isEmpty());
+    }
+
+    @Test
+    void debitIfSufficient_andCredit_updateBalancesInPlace() {
+        account("A2", "100");
+        account("B2", "5");
+        account("C2", "7");
+
+        assertEquals(0, transferBatchRepository.debitIfSufficient("A2", new BigDecimal("101")));
+        assertEquals(1, transferBatchRepository.debitIfSufficient("A2", new BigDecimal("30")));
+        transferBatchRepository.credit(Map.of("B2", new BigDecimal("10"), "C2", new BigDecimal("20")));
+
+        assertEquals(new BigDecimal("70.00"), accountRepository.findBalanceByAccountNumber("A2"));
+        assertEquals(new BigDecimal("15.00"), accountRepository.findBalanceByAccountNumber("B2"));
+        assertEquals(new BigDecimal("27.00"), accountRepository.findBalanceByAccountNumber("C2"));
+    }
+
+    @Test
+    void insertTransactions_assignsGeneratedIdsInOrder_andInsertNotificationsQueuesThem() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transactions.add(transaction("A3", "B3", "1" + i));
+        }
+
+        transferBatchRepository.insertTransactions(transactions);
+        transferBatchRepository.insertNotifications(List.of(
+                new NotificationOutbox(NotificationOutbox.NotificationType.DEBIT, transactions.get(0).getTransactionId(), 1)));
+
+        Integer firstId = transactions.get(0).getTransactionId();
+        assertNotNull(firstId);
+        assertEquals(firstId + 2, transactions.get(2).getTransactionId());
+        assertEquals(new BigDecimal("12.00"), transactionRepository.findById(transactions.get(2).getTransactionId())
+                .orElseThrow().getAmountTransferred());
+        assertEquals(1, outboxRepository.countByStatus(NotificationOutbox.OutboxStatus.PENDING));
+    }
+
+    @Test
+    void insertLedgerEntries_writesOneDebitAndOneCreditPerTransfer() {
+        transferBatchRepository.insertLedgerEntries(LedgerEntry.forTransfer(7, "A4", "B4", new BigDecimal("30")));
+
+        assertEquals(new BigDecimal("-30.00"), ledgerEntryRepository.sumBetween("A4", 0L, Long.MAX_VALUE));
+        assertEquals(new BigDecimal("30.00"), ledgerEntryRepository.sumBetween("B4", 0L, Long.MAX_VALUE));
+    }
+
+    private void account(String number, String balance) {
+        Account account = new Account();
+        account.setUserId(1);
+        account.setBank("SBI");
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(new BigDecimal(balance));
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        accountRepository.saveAndFlush(account);
+    }
+
+    private Transaction transaction(String sender, String receiver, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderId(1);
+        transaction.setReceiverId(2);
+        transaction.setSenderAccountNumber(sender);
+        transaction.setReceiverAccountNumber(receiver);
+        transaction.setAmountTransferred(new BigDecimal(amount));
+        transaction.setDescription("batch");
+        transaction.setFlag(Transaction.TransactionFlag.COMPLETED);
+        transaction.setCurrentBalanceSender(BigDecimal.ONE);
+        transaction.setCurrentBalanceReceiver(BigDecimal.ONE);
+        return transaction;
+    }
+}
@@ -0,0 +1,96 @@
+package com.secure.repository;
+
+import com.secure.model.Account;
+import com.secure.model.AccountSlot;
+import com.secure.model.Beneficiary;
+import com.secure.model.TransferContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+@Import(TransferContextRepository.class)
+class TransferContextRepositoryTest {
+
+    @Autowired
+    private TransferContextRepository transferContextRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private BeneficiaryRepository beneficiaryRepository;
+    @Autowired
+    private AccountSlotRepository accountSlotRepository;
+
+    @Test
+    void findTransferContext_loadsBeneficiaryAndBothAccountsInOneQuery() {
+        Account sender = account("S1", 1, "SBI", "100");
+        account("S2", 1, "SBI", "900");
+        account("S3", 1, "PNB", "900");
+        Account receiver = account("R1", 2, "PNB", "5");
+        Beneficiary beneficiary = beneficiary(1, 2, "R1", "50");
+
+        TransferContext context = transferContextRepository.findTransferContext(
+                beneficiary.getBeneficiaryId(), 1, "SBI", "R1", "IFSC001");
+
+        assertEquals(new BigDecimal("50.00"), context.getBeneficiary().getAmount());
+        assertEquals(2, context.getBeneficiary().getBeneficiaryUserId());
+        // The sender account is the user's first account in the selected bank
+        assertEquals(sender.getAccountId(), context.getSenderAccount().getAccountId());
+        assertEquals(new BigDecimal("100.00"), context.getSenderAccount().getBalance());
+        assertEquals(receiver.getAccountId(), context.getReceiverAccount().getAccountId());
+        assertEquals("PNB", context.getReceiverAccount().getBank());
+    }
+
+    @Test
+    void findTransferContext_returnsNullParts_whenRowsAreMissing() {
+        account("R2", 2, "PNB", "5");
+
+        TransferContext context = transferContextRepository.findTransferContext(999, 9, "SBI", "R2", "WRONGIFSC");
+
+        assertNull(context.getBeneficiary());
+        assertNull(context.getSenderAccount());
+        assertNull(context.getReceiverAccount());
+    }
+
+    @Test
+    void findTransferContext_addsSlotPendingFunds_toAHotReceiversBalance() {
+        account("H1", 2, "PNB", "10");
+        accountRepository.updateHot("H1", true);
+        accountSlotRepository.saveAllAndFlush(List.of(new AccountSlot("H1", 0), new AccountSlot("H1", 1)));
+        accountSlotRepository.credit("H1", 1, new BigDecimal("7"));
+
+        TransferContext context = transferContextRepository.findTransferContext(999, 1, "SBI", "H1", "IFSC001");
+
+        assertTrue(context.getReceiverAccount().isHot());
+        assertEquals(0, new BigDecimal("17").compareTo(context.getReceiverAccount().getBalance()));
+    }
+
+    private Account account(String number, int userId, String bank, String balance) {
+        Account account = new Account();
+        account.setUserId(userId);
+        account.setBank(bank);
+        account.setAccountNumber(number);
+        account.setAccountType(Account.AccountType.SAVINGS);
+        account.setBalance(new BigDecimal(balance));
+        account.setIfscCode("IFSC001");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        return accountRepository.saveAndFlush(account);
+    }
+
+    private Beneficiary beneficiary(int userId, int beneficiaryUserId, String accountNumber, String limit) {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setUserId(userId);
+        beneficiary.setBeneficiaryName("Receiver");
+        beneficiary.setBeneficiaryBank("PNB");
+        beneficiary.setBeneficiaryUserId(beneficiaryUserId);
+        beneficiary.setBeneficiaryAccountNumber(accountNumber);
+        beneficiary.setAmount(new BigDecimal(limit));
+        beneficiary.setIfscCode("IFSC001");
+        return beneficiaryRepository.saveAndFlush(beneficiary);
+    }
+}
@@ -0,0 +1,125 @@
+package com.secure.services;
+
+import com.secure.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdminDashboardServiceTest {
+
+    @Mock
+    private AdminService adminService;
+
+    private AdminDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dashboardService = new AdminDashboardService(adminService, 5, 10, 500, 60000);
+        when(adminService.getTransactionStatsByBank()).thenReturn(List.of(Map.of("bank", "SBI")));
+        when(adminService.getLatestTransactions()).thenReturn(List.of(Map.of("transactionId", 1)));
+        when(adminService.getSuspiciousTransactions()).thenReturn(List.of());
+        when(adminService.getFraudTransactions()).thenReturn(List.of());
+        when(adminService.getBlockedUsers()).thenReturn(ResponseEntity.ok(List.of(Map.of("id", 3))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void getDashboard_assemblesEverySection_andServesItFromCache() {
+        Map<String, Object> dashboard = dashboardService.getDashboard();
+
+        assertEquals(List.of(Map.of("bank", "SBI")), dashboard.get("stats"));
+        assertEquals(List.of(Map.of("transactionId", 1)), dashboard.get("latest"));
+        assertEquals(List.of(), dashboard.get("suspicious"));
+        assertEquals(List.of(), dashboard.get("fraud"));
+        assertEquals(List.of(Map.of("id", 3)), dashboard.get("blockedUsers"));
+        assertEquals(List.of(), dashboard.get("unavailable"));
+
+        assertSame(dashboard, dashboardService.getDashboard());
+        verify(adminService, times(1)).getTransactionStatsByBank();
+        assertEquals(1L, dashboardService.stats().get("cacheHits"));
+    }
+
+    @Test
+    void getDashboard_leavesOutFailedAndSlowSections_andDoesNotCacheThem() {
+        when(adminService.getFraudTransactions()).thenThrow(new CustomException("database unavailable"));
+        when(adminService.getSuspiciousTransactions()).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return List.of();
+        });
+
+        long started = System.currentTimeMillis();
+        Map<String, Object> dashboard = dashboardService.getDashboard();
+
+        assertTrue(System.currentTimeMillis() - started < 3000);
+        assertEquals(List.of("suspicious", "fraud"), dashboard.get("unavailable"));
+        assertNull(dashboard.get("fraud"));
+        assertEquals(List.of(Map.of("bank", "SBI")), dashboard.get("stats"));
+
+        dashboardService.getDashboard();
+        verify(adminService, times(2)).getTransactionStatsByBank();
+        assertEquals(4L, dashboardService.stats().get("sectionFailures"));
+    }
+
+    @Test
+    void getDashboard_failsSectionsFast_whenTheLoaderQueueIsFull() {
+        AdminDashboardService saturated = new AdminDashboardService(adminService, 1, 1, 500, 60000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(adminService.getTransactionStatsByBank()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        try {
+            Map<String, Object> dashboard = saturated.getDashboard();
+
+            // stats holds the only thread and latest the only queue slot; the rest are rejected
+            assertEquals(List.of("stats", "latest", "suspicious", "fraud", "blockedUsers"), dashboard.get("unavailable"));
+            verify(adminService, never()).getSuspiciousTransactions();
+            verify(adminService, never()).getFraudTransactions();
+            verify(adminService, never()).getBlockedUsers();
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void getDashboard_concurrentRequestsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(adminService.getTransactionStatsByBank()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(dashboardService::getDashboard);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Map<String, Object>> second = CompletableFuture.supplyAsync(dashboardService::getDashboard);
+        while (dashboardService.stats().get("sharedLoads").equals(0L)) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(adminService, times(1)).getTransactionStatsByBank();
+        assertEquals(1L, dashboardService.stats().get("loads"));
+    }
+}
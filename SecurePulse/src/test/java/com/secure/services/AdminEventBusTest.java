@@ -0,0 +1,117 @@
+package com.secure.services;
+
+import com.secure.exception.CustomException;
+import com.secure.utils.AdminEventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminEventBusTest {
+
+    private AdminEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void subscribe_refusesStreamsBeyondTheLimit() {
+        bus = new AdminEventBus(8, 2, 60000, 1);
+        bus.subscribe();
+        bus.subscribe();
+
+        CustomException error = assertThrows(CustomException.class, bus::subscribe);
+
+        assertEquals("Too many open admin streams", error.getMessage());
+        assertEquals(2, bus.stats().get("subscribers"));
+    }
+
+    @Test
+    void subscribe_neverExceedsTheLimit_underConcurrentSubscribes() throws Exception {
+        bus = new AdminEventBus(8, 5, 60000, 1);
+        ExecutorService admins = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            attempts.add(admins.submit(() -> {
+                start.await();
+                try {
+                    bus.subscribe();
+                    return true;
+                } catch (CustomException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int opened = 0;
+        for (Future<Boolean> attempt : attempts) {
+            opened += attempt.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        admins.shutdown();
+
+        assertEquals(5, opened);
+        assertEquals(5, bus.stats().get("subscribers"));
+    }
+
+    @Test
+    void publish_dropsOldestEvents_whileTheSubscriberIsSlow() throws Exception {
+        bus = new AdminEventBus(3, 5, 60000, 1);
+        SseEmitter emitter = bus.subscribe();
+
+        // Holding the emitter's monitor stalls the sender inside its first write, like a slow connection
+        synchronized (emitter) {
+            bus.publish(AdminEventBus.MARKED, Map.of("n", 1));
+            awaitCondition(AdminEventBusTest::senderIsBlocked);
+            for (int n = 2; n <= 10; n++) {
+                bus.publish(AdminEventBus.MARKED, Map.of("n", n));
+            }
+
+            // Events 2 to 7 made way for 8, 9 and 10
+            assertEquals(6L, bus.stats().get("dropped"));
+        }
+
+        awaitCondition(() -> bus.stats().get("delivered").equals(4L));
+        assertEquals(10L, bus.stats().get("published"));
+    }
+
+    @Test
+    void publish_removesSubscriber_whoseConnectionHasClosed() throws Exception {
+        bus = new AdminEventBus(8, 5, 60000, 1);
+        SseEmitter emitter = bus.subscribe();
+        emitter.complete();
+
+        bus.publish(AdminEventBus.BLOCKED, Map.of("id", 3));
+
+        awaitCondition(() -> bus.stats().get("subscribers").equals(0));
+        assertEquals(0L, bus.stats().get("delivered"));
+    }
+
+    private static boolean senderIsBlocked() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().startsWith("admin-stream-") && t.getState() == Thread.State.BLOCKED);
+    }
+
+    // Sender threads deliver asynchronously; wait for the expected state with an upper bound
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not reached within 5 seconds");
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.secure.exception.CustomException;
 import com.secure.model.*;
 import com.secure.repository.*;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.BlockedUsersCache;
 import com.secure.utils.EmailProvider;
 import com.secure.utils.JwtProvider;
 import com.secure.utils.TemplateProvider;
@@ -11,24 +13,33 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
 
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -58,6 +69,14 @@ class AdminServiceTest {
     private  BCryptPasswordEncoder passwordEncoder;
     @Mock
     private  TemplateProvider templateProvider;
+    @Mock
+    private  BankStatsService bankStatsService;
+    @Mock
+    private  AdminEventBus adminEventBus;
+    @Spy
+    private  BlockedUsersCache blockedUsersCache = new BlockedUsersCache(30000);
+    @Mock
+    private  BlockedUserIndex blockedUserIndex;
 
     @Test
     void authenticateAdmin() {
@@ -68,7 +87,6 @@ class AdminServiceTest {
         admin.setEmail("test@example.com");
         admin.setAdminId(1);
         admin.setPassword("hiddenPassword"); // Assuming this is the password in the database
-        List<BlockedUser> list = new ArrayList<>();
 
         // Mocking all dependencies
         when(adminRepository.findByEmail(email)).thenReturn(Optional.of(admin));
@@ -76,7 +94,6 @@ class AdminServiceTest {
         when(jwtProvider.generateAdminToken(admin)).thenReturn("token");
         when(templateProvider.buildAdminLoginSuccessEmail(anyString())).thenReturn("Test Email");
         doNothing().when(emailProvider).sendEmail(eq(email), anyString(), anyString());
-        when(blockedUserRepository.findAll(Sort.by("createdAt").descending())).thenReturn(list);
 
 
         // Run the method being tested
@@ -111,10 +128,13 @@ class AdminServiceTest {
 
     @Test
     void getTransactionStatsByBank() {
-        List<Transaction> transactions = new ArrayList<>();
-        when(transactionRepository.findAll()).thenReturn(transactions);
+        List<Map<String, Object>> counters = List.of(Map.of("name", "FINOVA", "outgoing", 3));
+        when(bankStatsService.getStats()).thenReturn(counters);
+
         List<Map<String, Object>> result= adminService.getTransactionStatsByBank();
-        assertNotNull(result);
+
+        assertSame(counters, result);
+        verifyNoInteractions(transactionRepository, accountRepository);
     }
 
 
@@ -139,12 +159,12 @@ class AdminServiceTest {
     void getRecentBankTransactions() {
         String bankName = "testBank";
         List<Transaction> transactions = new ArrayList<>();
-        when(transactionRepository.findRecentByBank(bankName, PageRequest.of(0, 10))).thenReturn(transactions);
+        when(transactionRepository.findRecentByBank(bankName, 10)).thenReturn(transactions);
 
         List<Map<String, Object>> result = adminService.getRecentBankTransactions(bankName);
 
         assertNotNull(result);
-        verify(transactionRepository).findRecentByBank(bankName, PageRequest.of(0, 10));
+        verify(transactionRepository).findRecentByBank(bankName, 10);
     }
 
 
@@ -153,7 +173,7 @@ class AdminServiceTest {
         String bankName= "testBank";
 
         when(transactionRepository
-                .findRecentByBank(bankName, PageRequest.of(0, 150))).thenReturn(new ArrayList<>());
+                .findRecentByBank(bankName, 150)).thenReturn(new ArrayList<>());
         List<Map<String, Object>> result = adminService.getAllBankTransactions(bankName);
         assertNotNull(result);
     }
@@ -213,6 +233,79 @@ class AdminServiceTest {
         assertEquals(transactions.size(), result.size());
     }
 
+    @Test
+    void getAllLatestTransactions_resolvesAccountsOfThePageInOneQuery() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(i);
+            transaction.setSenderAccountNumber("111");
+            transaction.setReceiverAccountNumber(i == 2 ? "333" : "222");
+            transactions.add(transaction);
+        }
+        when(transactionRepository.findAll(
+                PageRequest.of(0, 150, Sort.by("timestamp").descending())
+        )).thenReturn(new PageImpl<>(transactions));
+        when(accountRepository.findHoldersByAccountNumberIn(Set.of("111", "222", "333"))).thenReturn(List.of(
+                new AccountHolder("111", "SBI", "SBI0001", 1, "John", "Doe"),
+                new AccountHolder("222", "PNB", "PNB0001", 2, "Jane", "Smith"),
+                new AccountHolder("333", "HDFC", "HDFC0001", null, null, null)));
+
+        List<Map<String, Object>> result = adminService.getAllLatestTransactions();
+
+        assertEquals(3, result.size());
+        assertEquals("John Doe", result.get(0).get("senderName"));
+        assertEquals("SBI", result.get(0).get("senderBank"));
+        assertEquals("Jane Smith", result.get(1).get("receiverName"));
+        assertEquals("PNB", result.get(1).get("receiverBank"));
+        // Account whose user is gone keeps its bank but has no name
+        assertEquals("HDFC", result.get(2).get("receiverBank"));
+        assertFalse(result.get(2).containsKey("receiverName"));
+        verify(accountRepository, times(1)).findHoldersByAccountNumberIn(anyCollection());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchTransactions_returnsPageWithNextCursor_andResumesFromIt() {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(30 - i);
+            transaction.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0).minusMinutes(i));
+            rows.add(transaction);
+        }
+        when(transactionRepository.findBy(any(Specification.class), any())).thenReturn(rows, List.of(rows.get(2)));
+
+        TransactionFilter filter = new TransactionFilter();
+        filter.setBank("sbi");
+        filter.setFlag("completed");
+        Map<String, Object> first = adminService.searchTransactions(filter, null, 2);
+
+        assertEquals(true, first.get("success"));
+        assertEquals(2, ((List<?>) first.get("transactions")).size());
+        assertNotNull(first.get("nextCursor"));
+
+        Map<String, Object> second = adminService.searchTransactions(filter, (String) first.get("nextCursor"), 2);
+
+        assertEquals(1, ((List<?>) second.get("transactions")).size());
+        assertNull(second.get("nextCursor"));
+        assertEquals(28, ((List<Map<String, Object>>) second.get("transactions")).get(0).get("transactionId"));
+    }
+
+    @Test
+    void searchTransactions_rejectsBadInput() {
+        TransactionFilter filter = new TransactionFilter();
+        assertThrows(CustomException.class, () -> adminService.searchTransactions(filter, null, 0));
+        assertThrows(CustomException.class, () -> adminService.searchTransactions(filter, null, 201));
+        assertThrows(CustomException.class, () -> adminService.searchTransactions(filter, "not-a-cursor", 10));
+
+        filter.setMarked("WHATEVER");
+        CustomException e = assertThrows(CustomException.class, () -> adminService.searchTransactions(filter, null, 10));
+        assertEquals("Invalid marked: WHATEVER", e.getMessage());
+        verifyNoInteractions(transactionRepository);
+    }
+
     @Test
     void getTransactionDetails() {
         // Test data setup
@@ -250,10 +343,11 @@ class AdminServiceTest {
 
         // Mocking the repository calls
         when(transactionRepository.findById(id)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findByAccountNumber(transaction.getSenderAccountNumber())).thenReturn(Optional.of(senderAccount));
-        when(accountRepository.findByAccountNumber(transaction.getReceiverAccountNumber())).thenReturn(Optional.of(receiverAccount));
-        when(userRepository.findById(senderAccount.getUserId())).thenReturn(Optional.of(senderUser));
-        when(userRepository.findById(receiverAccount.getUserId())).thenReturn(Optional.of(receiverUser));
+        when(accountRepository.findHoldersByAccountNumberIn(anyCollection())).thenReturn(List.of(
+                new AccountHolder(senderAccount.getAccountNumber(), senderAccount.getBank(), senderAccount.getIfscCode(),
+                        senderAccount.getUserId(), senderUser.getFirstName(), senderUser.getLastName()),
+                new AccountHolder(receiverAccount.getAccountNumber(), receiverAccount.getBank(), receiverAccount.getIfscCode(),
+                        receiverAccount.getUserId(), receiverUser.getFirstName(), receiverUser.getLastName())));
 
         // Calling the method under test
         ResponseEntity<Object> response = adminService.getTransactionDetails(id);
@@ -294,13 +388,53 @@ class AdminServiceTest {
 
     @Test
     void getBlockedUsers() {
-        List<BlockedUser> blockedUsers = new ArrayList<>();
-        when(blockedUserRepository.findAll(Sort.by("createdAt").descending())).thenReturn(blockedUsers);
+        List<BlockedUserView> blockedUsers = new ArrayList<>();
+        when(blockedUserRepository.findAllWithAccounts()).thenReturn(blockedUsers);
         ResponseEntity<List<Map<String, Object>>> response = adminService.getBlockedUsers();
         assertNotNull(response);
         assertEquals(200, response.getStatusCodeValue());
     }
 
+    @Test
+    void getBlockedUsers_keepsBlocksWithoutUserOrAccount() {
+        Timestamp blockedAt = new Timestamp(System.currentTimeMillis());
+        when(blockedUserRepository.findAllWithAccounts()).thenReturn(List.of(
+                new BlockedUserView(3, "john@example.com", "SBI", "Wrong OTP", blockedAt, "John", "Doe", "1001"),
+                new BlockedUserView(3, "john@example.com", "SBI", "Wrong OTP", blockedAt, "John", "Doe", "1002"),
+                new BlockedUserView(2, "jane@example.com", "HDFC", "Wrong MPIN", blockedAt, "Jane", "Smith", null),
+                new BlockedUserView(1, "gone@example.com", "SBI", "Wrong password", blockedAt, null, null, null)));
+
+        List<Map<String, Object>> users = adminService.getBlockedUsers().getBody();
+
+        assertEquals(3, users.size());
+        assertEquals("John Doe", users.get(0).get("name"));
+        assertEquals("1001", users.get(0).get("accountNumber"));
+        assertEquals("Jane Smith", users.get(1).get("name"));
+        assertNull(users.get(1).get("accountNumber"));
+        assertNull(users.get(2).get("name"));
+        assertEquals("gone@example.com", users.get(2).get("email"));
+        verifyNoInteractions(userRepository, accountRepository);
+    }
+
+    @Test
+    void getBlockedUsers_servesCachedListUntilABlockIsLifted() {
+        BlockedUser blockedUser = new BlockedUser();
+        blockedUser.setId(1);
+        blockedUser.setEmail("john@example.com");
+        when(blockedUserRepository.findAllWithAccounts()).thenReturn(List.of(
+                new BlockedUserView(1, "john@example.com", "SBI", "Wrong OTP", new Timestamp(System.currentTimeMillis()), "John", "Doe", "1001")));
+        when(blockedUserRepository.existsById(1)).thenReturn(true);
+        when(blockedUserRepository.findById(1)).thenReturn(Optional.of(blockedUser));
+
+        adminService.getBlockedUsers();
+        adminService.getBlockedUsers();
+        verify(blockedUserRepository, times(1)).findAllWithAccounts();
+
+        adminService.deleteBlockedUser(1);
+        adminService.getBlockedUsers();
+        verify(blockedUserRepository, times(2)).findAllWithAccounts();
+    }
+
     @Test
     void deleteBlockedUser() {
         int id = 1;
@@ -335,6 +469,8 @@ class AdminServiceTest {
         // Verify that deleteById and email sending methods were called
         verify(blockedUserRepository).deleteById(id);
         verify(emailProvider).sendEmail(eq("testuser@example.com"), eq("Account Access Restored - SecurePulse"), eq(messageBody));
+        verify(adminEventBus).publish(eq(AdminEventBus.UNBLOCKED), argThat(event -> event.get("id").equals(id)));
+        verify(blockedUserIndex).unblock(blockedUser);
     }
 
     @Test
@@ -383,213 +519,120 @@ class AdminServiceTest {
     @Test
     void markTransactionAsFraud() {
         int transactionId = 1;
+        when(transactionService.rejectSuspicious(transactionId)).thenReturn(true);
 
-        // Mock data setup
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setMarked(Transaction.TransactionMarked.SUSPICIOUS);  // Transaction is marked as SUSPICIOUS
-
-        // Mock the repository to return the transaction
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
-
-        // Call the method under test
         boolean result = adminService.markTransactionAsFraud(transactionId);
 
-        // Assertions
-        assertTrue(result); // Expect the transaction to be marked as fraud
-        assertEquals(Transaction.TransactionMarked.FRAUD, transaction.getMarked()); // Verify that the status was updated to FRAUD
-
-        // Verify that the save method was called once
-        verify(transactionRepository).save(transaction);
-    }
-
-    @Test
-    void markTransactionAsFraud_TransactionNotFound() {
-        int transactionId = 1;
-
-        // Mock the repository to simulate transaction not found
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.empty());
-
-        // Call the method under test
-        boolean result = adminService.markTransactionAsFraud(transactionId);
-
-        // Assertions
-        assertFalse(result); // Expect false since the transaction was not found
-
-        // Verify that save was not called
-        verify(transactionRepository, never()).save(any(Transaction.class));
+        assertTrue(result);
+        verify(adminEventBus).publish(eq(AdminEventBus.MARKED), eq(Map.of("transactionId", transactionId, "marked", Transaction.TransactionMarked.FRAUD)));
     }
 
     @Test
-    void markTransactionAsFraud_AlreadyMarkedFraud() {
+    void markTransactionAsFraud_NotAwaitingReview() {
         int transactionId = 1;
 
-        // Mock data setup with a transaction already marked as FRAUD
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setMarked(Transaction.TransactionMarked.FRAUD);  // Transaction is already marked as FRAUD
-
-        // Mock the repository to return the transaction
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        // Not found, or already released or rejected
+        when(transactionService.rejectSuspicious(transactionId)).thenReturn(false);
 
-        // Call the method under test
         boolean result = adminService.markTransactionAsFraud(transactionId);
 
-        // Assertions
-        assertFalse(result); // Expect false because the transaction is already marked as FRAUD
-        assertEquals(Transaction.TransactionMarked.FRAUD, transaction.getMarked()); // Verify that the status remains FRAUD
-
-        // Verify that save was not called
-        verify(transactionRepository, never()).save(transaction);
+        assertFalse(result);
+        verifyNoInteractions(adminEventBus);
     }
 
-
-
     @Test
     void markTransactionAsNormal() {
-        // Given
         int transactionId = 1;
+        when(transactionService.releaseSuspicious(transactionId)).thenReturn(true);
 
-        // Mock transaction data
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setSenderAccountNumber("12345");
-        transaction.setReceiverAccountNumber("67890");
-        transaction.setAmountTransferred(new BigDecimal(1000));
-        transaction.setSenderId(1);
-        transaction.setReceiverId(2);
-        transaction.setDescription("Test transaction");
-
-        // Mock sender and receiver accounts
-        Account sender = new Account();
-        sender.setAccountNumber("12345");
-        sender.setUserId(1);
-
-        Account receiver = new Account();
-        receiver.setAccountNumber("67890");
-        receiver.setUserId(2);
-
-        // Mock the repositories
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(sender));
-        when(accountRepository.findByAccountNumber("67890")).thenReturn(Optional.of(receiver));
-        when(transactionService.processTransaction(sender, receiver, new BigDecimal(1000), 1, 2, "Test transaction"))
-                .thenReturn(Map.of("status", true));
-
-        // Mock the deletion of the transaction
-        doNothing().when(transactionRepository).delete(transaction);
-
-        // Call the method under test
         boolean result = adminService.markTransactionAsNormal(transactionId);
 
-        // Assertions
-        assertTrue(result); // Expect true because the transaction was marked as normal
-        verify(transactionRepository).delete(transaction); // Ensure the transaction was deleted
+        // The held transfer completes in place; nothing is re-executed or deleted
+        assertTrue(result);
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+        verify(adminEventBus).publish(eq(AdminEventBus.MARKED), eq(Map.of("transactionId", transactionId, "marked", Transaction.TransactionMarked.NORMAL)));
     }
 
     @Test
-    void markTransactionAsNormal_TransactionNotFound() {
-        // Given
+    void markTransactionAsNormal_NotReleased() {
         int transactionId = 1;
 
-        // Mock the repository to simulate transaction not found
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.empty());
+        // Not found, already reviewed, or the accounts could not be settled
+        when(transactionService.releaseSuspicious(transactionId)).thenReturn(false);
 
-        // Call the method under test
         boolean result = adminService.markTransactionAsNormal(transactionId);
 
-        // Assertions
-        assertFalse(result); // Expect false since the transaction was not found
-        verify(transactionRepository, never()).delete(any(Transaction.class)); // Ensure deletion was not attempted
+        assertFalse(result);
+        verifyNoInteractions(adminEventBus);
     }
 
-    @Test
-    void markTransactionAsNormal_SenderAccountNotFound() {
-        // Given
-        int transactionId = 1;
 
-        // Mock transaction data
+    private static Transaction reviewable(int id, Transaction.TransactionMarked marked, Transaction.TransactionFlag flag) {
         Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setSenderAccountNumber("12345");
-        transaction.setReceiverAccountNumber("67890");
-
-        // Mock the repositories
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.empty()); // Sender account not found
-
-        // Call the method under test
-        boolean result = adminService.markTransactionAsNormal(transactionId);
-
-        // Assertions
-        assertFalse(result); // Expect false since the sender account was not found
-        verify(transactionRepository, never()).delete(any(Transaction.class)); // Ensure deletion was not attempted
+        transaction.setTransactionId(id);
+        transaction.setSenderAccountNumber("S" + id);
+        transaction.setMarked(marked);
+        transaction.setFlag(flag);
+        return transaction;
     }
 
     @Test
-    void markTransactionAsNormal_ReceiverAccountNotFound() {
-        // Given
-        int transactionId = 1;
-
-        // Mock transaction data
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setSenderAccountNumber("12345");
-        transaction.setReceiverAccountNumber("67890");
-
-        // Mock the repositories
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(new Account())); // Sender account found
-        when(accountRepository.findByAccountNumber("67890")).thenReturn(Optional.empty()); // Receiver account not found
-
-        // Call the method under test
-        boolean result = adminService.markTransactionAsNormal(transactionId);
-
-        // Assertions
-        assertFalse(result); // Expect false since the receiver account was not found
-        verify(transactionRepository, never()).delete(any(Transaction.class)); // Ensure deletion was not attempted
+    void reviewTransactions_rejectsFraudInOneBatch_withAResultPerId() {
+        Transaction suspicious = reviewable(1, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionFlag.PENDING);
+        Transaction raced = reviewable(2, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionFlag.PENDING);
+        Transaction completed = reviewable(3, Transaction.TransactionMarked.NORMAL, Transaction.TransactionFlag.COMPLETED);
+        when(transactionRepository.findAllById(Set.of(1, 2, 3, 4))).thenReturn(List.of(completed, suspicious, raced));
+        // 2 was reviewed by another admin between the load and the batch
+        when(transactionService.rejectSuspicious(List.of(1, 2))).thenReturn(Set.of(1));
+
+        Map<String, Object> response = adminService.reviewTransactions(List.of(1, 2, 3, 4, 1), "fraud");
+
+        assertEquals(Transaction.TransactionMarked.FRAUD, response.get("decision"));
+        assertEquals(1L, response.get("reviewed"));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+        assertEquals(List.of(1, 2, 3, 4), results.stream().map(r -> r.get("transactionId")).toList());
+        assertEquals(List.of(true, false, false, false), results.stream().map(r -> r.get("success")).toList());
+        assertEquals("Transaction not found", results.get(3).get("message"));
+        verify(transactionService, never()).submitReleases(any());
+        verify(adminEventBus).publish(eq(AdminEventBus.MARKED), eq(Map.of("transactionId", 1, "marked", Transaction.TransactionMarked.FRAUD)));
+        verifyNoMoreInteractions(adminEventBus);
     }
 
     @Test
-    void markTransactionAsNormal_TransactionProcessingFailed() {
-        // Given
-        int transactionId = 1;
-
-        // Mock transaction data
-        Transaction transaction = new Transaction();
-        transaction.setTransactionId(transactionId);
-        transaction.setSenderAccountNumber("12345");
-        transaction.setReceiverAccountNumber("67890");
-        transaction.setAmountTransferred(new BigDecimal(1000));
-        transaction.setSenderId(1);
-        transaction.setReceiverId(2);
-        transaction.setDescription("Test transaction");
-
-        // Mock sender and receiver accounts
-        Account sender = new Account();
-        sender.setAccountNumber("12345");
-        sender.setUserId(1);
-
-        Account receiver = new Account();
-        receiver.setAccountNumber("67890");
-        receiver.setUserId(2);
-
-        // Mock the repositories
-        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(sender));
-        when(accountRepository.findByAccountNumber("67890")).thenReturn(Optional.of(receiver));
-        when(transactionService.processTransaction(sender, receiver, new BigDecimal(1000), 1, 2, "Test transaction"))
-                .thenReturn(Map.of("status", false)); // Simulate transaction processing failure
-
-        // Call the method under test
-        boolean result = adminService.markTransactionAsNormal(transactionId);
-
-        // Assertions
-        assertFalse(result); // Expect false because the transaction was not successfully processed
-        verify(transactionRepository, never()).delete(any(Transaction.class)); // Ensure deletion was not attempted
+    void reviewTransactions_releasesOnTheLanes_andReportsEachOutcome() {
+        Transaction first = reviewable(1, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionFlag.PENDING);
+        Transaction second = reviewable(2, Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionFlag.PENDING);
+        when(transactionRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(first, second));
+        Map<Integer, CompletableFuture<Map<String, Object>>> releases = new LinkedHashMap<>();
+        releases.put(1, CompletableFuture.completedFuture(Map.of("status", true, "message", "Transaction marked as normal")));
+        releases.put(2, CompletableFuture.failedFuture(new CustomException("Receiver account not found")));
+        when(transactionService.submitReleases(List.of(first, second))).thenReturn(releases);
+
+        Map<String, Object> response = adminService.reviewTransactions(List.of(1, 2), "NORMAL");
+
+        assertEquals(1L, response.get("reviewed"));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+        assertEquals(true, results.get(0).get("success"));
+        assertEquals(false, results.get(1).get("success"));
+        assertEquals("Error releasing transaction: Receiver account not found", results.get(1).get("message"));
+        verify(transactionService, never()).rejectSuspicious(anyCollection());
+        verify(adminEventBus).publish(eq(AdminEventBus.MARKED), eq(Map.of("transactionId", 1, "marked", Transaction.TransactionMarked.NORMAL)));
+        verifyNoMoreInteractions(adminEventBus);
     }
 
+    @Test
+    void reviewTransactions_rejectsBadInput() {
+        assertThrows(CustomException.class, () -> adminService.reviewTransactions(List.of(), "FRAUD"));
+        assertThrows(CustomException.class, () -> adminService.reviewTransactions(List.of(1), "SUSPICIOUS"));
+        assertThrows(CustomException.class, () -> adminService.reviewTransactions(List.of(1), "maybe"));
+        assertThrows(CustomException.class, () -> adminService.reviewTransactions(List.of(1), null));
+        List<Integer> tooMany = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            tooMany.add(i);
+        }
+        assertThrows(CustomException.class, () -> adminService.reviewTransactions(tooMany, "FRAUD"));
+        verifyNoInteractions(transactionRepository, transactionService);
+    }
 
     @Test
     void getAdminById_success() {
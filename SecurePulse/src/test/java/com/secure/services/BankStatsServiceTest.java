@@ -0,0 +1,84 @@
+package com.secure.services;
+
+import com.secure.model.Transaction;
+import com.secure.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BankStatsServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private BankStatsService bankStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bankStatsService = new BankStatsService(transactionRepository);
+
+        // FINOVA sent 3 (2 completed, 1 failed, 1 suspicious); HERITAGE received them
+        when(transactionRepository.countOutgoingByBank()).thenReturn(List.of(
+                new Object[]{"FINOVA", 3L, new BigDecimal("2"), new BigDecimal("1"), new BigDecimal("1"), new BigDecimal("0")},
+                new Object[]{"HERITAGE", 0L, new BigDecimal("0"), new BigDecimal("0"), new BigDecimal("0"), new BigDecimal("0")}));
+        when(transactionRepository.countIncomingByBank()).thenReturn(List.of(
+                new Object[]{"FINOVA", 0L},
+                new Object[]{"HERITAGE", 3L}));
+    }
+
+    @Test
+    void seed_loadsCountersFromGroupedQueries() {
+        bankStatsService.seed();
+
+        List<Map<String, Object>> stats = bankStatsService.getStats();
+        assertEquals(2, stats.size());
+        assertEquals("FINOVA", stats.get(0).get("name"));
+        assertEquals(3, stats.get(0).get("outgoing"));
+        assertEquals(2, stats.get(0).get("success"));
+        assertEquals(1, stats.get(0).get("failed"));
+        assertEquals(1, stats.get(0).get("suspicious"));
+        assertEquals(3, stats.get(1).get("incoming"));
+        assertEquals(0L, bankStatsService.stats().get("driftCorrected"));
+    }
+
+    @Test
+    void recordedChanges_areServedWithoutQueries() {
+        bankStatsService.seed();
+        clearInvocations(transactionRepository);
+
+        bankStatsService.recordSaved("FINOVA", "HERITAGE", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS);
+        bankStatsService.recordRemarked("FINOVA", Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionMarked.FRAUD);
+        bankStatsService.recordRemoved("FINOVA", "HERITAGE", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+
+        List<Map<String, Object>> stats = bankStatsService.getStats();
+        assertEquals(3, stats.get(0).get("outgoing"));
+        assertEquals(1, stats.get(0).get("success"));
+        assertEquals(1, stats.get(0).get("suspicious"));
+        assertEquals(1, stats.get(0).get("fraud"));
+        assertEquals(3, stats.get(1).get("incoming"));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void reconcile_correctsAndReportsDrift() {
+        bankStatsService.seed();
+        // A change the counters never heard about, e.g. a row edited directly in the database
+        bankStatsService.recordSaved("FINOVA", "HERITAGE", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+
+        bankStatsService.reconcile();
+
+        assertEquals(3, bankStatsService.getStats().get(0).get("outgoing"));
+        assertEquals(3, bankStatsService.getStats().get(1).get("incoming"));
+        assertEquals(3L, bankStatsService.stats().get("lastDrift"));
+        assertEquals(1L, bankStatsService.stats().get("reconciliations"));
+    }
+}
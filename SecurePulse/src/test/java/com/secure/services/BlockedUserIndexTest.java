@@ -0,0 +1,89 @@
+package com.secure.services;
+
+import com.secure.model.BlockedUser;
+import com.secure.repository.BlockedUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BlockedUserIndexTest {
+
+    private static final long TTL_MILLIS = 60 * 60 * 1000;
+
+    @Mock
+    private BlockedUserRepository blockedUserRepository;
+
+    private BlockedUserIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new BlockedUserIndex(blockedUserRepository, TTL_MILLIS);
+    }
+
+    private static BlockedUser blockedUser(String email, String bank, long ageMillis) {
+        BlockedUser blockedUser = new BlockedUser();
+        blockedUser.setEmail(email);
+        blockedUser.setBankName(bank);
+        blockedUser.setCreatedAt(new Timestamp(System.currentTimeMillis() - ageMillis));
+        return blockedUser;
+    }
+
+    @Test
+    void load_indexesActiveBlocksByEmailAndBank() {
+        when(blockedUserRepository.findByCreatedAtAfter(any(Timestamp.class)))
+                .thenReturn(List.of(blockedUser("john@example.com", "SBI", 1000)));
+
+        index.load();
+
+        assertTrue(index.isBlocked("john@example.com", "SBI"));
+        assertTrue(index.isBlocked("John@Example.com", "sbi"));
+        assertFalse(index.isBlocked("john@example.com", "HDFC"));
+        assertFalse(index.isBlocked("jane@example.com", "SBI"));
+    }
+
+    @Test
+    void isBlocked_stopsOnceTheBlockOutlivesTheTtl() {
+        index.block(blockedUser("john@example.com", "SBI", TTL_MILLIS + 1000));
+        index.block(blockedUser("jane@example.com", "SBI", TTL_MILLIS - 60000));
+
+        assertFalse(index.isBlocked("john@example.com", "SBI"));
+        assertTrue(index.isBlocked("jane@example.com", "SBI"));
+    }
+
+    @Test
+    void unblock_liftsTheBlock() {
+        BlockedUser blockedUser = blockedUser("john@example.com", "SBI", 0);
+        index.block(blockedUser);
+
+        index.unblock(blockedUser);
+
+        assertFalse(index.isBlocked("john@example.com", "SBI"));
+    }
+
+    @Test
+    void reload_keepsChangesMadeWhileTheQueryRan() {
+        BlockedUser lifted = blockedUser("jane@example.com", "SBI", 0);
+        index.block(lifted);
+        when(blockedUserRepository.findByCreatedAtAfter(any(Timestamp.class))).thenAnswer(i -> {
+            // The query sees the database before these two changes
+            index.block(blockedUser("john@example.com", "SBI", 0));
+            index.unblock(lifted);
+            return List.of(lifted);
+        });
+
+        index.reload();
+
+        assertTrue(index.isBlocked("john@example.com", "SBI"));
+        assertFalse(index.isBlocked("jane@example.com", "SBI"));
+        assertEquals(1, index.size());
+    }
+}
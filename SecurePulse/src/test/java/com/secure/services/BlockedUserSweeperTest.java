@@ -0,0 +1,71 @@
+package com.secure.services;
+
+import com.secure.model.BlockedUser;
+import com.secure.repository.BlockedUserRepository;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.BlockedUsersCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BlockedUserSweeperTest {
+
+    private static final long TTL_MILLIS = 60 * 60 * 1000;
+
+    @Mock
+    private BlockedUserRepository blockedUserRepository;
+    @Mock
+    private AdminEventBus adminEventBus;
+    @Mock
+    private BlockedUsersCache blockedUsersCache;
+
+    private BlockedUserSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sweeper = new BlockedUserSweeper(blockedUserRepository, adminEventBus, blockedUsersCache, TTL_MILLIS);
+    }
+
+    private static BlockedUser blockedUser(int id, long ageMillis) {
+        BlockedUser blockedUser = new BlockedUser();
+        blockedUser.setId(id);
+        blockedUser.setEmail("user" + id + "@example.com");
+        blockedUser.setBankName("SBI");
+        blockedUser.setCreatedAt(new Timestamp(System.currentTimeMillis() - ageMillis));
+        return blockedUser;
+    }
+
+    @Test
+    void sweep_deletesExpiredBlocksAndPublishesUnblocks() {
+        when(blockedUserRepository.findByCreatedAtBefore(any(Timestamp.class)))
+                .thenReturn(List.of(blockedUser(1, 2 * TTL_MILLIS), blockedUser(2, 3 * TTL_MILLIS)));
+        when(blockedUserRepository.deleteCreatedBefore(any(Timestamp.class))).thenReturn(2);
+
+        assertEquals(2, sweeper.sweep());
+
+        verify(blockedUserRepository).deleteCreatedBefore(argThat(cutoff ->
+                Math.abs(System.currentTimeMillis() - TTL_MILLIS - cutoff.getTime()) < 5000));
+        verify(blockedUsersCache).invalidate();
+        verify(adminEventBus).publish(eq(AdminEventBus.UNBLOCKED), argThat(event -> event.get("id").equals(1)));
+        verify(adminEventBus).publish(eq(AdminEventBus.UNBLOCKED), argThat(event -> event.get("id").equals(2)));
+    }
+
+    @Test
+    void sweep_skipsTheDeleteWhenNothingExpired() {
+        when(blockedUserRepository.findByCreatedAtBefore(any(Timestamp.class))).thenReturn(List.of());
+
+        assertEquals(0, sweeper.sweep());
+
+        verify(blockedUserRepository, never()).deleteCreatedBefore(any());
+        verifyNoInteractions(adminEventBus, blockedUsersCache);
+    }
+}
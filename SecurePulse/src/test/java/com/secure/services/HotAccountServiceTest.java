@@ -0,0 +1,124 @@
+package com.secure.services;
+
+import com.secure.exception.CustomException;
+import com.secure.model.Account;
+import com.secure.model.AccountSlot;
+import com.secure.repository.AccountRepository;
+import com.secure.repository.AccountSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HotAccountServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountSlotRepository accountSlotRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HotAccountService hotAccountService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        hotAccountService = new HotAccountService(accountRepository, accountSlotRepository, transactionTemplate, 4);
+
+        // Run transaction callbacks inline
+        doAnswer(i -> {
+            ((Consumer<Object>) i.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private AccountSlot slot(int index, String balance) {
+        AccountSlot slot = new AccountSlot("HOT1", index);
+        slot.setBalance(new BigDecimal(balance));
+        return slot;
+    }
+
+    @Test
+    void credit_usesOneOfTheConfiguredSlots() {
+        when(accountSlotRepository.credit(eq("HOT1"), anyInt(), any())).thenReturn(1);
+
+        assertTrue(hotAccountService.credit("HOT1", BigDecimal.TEN));
+
+        ArgumentCaptor<Integer> slot = ArgumentCaptor.forClass(Integer.class);
+        verify(accountSlotRepository).credit(eq("HOT1"), slot.capture(), eq(BigDecimal.TEN));
+        assertTrue(slot.getValue() >= 0 && slot.getValue() < 4);
+        assertEquals(1L, hotAccountService.stats().get("slotCredits"));
+    }
+
+    @Test
+    void credit_reportsMissingSlot() {
+        when(accountSlotRepository.credit(eq("HOT1"), anyInt(), any())).thenReturn(0);
+
+        assertFalse(hotAccountService.credit("HOT1", BigDecimal.TEN));
+    }
+
+    @Test
+    void sweep_movesSlotBalancesIntoAccountRow() {
+        List<AccountSlot> slots = List.of(slot(0, "30"), slot(1, "0"), slot(2, "12.50"));
+        when(accountSlotRepository.findForUpdateByAccountNumber("HOT1")).thenReturn(slots);
+
+        BigDecimal moved = hotAccountService.sweep("HOT1");
+
+        assertEquals(new BigDecimal("42.50"), moved);
+        slots.forEach(s -> assertEquals(0, s.getBalance().signum()));
+        verify(accountRepository).findForUpdateByAccountNumber("HOT1");
+        verify(accountRepository).credit("HOT1", new BigDecimal("42.50"));
+    }
+
+    @Test
+    void sweep_doesNothing_whenSlotsAreEmpty() {
+        when(accountSlotRepository.findForUpdateByAccountNumber("HOT1")).thenReturn(List.of(slot(0, "0")));
+
+        assertEquals(0, hotAccountService.sweep("HOT1").signum());
+        verify(accountRepository, never()).credit(anyString(), any());
+    }
+
+    @Test
+    void consolidate_sweepsAccountsWithPendingFunds() {
+        when(accountSlotRepository.findAccountNumbersWithPendingBalance()).thenReturn(List.of("HOT1"));
+        when(accountSlotRepository.findForUpdateByAccountNumber("HOT1")).thenReturn(List.of(slot(3, "5")));
+
+        hotAccountService.consolidate();
+
+        verify(accountRepository).credit("HOT1", new BigDecimal("5"));
+        assertEquals(1L, hotAccountService.stats().get("sweeps"));
+    }
+
+    @Test
+    void setHot_createsMissingSlotsAndFlagsAccount() {
+        when(accountRepository.findForUpdateByAccountNumber("HOT1")).thenReturn(Optional.of(new Account()));
+        when(accountSlotRepository.findByAccountNumber("HOT1")).thenReturn(List.of(slot(1, "0")));
+
+        hotAccountService.setHot("HOT1", true);
+
+        ArgumentCaptor<List<AccountSlot>> created = ArgumentCaptor.forClass(List.class);
+        verify(accountSlotRepository).saveAll(created.capture());
+        assertEquals(List.of(0, 2, 3), created.getValue().stream().map(AccountSlot::getSlot).toList());
+        verify(accountRepository).updateHot("HOT1", true);
+    }
+
+    @Test
+    void setHot_rejectsUnknownAccount() {
+        when(accountRepository.findForUpdateByAccountNumber("NOPE")).thenReturn(Optional.empty());
+
+        assertThrows(CustomException.class, () -> hotAccountService.setHot("NOPE", true));
+        verify(accountRepository, never()).updateHot(anyString(), anyBoolean());
+    }
+}
@@ -0,0 +1,128 @@
+package com.secure.services;
+
+import com.secure.model.Account;
+import com.secure.model.BalanceSnapshot;
+import com.secure.repository.AccountRepository;
+import com.secure.repository.AccountSlotRepository;
+import com.secure.repository.BalanceSnapshotRepository;
+import com.secure.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountSlotRepository accountSlotRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ledgerService = new LedgerService(ledgerEntryRepository, balanceSnapshotRepository, accountRepository,
+                accountSlotRepository, transactionTemplate);
+
+        // Run transaction callbacks inline
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(balanceSnapshotRepository.save(any(BalanceSnapshot.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    private Account account(String number, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+
+    @Test
+    void balanceOf_addsEntriesAfterLatestSnapshot() {
+        when(balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("A1"))
+                .thenReturn(Optional.of(new BalanceSnapshot("A1", new BigDecimal("100"), 5L)));
+        when(ledgerEntryRepository.sumBetween("A1", 5L, Long.MAX_VALUE)).thenReturn(new BigDecimal("-30"));
+
+        assertEquals(new BigDecimal("70"), ledgerService.balanceOf("A1"));
+        assertEquals(new BigDecimal("70"), ledgerService.balanceOf("A1"));
+
+        // The snapshot is cached after the first read
+        verify(balanceSnapshotRepository, times(1)).findTopByAccountNumberOrderByIdDesc("A1");
+    }
+
+    @Test
+    void balanceOf_returnsNull_whenAccountNeverSnapshotted() {
+        when(balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("A1")).thenReturn(Optional.empty());
+
+        assertNull(ledgerService.balanceOf("A1"));
+    }
+
+    @Test
+    void takeSnapshots_seedsFirstSnapshotFromStoredBalance() {
+        when(ledgerEntryRepository.findMaxId()).thenReturn(0L);
+        when(balanceSnapshotRepository.findAccountNumbersWithoutSnapshot()).thenReturn(List.of("A1"));
+        when(accountRepository.findForUpdateByAccountNumber("A1")).thenReturn(Optional.of(account("A1", "250")));
+        when(balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("A1")).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.findMaxIdByAccountNumber("A1")).thenReturn(0L);
+
+        ledgerService.takeSnapshots();
+
+        ArgumentCaptor<BalanceSnapshot> saved = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(balanceSnapshotRepository).save(saved.capture());
+        assertEquals(new BigDecimal("250"), saved.getValue().getBalance());
+        assertEquals(0L, saved.getValue().getLastEntryId());
+    }
+
+    @Test
+    void takeSnapshots_foldsNewEntriesAndReportsDrift() {
+        when(ledgerEntryRepository.findMaxId()).thenReturn(9L);
+        when(balanceSnapshotRepository.findAccountNumbersWithoutSnapshot()).thenReturn(List.of());
+        when(ledgerEntryRepository.findAccountNumbersWithEntriesAfter(0L)).thenReturn(List.of("A1"));
+        when(accountRepository.findForUpdateByAccountNumber("A1")).thenReturn(Optional.of(account("A1", "60")));
+        when(balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("A1"))
+                .thenReturn(Optional.of(new BalanceSnapshot("A1", new BigDecimal("100"), 5L)));
+        when(ledgerEntryRepository.findMaxIdByAccountNumber("A1")).thenReturn(9L);
+        when(ledgerEntryRepository.sumBetween("A1", 5L, 9L)).thenReturn(new BigDecimal("-30"));
+
+        ledgerService.takeSnapshots();
+
+        ArgumentCaptor<BalanceSnapshot> saved = ArgumentCaptor.forClass(BalanceSnapshot.class);
+        verify(balanceSnapshotRepository).save(saved.capture());
+        assertEquals(new BigDecimal("70"), saved.getValue().getBalance());
+        assertEquals(9L, saved.getValue().getLastEntryId());
+        assertEquals(1L, ledgerService.stats().get("driftDetected"));
+        assertEquals(9L, ledgerService.stats().get("snapshottedUpTo"));
+    }
+
+    @Test
+    void rebuildBalances_correctsStoredBalanceFromLedger() {
+        Account stored = account("A1", "60");
+        when(balanceSnapshotRepository.findSnapshottedAccountNumbers()).thenReturn(List.of("A1"));
+        when(accountRepository.findForUpdateByAccountNumber("A1")).thenReturn(Optional.of(stored));
+        when(balanceSnapshotRepository.findTopByAccountNumberOrderByIdDesc("A1"))
+                .thenReturn(Optional.of(new BalanceSnapshot("A1", new BigDecimal("100"), 5L)));
+        when(ledgerEntryRepository.sumBetween("A1", 5L, Long.MAX_VALUE)).thenReturn(new BigDecimal("-30"));
+
+        assertEquals(1, ledgerService.rebuildBalances());
+        assertEquals(new BigDecimal("70"), stored.getBalance());
+        verify(accountRepository).save(stored);
+    }
+}
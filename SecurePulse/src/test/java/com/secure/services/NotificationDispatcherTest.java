@@ -0,0 +1,145 @@
+package com.secure.services;
+
+import com.secure.model.*;
+import com.secure.repository.NotificationOutboxRepository;
+import com.secure.repository.TransactionRepository;
+import com.secure.repository.UserRepository;
+import com.secure.utils.CircuitBreaker;
+import com.secure.utils.EmailProvider;
+import com.secure.utils.TemplateProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EmailProvider emailProvider;
+    @Mock
+    private TemplateProvider templateProvider;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        dispatcher = new NotificationDispatcher(outboxRepository, transactionRepository, userRepository,
+                emailProvider, templateProvider, 50, 3, 1000, 60000, 2, 60000);
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(7);
+        transaction.setSenderId(1);
+        transaction.setReceiverId(2);
+        transaction.setSenderAccountNumber("SENDER");
+        transaction.setReceiverAccountNumber("RECEIVER");
+        transaction.setAmountTransferred(new BigDecimal("100"));
+        transaction.setCurrentBalanceSender(new BigDecimal("900"));
+        transaction.setCurrentBalanceReceiver(new BigDecimal("1100"));
+        transaction.setDescription("rent");
+
+        User sender = new User();
+        sender.setUserId(1);
+        sender.setEmail("sender@example.com");
+        User receiver = new User();
+        receiver.setUserId(2);
+        receiver.setEmail("receiver@example.com");
+
+        when(transactionRepository.findAllById(any())).thenReturn(List.of(transaction));
+        when(userRepository.findAllById(any())).thenReturn(List.of(sender, receiver));
+        when(outboxRepository.claim(anyLong(), anyInt(), any())).thenReturn(1);
+        when(templateProvider.buildDebitNotificationEmail(any(), any(), any(), anyString())).thenReturn("debit email");
+        when(templateProvider.buildCreditNotificationEmail(any(), any(), any(), anyString(), anyString())).thenReturn("credit email");
+    }
+
+    private NotificationOutbox pending(long id, NotificationOutbox.NotificationType type, int recipient) {
+        NotificationOutbox notification = new NotificationOutbox(type, 7, recipient);
+        notification.setId(id);
+        return notification;
+    }
+
+    @Test
+    void dispatch_shouldSendDueNotificationsAndMarkThemSent() throws Exception {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(
+                pending(1L, NotificationOutbox.NotificationType.DEBIT, 1),
+                pending(2L, NotificationOutbox.NotificationType.CREDIT, 2)));
+
+        dispatcher.dispatch();
+
+        verify(emailProvider).sendEmailNow("sender@example.com", "Account Debited - Transaction Alert", "debit email");
+        verify(emailProvider).sendEmailNow("receiver@example.com", "Account Credited - Payment Received", "credit email");
+        verify(outboxRepository).updateOutcome(eq(1L), eq(NotificationOutbox.OutboxStatus.SENT), any(), isNull());
+        verify(outboxRepository).updateOutcome(eq(2L), eq(NotificationOutbox.OutboxStatus.SENT), any(), isNull());
+    }
+
+    @Test
+    void dispatch_shouldRescheduleWithBackoff_whenSmtpFails() throws Exception {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(
+                pending(1L, NotificationOutbox.NotificationType.DEBIT, 1)));
+        doThrow(new MailSendException("SMTP down")).when(emailProvider).sendEmailNow(anyString(), anyString(), anyString());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        verify(outboxRepository).updateOutcome(eq(1L), eq(NotificationOutbox.OutboxStatus.PENDING),
+                argThat(next -> !next.isBefore(before.plusSeconds(1))), eq("SMTP down"));
+    }
+
+    @Test
+    void dispatch_shouldOpenBreakerAndStopBatch_afterConsecutiveSmtpFailures() throws Exception {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(
+                pending(1L, NotificationOutbox.NotificationType.DEBIT, 1),
+                pending(2L, NotificationOutbox.NotificationType.CREDIT, 2),
+                pending(3L, NotificationOutbox.NotificationType.DEBIT, 1)));
+        doThrow(new MailSendException("SMTP down")).when(emailProvider).sendEmailNow(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch();
+
+        assertEquals(CircuitBreaker.State.OPEN, dispatcher.getCircuitBreaker().getState());
+        verify(emailProvider, times(2)).sendEmailNow(anyString(), anyString(), anyString());
+        verify(outboxRepository, never()).claim(eq(3L), anyInt(), any());
+
+        // While open, the next poll does not touch SMTP at all
+        dispatcher.dispatch();
+        verify(emailProvider, times(2)).sendEmailNow(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void dispatch_shouldMarkFailed_afterLastAttempt() throws Exception {
+        NotificationOutbox notification = pending(1L, NotificationOutbox.NotificationType.DEBIT, 1);
+        notification.setAttempts(2);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(notification));
+        doThrow(new MailSendException("SMTP down")).when(emailProvider).sendEmailNow(anyString(), anyString(), anyString());
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository).updateOutcome(eq(1L), eq(NotificationOutbox.OutboxStatus.FAILED), any(), eq("SMTP down"));
+    }
+
+    @Test
+    void dispatch_shouldSkipNotification_whenClaimedByAnotherNode() throws Exception {
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(
+                pending(1L, NotificationOutbox.NotificationType.DEBIT, 1)));
+        when(outboxRepository.claim(anyLong(), anyInt(), any())).thenReturn(0);
+
+        dispatcher.dispatch();
+
+        verify(emailProvider, never()).sendEmailNow(anyString(), anyString(), anyString());
+        verify(outboxRepository, never()).updateOutcome(anyLong(), any(), any(), any());
+    }
+}
@@ -0,0 +1,80 @@
+package com.secure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.secure.exception.CustomException;
+import com.secure.model.TransactionSummary;
+import com.secure.repository.TransactionStatementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StatementExportServiceTest {
+
+    @Mock
+    private TransactionStatementRepository transactionStatementRepository;
+
+    private StatementExportService statementExportService;
+
+    private final LocalDateTime at = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        statementExportService = new StatementExportService(transactionStatementRepository, objectMapper);
+
+        // Feed two lines through the row callback, as the JDBC stream would
+        doAnswer(invocation -> {
+            Consumer<TransactionSummary> consumer = invocation.getArgument(1);
+            consumer.accept(new TransactionSummary(2, "Rent, May", at, null, new BigDecimal("500.00"), new BigDecimal("1500.00")));
+            consumer.accept(new TransactionSummary(1, "=SUM(A1)", at.minusDays(1), new BigDecimal("2000.00"), null, new BigDecimal("2000.00")));
+            return null;
+        }).when(transactionStatementRepository).streamStatement(eq(7), any());
+    }
+
+    @Test
+    void export_writesCsvWithHeaderAndEscapedFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        statementExportService.export(7, StatementExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("transactionId,description,timestamp,creditedAmount,debitedAmount,currentBalance", lines[0]);
+        assertEquals("2,\"Rent, May\",2024-05-01T10:30,,500.00,1500.00", lines[1]);
+        assertEquals("1,'=SUM(A1),2024-04-30T10:30,2000.00,,2000.00", lines[2]);
+    }
+
+    @Test
+    void export_writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        statementExportService.export(7, StatementExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"transactionId\":2"));
+        assertTrue(lines[1].contains("\"creditedAmount\":2000.00"));
+    }
+
+    @Test
+    void parseFormat_acceptsKnownFormatsOnly() {
+        assertEquals(StatementExportService.Format.NDJSON, statementExportService.parseFormat("NDJSON"));
+        assertThrows(CustomException.class, () -> statementExportService.parseFormat("xml"));
+    }
+}
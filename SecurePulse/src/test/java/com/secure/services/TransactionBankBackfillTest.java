@@ -0,0 +1,75 @@
+package com.secure.services;
+
+import com.secure.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionBankBackfillTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionBankBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backfill = new TransactionBankBackfill(transactionRepository, transactionTemplate, 100);
+
+        // Run transaction callbacks inline
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+    }
+
+    private static List<Object[]> range(Object min, Object max) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{min, max});
+        return rows;
+    }
+
+    @Test
+    void run_walksTheMissingRangeInBatches() {
+        when(transactionRepository.findIdRangeWithoutBank()).thenReturn(range(5, 250));
+        when(transactionRepository.backfillBanks(anyInt(), anyInt())).thenReturn(100, 100, 46);
+
+        assertEquals(246, backfill.run());
+
+        verify(transactionRepository).backfillBanks(5, 104);
+        verify(transactionRepository).backfillBanks(105, 204);
+        verify(transactionRepository).backfillBanks(205, 250);
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void run_doesNothingWhenEveryRowHasItsBanks() {
+        when(transactionRepository.findIdRangeWithoutBank()).thenReturn(range(null, null));
+
+        assertEquals(0, backfill.run());
+
+        verify(transactionRepository, never()).backfillBanks(anyInt(), anyInt());
+    }
+
+    @Test
+    void run_stopsAtTheFirstFailedBatch() {
+        when(transactionRepository.findIdRangeWithoutBank()).thenReturn(range(1, 300));
+        when(transactionRepository.backfillBanks(anyInt(), anyInt()))
+                .thenReturn(100)
+                .thenThrow(new RuntimeException("Lock wait timeout"));
+
+        assertEquals(100, backfill.run());
+
+        verify(transactionRepository, times(2)).backfillBanks(anyInt(), anyInt());
+    }
+}
@@ -3,14 +3,18 @@ package com.secure.services;
 import com.secure.exception.CustomException;
 import com.secure.model.*;
 import com.secure.repository.*;
-import com.secure.utils.EmailProvider;
-import com.secure.utils.TemplateProvider;
+import com.secure.utils.AdminEventBus;
+import com.secure.utils.IdempotencyStore;
+import com.secure.utils.RecentActivityCache;
+import com.secure.utils.TransferLanes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,44 +34,78 @@ class TransactionServiceTest {
     private TransactionRepository transactionRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private NotificationOutboxRepository notificationOutboxRepository;
 
     @Mock
-    private EmailProvider emailProvider;
+    private LedgerEntryRepository ledgerEntryRepository;
 
     @Mock
-    private TemplateProvider templateProvider;
+    private TransferBatchRepository transferBatchRepository;
+
+    @Mock
+    private TransferContextRepository transferContextRepository;
+
+    @Mock
+    private TransactionStatementRepository transactionStatementRepository;
+
+    @Mock
+    private HotAccountService hotAccountService;
+
+    @Mock
+    private BankStatsService bankStatsService;
+    @Mock
+    private AdminEventBus adminEventBus;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(100, 60000);
+
+    @Mock
+    private TransferLanes transferLanes;
+
+    // Keeps the two most recent lines per user
+    @Spy
+    private RecentActivityCache recentActivityCache = new RecentActivityCache(100, 2, 60000);
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Run lane work inline, as the worker would after picking it up
+        when(transferLanes.submit(anyString(), anyCollection(), any())).thenAnswer(invocation -> {
+            Supplier<Map<String, Object>> work = invocation.getArgument(2);
+            try {
+                return CompletableFuture.completedFuture(work.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
     }
 
     @Test
-    void addTransaction_shouldReturnInvalidBeneficiary_whenBeneficiaryNotFound() {
-        when(beneficiaryRepository.findById(anyInt())).thenReturn(Optional.empty());
+    void submitTransaction_shouldReturnInvalidBeneficiary_whenBeneficiaryNotFound() {
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(null, null, null));
 
-        Map<String, Object> result = transactionService.addTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0);
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key").join();
         assertFalse((Boolean) result.get("status"));
         assertEquals("Invalid beneficiary or limit exceeded", result.get("message"));
     }
 
     @Test
-    void addTransaction_shouldReturnInvalidSenderAccount_whenSenderAccountNotFound() {
+    void submitTransaction_shouldReturnInvalidSenderAccount_whenSenderAccountNotFound() {
         Beneficiary beneficiary = new Beneficiary();
         beneficiary.setBeneficiaryUserId(2);
         beneficiary.setAmount(BigDecimal.TEN);
 
-        when(beneficiaryRepository.findById(anyInt())).thenReturn(Optional.of(beneficiary));
-        when(accountRepository.findByUserIdAndBank(anyInt(), anyString())).thenReturn(Collections.emptyList());
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(beneficiary, null, null));
 
-        Map<String, Object> result = transactionService.addTransaction(1, 2, "123", BigDecimal.ONE, "IFSC001", "BankA", "desc", 0);
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.ONE, "IFSC001", "BankA", "desc", 0, "key").join();
         assertFalse((Boolean) result.get("status"));
         assertEquals("Sender account not found", result.get("message"));
     }
 
     @Test
-    void addTransaction_shouldReturnInsufficientBalance_whenBalanceLow() {
+    void submitTransaction_shouldReturnInsufficientBalance_whenBalanceLow() {
         Beneficiary beneficiary = new Beneficiary();
         beneficiary.setBeneficiaryUserId(2);
         beneficiary.setAmount(new BigDecimal("1000"));
@@ -77,16 +115,16 @@ class TransactionServiceTest {
         sender.setUserId(1);
         sender.setBalance(new BigDecimal("5"));
 
-        when(beneficiaryRepository.findById(anyInt())).thenReturn(Optional.of(beneficiary));
-        when(accountRepository.findByUserIdAndBank(anyInt(), anyString())).thenReturn(List.of(sender));
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(beneficiary, sender, null));
 
-        Map<String, Object> result = transactionService.addTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0);
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key").join();
         assertFalse((Boolean) result.get("status"));
         assertEquals("Insufficient balance", result.get("message"));
     }
 
     @Test
-    void addTransaction_shouldReturnReceiverNotFound_whenReceiverAccountNotFound() {
+    void submitTransaction_shouldReturnReceiverNotFound_whenReceiverAccountNotFound() {
         Beneficiary beneficiary = new Beneficiary();
         beneficiary.setBeneficiaryUserId(2);
         beneficiary.setAmount(new BigDecimal("1000"));
@@ -96,26 +134,26 @@ class TransactionServiceTest {
         sender.setUserId(1);
         sender.setBalance(new BigDecimal("1000"));
 
-        when(beneficiaryRepository.findById(anyInt())).thenReturn(Optional.of(beneficiary));
-        when(accountRepository.findByUserIdAndBank(anyInt(), anyString())).thenReturn(List.of(sender));
-        when(accountRepository.findByAccountNumberAndIfscCode(anyString(), anyString())).thenReturn(null);
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(beneficiary, sender, null));
 
-        Map<String, Object> result = transactionService.addTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0);
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key").join();
         assertFalse((Boolean) result.get("status"));
         assertEquals("Receiver account not found", result.get("message"));
     }
 
     @Test
-    void addTransaction_shouldHandleExceptionGracefully() {
-        when(beneficiaryRepository.findById(anyInt())).thenThrow(new RuntimeException("DB Down"));
+    void submitTransaction_shouldHandleExceptionGracefully() {
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("DB Down"));
 
-        Map<String, Object> result = transactionService.addTransaction(1, 2, "123", BigDecimal.ONE, "IFSC001", "BankA", "desc", 0);
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.ONE, "IFSC001", "BankA", "desc", 0, "key").join();
         assertFalse((Boolean) result.get("status"));
         assertTrue(((String) result.get("message")).startsWith("Transaction failed:"));
     }
 
     @Test
-    void addTransaction_shouldReturnSuspicious_whenOtpAttemptExceeded() {
+    void submitTransaction_shouldReturnSuspicious_whenOtpAttemptExceeded() {
         Integer senderId = 1, beneficiaryId = 2, otpAttempt = 3;
         String receiverAcc = "123456", ifsc = "IFSC001", userBank = "BankA", description = "Test transfer";
         BigDecimal amount = new BigDecimal("500");
@@ -134,21 +172,206 @@ class TransactionServiceTest {
         receiver.setUserId(3);
         receiver.setBalance(new BigDecimal("200"));
 
-        when(beneficiaryRepository.findById(beneficiaryId)).thenReturn(Optional.of(beneficiary));
-        when(accountRepository.findByUserIdAndBank(senderId, userBank)).thenReturn(List.of(sender));
-        when(accountRepository.findByAccountNumberAndIfscCode(receiverAcc, ifsc)).thenReturn(receiver);
+        when(transferContextRepository.findTransferContext(beneficiaryId, senderId, userBank, receiverAcc, ifsc))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
 
+        when(accountRepository.reserveIfSufficient("SENDER123", amount)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("SENDER123")).thenReturn(new BigDecimal("500"));
         when(transactionRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        Map<String, Object> result = transactionService.addTransaction(senderId, beneficiaryId, receiverAcc, amount, ifsc, userBank, description, otpAttempt);
+        Map<String, Object> result = transactionService.submitTransaction(senderId, beneficiaryId, receiverAcc, amount, ifsc, userBank, description, otpAttempt, "key").join();
         assertTrue((Boolean) result.get("status"));
         assertEquals("Transaction suspicious: Multiple incorrect OTP attempts", result.get("message"));
 
-        verify(transactionRepository, times(1)).save(any());
+        // The amount is held on the sender's reserved balance; nothing reaches the receiver
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(saved.capture());
+        assertTrue(saved.getValue().isFundsHeld());
+        assertEquals(Transaction.TransactionFlag.PENDING, saved.getValue().getFlag());
+        assertEquals(new BigDecimal("500"), saved.getValue().getCurrentBalanceSender());
+        verify(accountRepository, never()).credit(anyString(), any());
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void submitTransaction_shouldNotSaveSuspicious_whenHoldFails() {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryUserId(3);
+        beneficiary.setAmount(new BigDecimal("1000"));
+        Account sender = account("SENDER124", 1, "1000");
+        Account receiver = account("RECEIVER124", 3, "0");
+
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
+        when(accountRepository.reserveIfSufficient("SENDER124", new BigDecimal("500"))).thenReturn(0);
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "RECEIVER124", new BigDecimal("500"), "IFSC001", "BankA", "desc", 3, "key").join();
+
+        assertFalse((Boolean) result.get("status"));
+        assertEquals("Insufficient balance after locking", result.get("message"));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    private static Transaction heldTransaction(int id, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setSenderId(1);
+        transaction.setReceiverId(2);
+        transaction.setSenderAccountNumber("HELD-S");
+        transaction.setReceiverAccountNumber("HELD-R");
+        transaction.setSenderBank("SBI");
+        transaction.setReceiverBank("HDFC");
+        transaction.setAmountTransferred(new BigDecimal(amount));
+        transaction.setCurrentBalanceSender(new BigDecimal("900"));
+        transaction.setFlag(Transaction.TransactionFlag.PENDING);
+        transaction.setMarked(Transaction.TransactionMarked.SUSPICIOUS);
+        transaction.setFundsHeld(true);
+        return transaction;
+    }
+
+    @Test
+    void releaseSuspicious_paysTheHoldToTheReceiverUnderTheOriginalId() {
+        Transaction transaction = heldTransaction(40, "100");
+        when(transactionRepository.findForUpdateById(40)).thenReturn(Optional.of(transaction));
+        when(accountRepository.findByAccountNumber("HELD-S")).thenReturn(Optional.of(account("HELD-S", 1, "900")));
+        when(accountRepository.findByAccountNumber("HELD-R")).thenReturn(Optional.of(account("HELD-R", 2, "50")));
+        when(accountRepository.captureReserved("HELD-S", new BigDecimal("100"))).thenReturn(1);
+        when(accountRepository.credit("HELD-R", new BigDecimal("100"))).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("HELD-R")).thenReturn(new BigDecimal("150"));
+
+        assertTrue(transactionService.releaseSuspicious(40));
+
+        verify(transferBatchRepository).lockBalances(List.of("HELD-S", "HELD-R"));
+        assertEquals(40, transaction.getTransactionId());
+        assertEquals(Transaction.TransactionFlag.COMPLETED, transaction.getFlag());
+        assertEquals(Transaction.TransactionMarked.NORMAL, transaction.getMarked());
+        assertFalse(transaction.isFundsHeld());
+        assertEquals(new BigDecimal("900"), transaction.getCurrentBalanceSender());
+        assertEquals(new BigDecimal("150"), transaction.getCurrentBalanceReceiver());
+        verify(transactionRepository).save(transaction);
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+        verify(accountRepository, never()).debitIfSufficient(anyString(), any());
+        verify(ledgerEntryRepository).saveAll(anyList());
+        verify(notificationOutboxRepository).saveAll(anyList());
+        verify(bankStatsService).recordRemoved("SBI", "HDFC", Transaction.TransactionFlag.PENDING, Transaction.TransactionMarked.SUSPICIOUS);
+        verify(bankStatsService).recordSaved("SBI", "HDFC", Transaction.TransactionFlag.COMPLETED, Transaction.TransactionMarked.NORMAL);
+    }
+
+    @Test
+    void releaseSuspicious_debitsTransfersSavedWithoutAHold() {
+        Transaction transaction = heldTransaction(41, "100");
+        transaction.setFundsHeld(false);
+        when(transactionRepository.findForUpdateById(41)).thenReturn(Optional.of(transaction));
+        when(accountRepository.findByAccountNumber("HELD-S")).thenReturn(Optional.of(account("HELD-S", 1, "900")));
+        when(accountRepository.findByAccountNumber("HELD-R")).thenReturn(Optional.of(account("HELD-R", 2, "50")));
+        when(accountRepository.debitIfSufficient("HELD-S", new BigDecimal("100"))).thenReturn(1);
+        when(accountRepository.credit("HELD-R", new BigDecimal("100"))).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("HELD-S")).thenReturn(new BigDecimal("800"));
+        when(accountRepository.findBalanceByAccountNumber("HELD-R")).thenReturn(new BigDecimal("150"));
+
+        assertTrue(transactionService.releaseSuspicious(41));
+
+        assertEquals(new BigDecimal("800"), transaction.getCurrentBalanceSender());
+        verify(accountRepository, never()).captureReserved(anyString(), any());
+    }
+
+    @Test
+    void releaseSuspicious_refusesTransactionsAlreadyReviewed() {
+        Transaction transaction = heldTransaction(42, "100");
+        transaction.setFlag(Transaction.TransactionFlag.REJECTED);
+        transaction.setMarked(Transaction.TransactionMarked.FRAUD);
+        when(transactionRepository.findForUpdateById(42)).thenReturn(Optional.of(transaction));
+
+        assertFalse(transactionService.releaseSuspicious(42));
+        assertFalse(transactionService.releaseSuspicious(99));
+
+        verify(accountRepository, never()).captureReserved(anyString(), any());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectSuspicious_returnsTheHoldToTheSender() {
+        Transaction transaction = heldTransaction(43, "100");
+        when(transactionRepository.findForUpdateById(43)).thenReturn(Optional.of(transaction));
+        when(accountRepository.returnReserved("HELD-S", new BigDecimal("100"))).thenReturn(1);
+
+        assertTrue(transactionService.rejectSuspicious(43));
+
+        assertEquals(Transaction.TransactionFlag.REJECTED, transaction.getFlag());
+        assertEquals(Transaction.TransactionMarked.FRAUD, transaction.getMarked());
+        assertFalse(transaction.isFundsHeld());
+        verify(transactionRepository).save(transaction);
+        verify(accountRepository, never()).credit(anyString(), any());
+        verify(bankStatsService).recordRemarked("SBI", Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionMarked.FRAUD);
+    }
+
+    @Test
+    void rejectSuspicious_failsWhenTheHoldIsMissing() {
+        Transaction transaction = heldTransaction(44, "100");
+        when(transactionRepository.findForUpdateById(44)).thenReturn(Optional.of(transaction));
+        when(accountRepository.returnReserved("HELD-S", new BigDecimal("100"))).thenReturn(0);
+
+        assertThrows(CustomException.class, () -> transactionService.rejectSuspicious(44));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectSuspicious_batchReturnsEachSendersHoldsOnceAndMarksRowsInOneUpdate() {
+        Transaction first = heldTransaction(50, "100");
+        Transaction second = heldTransaction(51, "40");
+        Transaction legacy = heldTransaction(52, "70");
+        legacy.setFundsHeld(false);
+        Transaction reviewed = heldTransaction(53, "10");
+        reviewed.setMarked(Transaction.TransactionMarked.NORMAL);
+        reviewed.setFlag(Transaction.TransactionFlag.COMPLETED);
+        List<Integer> ids = List.of(50, 51, 52, 53, 54);
+        when(transactionRepository.findAllForUpdateByIdIn(ids)).thenReturn(List.of(first, second, legacy, reviewed));
+        when(accountRepository.returnReserved("HELD-S", new BigDecimal("140"))).thenReturn(1);
+
+        Set<Integer> rejected = transactionService.rejectSuspicious(ids);
+
+        assertEquals(Set.of(50, 51, 52), rejected);
+        verify(accountRepository, times(1)).returnReserved(anyString(), any());
+        verify(transactionRepository).rejectAsFraud(Set.of(50, 51, 52));
+        verify(transactionRepository, never()).save(any());
+        verify(bankStatsService, times(3)).recordRemarked("SBI", Transaction.TransactionMarked.SUSPICIOUS, Transaction.TransactionMarked.FRAUD);
+    }
+
+    @Test
+    void rejectSuspicious_batchRollsBackWhenAHoldIsMissing() {
+        when(transactionRepository.findAllForUpdateByIdIn(List.of(55))).thenReturn(List.of(heldTransaction(55, "100")));
+        when(accountRepository.returnReserved("HELD-S", new BigDecimal("100"))).thenReturn(0);
+
+        assertThrows(CustomException.class, () -> transactionService.rejectSuspicious(List.of(55)));
+        verify(transactionRepository, never()).rejectAsFraud(anyCollection());
+    }
+
+    @Test
+    void submitReleases_queuesEachReleaseOnItsSendersLane() {
+        Transaction transaction = heldTransaction(56, "100");
+        // Already reviewed by the time its lane runs it
+        when(transactionRepository.findForUpdateById(56)).thenReturn(Optional.empty());
+
+        Map<Integer, CompletableFuture<Map<String, Object>>> releases = transactionService.submitReleases(List.of(transaction));
+
+        assertEquals(Set.of(56), releases.keySet());
+        assertEquals(false, releases.get(56).join().get("status"));
+        verify(transferLanes).submit(eq("HELD-S"), eq(List.of("HELD-S", "HELD-R")), any());
+    }
+
+    @Test
+    void submitReleases_leavesAHotReceiversRowUnlocked() {
+        Transaction transaction = heldTransaction(57, "100");
+        when(accountRepository.findHotAccountNumbers()).thenReturn(List.of("HELD-R"));
+
+        transactionService.submitReleases(List.of(transaction));
+
+        // The release credits the hot receiver's slots, so only the sender's row is locked for the group
+        verify(transferLanes).submit(eq("HELD-S"), eq(List.of("HELD-S")), any());
     }
 
     @Test
-    void addTransaction_shouldReturnSuccess_whenAllValidAndOtpUnderLimit() {
+    void submitTransaction_shouldReturnSuccess_whenAllValidAndOtpUnderLimit() {
         Integer senderId = 1, beneficiaryId = 2, otpAttempt = 1;
         String receiverAcc = "123456", ifsc = "IFSC001", userBank = "BankA", description = "Test transfer";
         BigDecimal amount = new BigDecimal("500");
@@ -161,25 +384,20 @@ class TransactionServiceTest {
         sender.setAccountNumber("SENDER123");
         sender.setUserId(senderId);
         sender.setBalance(new BigDecimal("1000"));
+        sender.setBank(userBank);
 
         Account receiver = new Account();
         receiver.setAccountNumber(receiverAcc);
         receiver.setUserId(3);
         receiver.setBalance(new BigDecimal("200"));
+        receiver.setBank("BankB");
 
-        User senderUser = new User();
-        senderUser.setEmail("sender@example.com");
-
-        User receiverUser = new User();
-        receiverUser.setEmail("receiver@example.com");
-
-        when(beneficiaryRepository.findById(beneficiaryId)).thenReturn(Optional.of(beneficiary));
-        when(accountRepository.findByUserIdAndBank(senderId, userBank)).thenReturn(List.of(sender));
-        when(accountRepository.findByAccountNumberAndIfscCode(receiverAcc, ifsc)).thenReturn(receiver);
-        when(userRepository.findById(senderId)).thenReturn(Optional.of(senderUser));
-        when(userRepository.findById(3)).thenReturn(Optional.of(receiverUser));
-        when(templateProvider.buildDebitNotificationEmail(any(), any(), any(), anyString())).thenReturn("debit email");
-        when(templateProvider.buildCreditNotificationEmail(any(), any(), any(), anyString(), anyString())).thenReturn("credit email");
+        when(transferContextRepository.findTransferContext(beneficiaryId, senderId, userBank, receiverAcc, ifsc))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
+        when(accountRepository.debitIfSufficient("SENDER123", amount)).thenReturn(1);
+        when(accountRepository.credit(receiverAcc, amount)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("SENDER123")).thenReturn(new BigDecimal("500"));
+        when(accountRepository.findBalanceByAccountNumber(receiverAcc)).thenReturn(new BigDecimal("700"));
 
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
             Transaction t = invocation.getArgument(0);
@@ -187,81 +405,427 @@ class TransactionServiceTest {
             return t;
         });
 
-        Map<String, Object> result = transactionService.addTransaction(senderId, beneficiaryId, receiverAcc, amount, ifsc, userBank, description, otpAttempt);
+        Map<String, Object> result = transactionService.submitTransaction(senderId, beneficiaryId, receiverAcc, amount, ifsc, userBank, description, otpAttempt, "key").join();
 
         assertTrue((Boolean) result.get("status"));
         assertEquals("Transaction successful", result.get("message"));
         assertEquals(1, result.get("transactionId"));
-
-        verify(emailProvider, times(2)).sendEmail(anyString(), anyString(), anyString());
+        // Both rows the transfer writes are locked by its lane group before it runs
+        verify(transferLanes).submit(eq("SENDER123"), eq(List.of("SENDER123", receiverAcc)), any());
+        assertEquals(new BigDecimal("500"), sender.getBalance());
+        assertEquals(new BigDecimal("700"), receiver.getBalance());
+
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        assertEquals(userBank, saved.getValue().getSenderBank());
+        assertEquals("BankB", saved.getValue().getReceiverBank());
+
+        ArgumentCaptor<List<NotificationOutbox>> queued = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutboxRepository).saveAll(queued.capture());
+        assertEquals(2, queued.getValue().size());
+        assertEquals(NotificationOutbox.NotificationType.DEBIT, queued.getValue().get(0).getType());
+        assertEquals(senderId, queued.getValue().get(0).getRecipientUserId());
+        assertEquals(NotificationOutbox.NotificationType.CREDIT, queued.getValue().get(1).getType());
+        assertEquals(3, queued.getValue().get(1).getRecipientUserId());
+
+        ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(entries.capture());
+        assertEquals(LedgerEntry.Direction.DEBIT, entries.getValue().get(0).getDirection());
+        assertEquals("SENDER123", entries.getValue().get(0).getAccountNumber());
+        assertEquals(LedgerEntry.Direction.CREDIT, entries.getValue().get(1).getDirection());
+        assertEquals(receiverAcc, entries.getValue().get(1).getAccountNumber());
+        assertEquals(1, entries.getValue().get(1).getTransactionId());
     }
 
     @Test
-    void processTransaction_shouldReturnError_whenInsufficientBalance() {
-        Account sender = new Account();
-        sender.setAccountNumber("SENDER");
-        sender.setBalance(new BigDecimal("100"));
+    void submitTransaction_shouldReturnError_whenDebitFailsAfterLocking() {
+        Account sender = account("SENDER", 1, "1000");
+        Account receiver = account("RECEIVER", 2, "1000");
 
-        Account receiver = new Account();
-        receiver.setAccountNumber("RECEIVER");
-        receiver.setBalance(new BigDecimal("1000"));
+        Map<String, Object> result = transfer(sender, receiver, new BigDecimal("500"));
 
-        Map<String, Object> result = transactionService.processTransaction(sender, receiver, new BigDecimal("500"), 1, 2, "test");
         assertFalse((Boolean) result.get("status"));
         assertEquals("Insufficient balance after locking", result.get("message"));
+        verify(transactionRepository, never()).save(any());
     }
 
     @Test
-    void processTransaction_shouldThrowCustomException_whenAccountRepositoryFails() {
-        Account sender = new Account();
-        sender.setAccountNumber("SENDER1");
-        sender.setBalance(new BigDecimal("1000"));
+    void submitTransaction_shouldRefundSender_whenReceiverCreditFails() {
+        Account sender = account("SENDER2", 1, "1000");
+        Account receiver = account("RECEIVER2", 2, "500");
 
-        Account receiver = new Account();
-        receiver.setAccountNumber("RECEIVER1");
-        receiver.setBalance(new BigDecimal("500"));
+        BigDecimal amount = new BigDecimal("200");
+        when(accountRepository.debitIfSufficient("SENDER2", amount)).thenReturn(1);
+        when(accountRepository.credit("RECEIVER2", amount)).thenReturn(0);
 
-        doThrow(new RuntimeException("Database error")).when(accountRepository).save(any(Account.class));
+        Map<String, Object> result = transfer(sender, receiver, amount);
 
-        assertThrows(CustomException.class, () ->
-                transactionService.processTransaction(sender, receiver, new BigDecimal("200"), 1, 2, "test"));
+        assertFalse((Boolean) result.get("status"));
+        assertEquals("Receiver account not found", result.get("message"));
+        verify(accountRepository).credit("SENDER2", amount);
+        verify(transactionRepository, never()).save(any());
     }
 
     @Test
-    void getTransactionsByUserId_shouldReturnTransactions() {
-        Integer userId = 1;
+    void submitTransaction_shouldCreditSlot_whenReceiverIsHot() {
+        Account sender = account("SENDER3", 1, "1000");
+        Account receiver = account("HOT1", 2, "0");
+        receiver.setHot(true);
+
+        BigDecimal amount = new BigDecimal("200");
+        when(accountRepository.debitIfSufficient("SENDER3", amount)).thenReturn(1);
+        when(hotAccountService.credit("HOT1", amount)).thenReturn(true);
+        when(accountRepository.findBalanceByAccountNumber("SENDER3")).thenReturn(new BigDecimal("800"));
+        when(accountRepository.findBalanceByAccountNumber("HOT1")).thenReturn(new BigDecimal("50"));
+        when(hotAccountService.pendingBalance("HOT1")).thenReturn(new BigDecimal("200"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> {
+            Transaction t = i.getArgument(0);
+            t.setTransactionId(5);
+            return t;
+        });
 
-        Transaction txn1 = new Transaction();
-        txn1.setTransactionId(101);
-        txn1.setDescription("Sent");
-        txn1.setTimestamp(LocalDateTime.now());
-        txn1.setAmountTransferred(new BigDecimal("200"));
-        txn1.setCurrentBalanceSender(new BigDecimal("800"));
-        txn1.setFlag(Transaction.TransactionFlag.COMPLETED);
+        Map<String, Object> result = transfer(sender, receiver, amount);
 
-        Transaction txn2 = new Transaction();
-        txn2.setTransactionId(102);
-        txn2.setDescription("Received");
-        txn2.setTimestamp(LocalDateTime.now());
-        txn2.setAmountTransferred(new BigDecimal("300"));
-        txn2.setCurrentBalanceReceiver(new BigDecimal("1200"));
-        txn2.setFlag(Transaction.TransactionFlag.COMPLETED);
+        assertTrue((Boolean) result.get("status"));
+        // Credits to a hot receiver go to a slot row, so only the sender's row is locked
+        verify(transferLanes).submit(eq("SENDER3"), eq(List.of("SENDER3")), any());
+        verify(accountRepository, never()).credit(eq("HOT1"), any());
+        assertEquals(new BigDecimal("250"), receiver.getBalance());
+    }
 
-        when(transactionRepository.findBySenderIdAndFlag(userId, Transaction.TransactionFlag.COMPLETED)).thenReturn(List.of(txn1));
-        when(transactionRepository.findByReceiverIdAndFlag(userId, Transaction.TransactionFlag.COMPLETED)).thenReturn(List.of(txn2));
+    @Test
+    void submitTransaction_shouldSweepSlots_whenHotSenderRowIsShort() {
+        Account sender = account("HOT2", 1, "400");
+        sender.setHot(true);
+        Account receiver = account("RECEIVER3", 2, "0");
+
+        BigDecimal amount = new BigDecimal("300");
+        when(accountRepository.debitIfSufficient("HOT2", amount)).thenReturn(0, 1);
+        when(hotAccountService.sweep("HOT2")).thenReturn(new BigDecimal("400"));
+        when(accountRepository.credit("RECEIVER3", amount)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber(anyString())).thenReturn(BigDecimal.ZERO);
+        when(hotAccountService.pendingBalance("HOT2")).thenReturn(BigDecimal.ZERO);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> {
+            Transaction t = i.getArgument(0);
+            t.setTransactionId(5);
+            return t;
+        });
 
-        Map<String, Object> result = transactionService.getTransactionsByUserId(userId);
+        Map<String, Object> result = transfer(sender, receiver, amount);
 
         assertTrue((Boolean) result.get("status"));
-        List<?> transactions = (List<?>) result.get("transactions");
-        assertEquals(2, transactions.size());
+        verify(accountRepository, times(2)).debitIfSufficient("HOT2", amount);
+    }
+
+    // Submits a transfer between the given accounts; the lane stub applies it inline
+    private Map<String, Object> transfer(Account sender, Account receiver, BigDecimal amount) {
+        when(transferContextRepository.findTransferContext(anyInt(), anyInt(), anyString(), anyString(), anyString()))
+                .thenReturn(new TransferContext(beneficiary(10, receiver.getUserId(), "100000"), sender, receiver));
+        return transactionService.submitTransaction(sender.getUserId(), 10, receiver.getAccountNumber(), amount,
+                "IFSC001", "BankA", "test", 0, "key").join();
+    }
+
+    private Beneficiary beneficiary(int id, int userId, String limit) {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryId(id);
+        beneficiary.setBeneficiaryUserId(userId);
+        beneficiary.setAmount(new BigDecimal(limit));
+        return beneficiary;
+    }
+
+    private Account account(String number, int userId, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setUserId(userId);
+        account.setIfscCode("IFSC001");
+        account.setBalance(new BigDecimal(balance));
+        return account;
+    }
+
+    @Test
+    void addBatchTransactions_shouldApplyValidEntriesTogether_andReportPerEntryResults() {
+        Account sender = account("SENDER", 1, "1000");
+        when(accountRepository.findByUserIdAndBank(1, "BankA")).thenReturn(List.of(sender));
+        when(beneficiaryRepository.findAllById(any())).thenReturn(List.of(beneficiary(10, 2, "500"), beneficiary(11, 3, "500")));
+        when(accountRepository.findByAccountNumberIn(any())).thenReturn(List.of(account("R1", 2, "100"), account("R2", 3, "0")));
+        when(transferBatchRepository.lockBalances(any())).thenReturn(new HashMap<>(Map.of(
+                "SENDER", new BigDecimal("1000"), "R1", new BigDecimal("100"), "R2", BigDecimal.ZERO)));
+        when(transferBatchRepository.debitIfSufficient("SENDER", new BigDecimal("900"))).thenReturn(1);
+        doAnswer(invocation -> {
+            List<Transaction> txns = invocation.getArgument(0);
+            for (int i = 0; i < txns.size(); i++) {
+                txns.get(i).setTransactionId(100 + i);
+            }
+            return null;
+        }).when(transferBatchRepository).insertTransactions(anyList());
+
+        List<BatchTransferItem> items = List.of(
+                new BatchTransferItem(0, 10, "R1", new BigDecimal("400"), "IFSC001", "salary"),
+                new BatchTransferItem(1, 99, "R1", new BigDecimal("10"), "IFSC001", "unknown beneficiary"),
+                new BatchTransferItem(2, 11, "R2", new BigDecimal("500"), "IFSC001", "salary"),
+                new BatchTransferItem(3, 10, "R1", new BigDecimal("200"), "IFSC001", "over balance")
+        );
+
+        Map<String, Object> result = transactionService.addBatchTransactions(1, "BankA", items);
+
+        assertTrue((Boolean) result.get("status"));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) result.get("results");
+        assertEquals(4, results.size());
+        assertEquals(100, results.get(0).get("transactionId"));
+        assertEquals("Invalid beneficiary or limit exceeded", results.get(1).get("message"));
+        assertEquals(101, results.get(2).get("transactionId"));
+        assertEquals("Insufficient balance", results.get(3).get("message"));
+
+        ArgumentCaptor<Map<String, BigDecimal>> credits = ArgumentCaptor.forClass(Map.class);
+        verify(transferBatchRepository).credit(credits.capture());
+        assertEquals(new BigDecimal("400"), credits.getValue().get("R1"));
+        assertEquals(new BigDecimal("500"), credits.getValue().get("R2"));
+
+        ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(transferBatchRepository).insertTransactions(inserted.capture());
+        assertEquals(new BigDecimal("600"), inserted.getValue().get(0).getCurrentBalanceSender());
+        assertEquals(new BigDecimal("100"), inserted.getValue().get(1).getCurrentBalanceSender());
+        assertEquals(new BigDecimal("500"), inserted.getValue().get(1).getCurrentBalanceReceiver());
+
+        ArgumentCaptor<List<NotificationOutbox>> notifications = ArgumentCaptor.forClass(List.class);
+        verify(transferBatchRepository).insertNotifications(notifications.capture());
+        assertEquals(4, notifications.getValue().size());
+
+        ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(transferBatchRepository).insertLedgerEntries(entries.capture());
+        assertEquals(4, entries.getValue().size());
+    }
+
+    @Test
+    void addBatchTransactions_shouldRejectOversizedBatch() {
+        List<BatchTransferItem> items = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            items.add(new BatchTransferItem(i, 10, "R1", BigDecimal.ONE, "IFSC001", "x"));
+        }
+
+        Map<String, Object> result = transactionService.addBatchTransactions(1, "BankA", items);
+
+        assertFalse((Boolean) result.get("status"));
+        verifyNoInteractions(transferBatchRepository);
+    }
+
+    @Test
+    void getTransactionsByUserId_shouldReturnPageWithNextCursor() {
+        Integer userId = 1;
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+        TransactionSummary sent = new TransactionSummary(102, "Sent", now, null, new BigDecimal("200"), new BigDecimal("800"));
+        TransactionSummary received = new TransactionSummary(101, "Received", now.minusMinutes(1), new BigDecimal("300"), null, new BigDecimal("1000"));
+        TransactionSummary older = new TransactionSummary(100, "Older", now.minusMinutes(2), new BigDecimal("50"), null, new BigDecimal("700"));
+
+        when(transactionStatementRepository.findPage(userId, null, 3)).thenReturn(List.of(sent, received, older));
+
+        Map<String, Object> result = transactionService.getTransactionsByUserId(userId, null, 2);
+
+        assertTrue((Boolean) result.get("status"));
+        assertEquals(List.of(sent, received), result.get("transactions"));
+        String next = (String) result.get("nextCursor");
+        assertNotNull(next);
+
+        // The cursor points at the last line returned, which was a credit
+        when(transactionStatementRepository.findPage(eq(userId), any(), eq(3))).thenReturn(List.of(older));
+        Map<String, Object> secondPage = transactionService.getTransactionsByUserId(userId, next, 2);
+
+        ArgumentCaptor<TransactionStatementRepository.Cursor> cursor = ArgumentCaptor.forClass(TransactionStatementRepository.Cursor.class);
+        verify(transactionStatementRepository, times(2)).findPage(eq(userId), cursor.capture(), eq(3));
+        assertEquals(new TransactionStatementRepository.Cursor(now.minusMinutes(1), 101, false), cursor.getValue());
+        assertEquals(List.of(older), secondPage.get("transactions"));
+        assertNull(secondPage.get("nextCursor"));
+    }
+
+    @Test
+    void getTransactionsByUserId_shouldServeRefreshFromCache_andIncludeCommittedTransfers() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+        TransactionSummary older = new TransactionSummary(100, "Older", now.minusMinutes(2), new BigDecimal("50"), null, new BigDecimal("700"));
+        when(transactionStatementRepository.findPage(1, null, 3)).thenReturn(List.of(older));
+
+        transactionService.getTransactionsByUserId(1, null, 2);
+        Map<String, Object> refresh = transactionService.getTransactionsByUserId(1, null, 2);
+
+        verify(transactionStatementRepository, times(1)).findPage(anyInt(), any(), anyInt());
+        assertEquals(List.of(older), refresh.get("transactions"));
+
+        // A committed transfer from user 1 shows up on the next refresh without a query
+        Account sender = account("SENDER9", 1, "700");
+        Account receiver = account("RECEIVER9", 2, "0");
+        when(accountRepository.debitIfSufficient("SENDER9", BigDecimal.TEN)).thenReturn(1);
+        when(accountRepository.credit("RECEIVER9", BigDecimal.TEN)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("SENDER9")).thenReturn(new BigDecimal("690"));
+        when(accountRepository.findBalanceByAccountNumber("RECEIVER9")).thenReturn(new BigDecimal("10"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction t = invocation.getArgument(0);
+            t.setTransactionId(101);
+            return t;
+        });
+        transfer(sender, receiver, BigDecimal.TEN);
+
+        List<?> lines = (List<?>) transactionService.getTransactionsByUserId(1, null, 2).get("transactions");
+        assertEquals(2, lines.size());
+        TransactionSummary newest = (TransactionSummary) lines.get(0);
+        assertEquals(101, newest.getTransactionId());
+        assertEquals(BigDecimal.TEN, newest.getDebitedAmount());
+        verify(transactionStatementRepository, times(1)).findPage(anyInt(), any(), anyInt());
+    }
+
+    @Test
+    void getTransactionsByUserId_shouldRejectBadCursorAndLimit() {
+        assertThrows(CustomException.class, () -> transactionService.getTransactionsByUserId(1, "not-a-cursor", 50));
+        assertThrows(CustomException.class, () -> transactionService.getTransactionsByUserId(1, null, 0));
+        verifyNoInteractions(transactionStatementRepository);
     }
 
     @Test
     void getTransactionsByUserId_shouldThrowCustomException_onFailure() {
-        when(transactionRepository.findBySenderIdAndFlag(anyInt(), any())).thenThrow(new RuntimeException("Database failure"));
+        when(transactionStatementRepository.findPage(anyInt(), any(), anyInt())).thenThrow(new RuntimeException("Database failure"));
 
-        assertThrows(CustomException.class, () -> transactionService.getTransactionsByUserId(1));
+        assertThrows(CustomException.class, () -> transactionService.getTransactionsByUserId(1, null, 50));
     }
-}
 
+    @Test
+    void submitTransaction_shouldReplayRememberedResponse_forSameIdempotencyKey() {
+        Map<String, Object> original = Map.of("status", true, "message", "Transaction successful", "transactionId", 9);
+        idempotencyStore.complete("1:key-1", original);
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-1").join();
+
+        assertSame(original, result);
+        verifyNoInteractions(transferContextRepository, accountRepository, transactionRepository);
+    }
+
+    @Test
+    void submitTransaction_shouldReplayStoredTransaction_whenKeyOnlyInDatabase() {
+        Transaction stored = new Transaction();
+        stored.setTransactionId(42);
+        stored.setFlag(Transaction.TransactionFlag.COMPLETED);
+        stored.setMarked(Transaction.TransactionMarked.NORMAL);
+        when(transactionRepository.findByIdempotencyKey("1:key-2")).thenReturn(Optional.of(stored));
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-2").join();
+
+        assertTrue((Boolean) result.get("status"));
+        assertEquals(42, result.get("transactionId"));
+        assertSame(result, idempotencyStore.get("1:key-2"));
+        verifyNoInteractions(transferContextRepository, accountRepository);
+    }
+
+    @Test
+    void submitTransaction_shouldRejectDuplicate_whileKeyInFlight() {
+        when(transactionRepository.findByIdempotencyKey("1:key-3")).thenReturn(Optional.empty());
+        assertTrue(idempotencyStore.begin("1:key-3"));
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-3").join();
+
+        assertFalse((Boolean) result.get("status"));
+        verifyNoInteractions(transferContextRepository, accountRepository);
+    }
+
+    @Test
+    void submitTransaction_shouldReleaseKey_whenTransferFails() {
+        when(transactionRepository.findByIdempotencyKey("1:key-4")).thenReturn(Optional.empty());
+        when(transferContextRepository.findTransferContext(2, 1, "BankA", "123", "IFSC001"))
+                .thenReturn(new TransferContext(null, null, null));
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "123", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-4").join();
+
+        assertFalse((Boolean) result.get("status"));
+        assertNull(idempotencyStore.get("1:key-4"));
+        assertTrue(idempotencyStore.begin("1:key-4"));
+    }
+
+    @Test
+    void submitTransaction_shouldApplyOnSenderLane_andRememberResponse() {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryUserId(3);
+        beneficiary.setAmount(new BigDecimal("1000"));
+
+        Account sender = new Account();
+        sender.setAccountNumber("SENDER5");
+        sender.setBalance(new BigDecimal("1000"));
+        Account receiver = new Account();
+        receiver.setAccountNumber("RECEIVER5");
+        receiver.setBalance(new BigDecimal("200"));
+
+        when(transactionRepository.findByIdempotencyKey("1:key-5")).thenReturn(Optional.empty());
+        when(transferContextRepository.findTransferContext(2, 1, "BankA", "RECEIVER5", "IFSC001"))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
+        when(accountRepository.debitIfSufficient("SENDER5", BigDecimal.TEN)).thenReturn(1);
+        when(accountRepository.credit("RECEIVER5", BigDecimal.TEN)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber(anyString())).thenReturn(BigDecimal.ONE);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction t = invocation.getArgument(0);
+            t.setTransactionId(5);
+            return t;
+        });
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "RECEIVER5", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-5").join();
+
+        assertTrue((Boolean) result.get("status"));
+        assertEquals(5, result.get("transactionId"));
+        assertSame(result, idempotencyStore.get("1:key-5"));
+        assertSame(result, transactionService.getTransferStatus(1, "key-5"));
+    }
+
+    @Test
+    void submitTransaction_shouldReleaseKey_whenLaneFails() {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryUserId(3);
+        beneficiary.setAmount(new BigDecimal("1000"));
+        Account sender = new Account();
+        sender.setAccountNumber("SENDER6");
+        sender.setBalance(new BigDecimal("1000"));
+        Account receiver = new Account();
+        receiver.setAccountNumber("RECEIVER6");
+
+        when(transactionRepository.findByIdempotencyKey("1:key-6")).thenReturn(Optional.empty());
+        when(transferContextRepository.findTransferContext(2, 1, "BankA", "RECEIVER6", "IFSC001"))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
+        when(transferLanes.submit(eq("SENDER6"), anyCollection(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("deadlock")));
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "RECEIVER6", BigDecimal.TEN, "IFSC001", "BankA", "desc", 0, "key-6").join();
+
+        assertFalse((Boolean) result.get("status"));
+        assertEquals("Transaction failed: deadlock", result.get("message"));
+        assertFalse(idempotencyStore.isInFlight("1:key-6"));
+        assertNull(idempotencyStore.get("1:key-6"));
+    }
+
+    @Test
+    void submitTransaction_shouldHoldSuspiciousTransfer_onTheSendersLane() {
+        Beneficiary beneficiary = new Beneficiary();
+        beneficiary.setBeneficiaryUserId(3);
+        beneficiary.setAmount(new BigDecimal("1000"));
+        Account sender = account("SENDER9", 1, "1000");
+        Account receiver = account("RECEIVER9", 3, "0");
+
+        when(transactionRepository.findByIdempotencyKey("1:key-9")).thenReturn(Optional.empty());
+        when(transferContextRepository.findTransferContext(2, 1, "BankA", "RECEIVER9", "IFSC001"))
+                .thenReturn(new TransferContext(beneficiary, sender, receiver));
+        when(accountRepository.reserveIfSufficient("SENDER9", BigDecimal.TEN)).thenReturn(1);
+        when(accountRepository.findBalanceByAccountNumber("SENDER9")).thenReturn(new BigDecimal("990"));
+
+        Map<String, Object> result = transactionService.submitTransaction(1, 2, "RECEIVER9", BigDecimal.TEN, "IFSC001", "BankA", "desc", 3, "key-9").join();
+
+        assertEquals("Transaction suspicious: Multiple incorrect OTP attempts", result.get("message"));
+        verify(accountRepository).reserveIfSufficient("SENDER9", BigDecimal.TEN);
+        verify(transactionRepository).save(argThat(Transaction::isFundsHeld));
+        assertSame(result, idempotencyStore.get("1:key-9"));
+    }
+
+    @Test
+    void getTransferStatus_shouldReportProcessing_whileKeyInFlight() {
+        when(transactionRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        assertTrue(idempotencyStore.begin("1:key-7"));
+
+        Map<String, Object> processing = transactionService.getTransferStatus(1, "key-7");
+        Map<String, Object> unknown = transactionService.getTransferStatus(1, "key-8");
+
+        assertEquals("Transaction is being processed", processing.get("message"));
+        assertEquals("key-7", processing.get("reference"));
+        assertFalse((Boolean) unknown.get("status"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.secure.services;
+
+import com.secure.repository.TransferBatchRepository;
+import com.secure.utils.TransferLanes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransferLanesTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TransferBatchRepository transferBatchRepository;
+
+    private TransferLanes lanes;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        // One lane, so every transfer below queues behind the previous one
+        lanes = new TransferLanes(transactionTemplate, transferBatchRepository, 1, 4, 32, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void submit_commitsQueuedTransfersAsOneGroup_lockingTheirAccountsInOrder() throws Exception {
+        CountDownLatch release = blockLane();
+        CompletableFuture<Map<String, Object>> first = lanes.submit("ACC", List.of("ACC", "Z"), ok(1));
+        CompletableFuture<Map<String, Object>> second = lanes.submit("ACC", List.of("ACC", "B"), ok(2));
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).get("n"));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS).get("n"));
+        assertEquals(2L, lanes.stats().get("groupCommits"));
+        assertEquals(0L, lanes.stats().get("groupFallbacks"));
+
+        ArgumentCaptor<Collection<String>> locked = ArgumentCaptor.forClass(Collection.class);
+        verify(transferBatchRepository, times(2)).lockBalances(locked.capture());
+        assertEquals(List.of("ACC", "B", "Z"), new ArrayList<>(locked.getAllValues().get(1)));
+    }
+
+    @Test
+    void submit_appliesGroupOneByOne_whenOneTransferFails() throws Exception {
+        CountDownLatch release = blockLane();
+        CompletableFuture<Map<String, Object>> before = lanes.submit("ACC", List.of("ACC"), ok(1));
+        CompletableFuture<Map<String, Object>> failing = lanes.submit("ACC", List.of("ACC"), () -> {
+            throw new IllegalStateException("Receiver account not found");
+        });
+        CompletableFuture<Map<String, Object>> after = lanes.submit("ACC", List.of("ACC"), ok(3));
+        release.countDown();
+
+        assertEquals(1, before.get(5, TimeUnit.SECONDS).get("n"));
+        assertEquals(3, after.get(5, TimeUnit.SECONDS).get("n"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(1L, lanes.stats().get("groupFallbacks"));
+    }
+
+    @Test
+    void submit_retriesDeadlockVictims_andGivesUpAfterTheLastAttempt() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Map<String, Object> result = lanes.submit("ACC", List.of("ACC"), () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+            }
+            return Map.of("status", true);
+        }).get(5, TimeUnit.SECONDS);
+
+        // The group attempt and the first attempt on its own lose, the retry commits
+        assertEquals(true, result.get("status"));
+        assertEquals(3, attempts.get());
+        assertEquals(1L, lanes.stats().get("deadlockRetries"));
+
+        AtomicInteger losing = new AtomicInteger();
+        CompletableFuture<Map<String, Object>> victim = lanes.submit("ACC", List.of("ACC"), () -> {
+            losing.incrementAndGet();
+            throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+        });
+
+        assertThrows(ExecutionException.class, () -> victim.get(5, TimeUnit.SECONDS));
+        assertEquals(4, losing.get());
+    }
+
+    @Test
+    void submit_failsSingleTransferWithoutRetry_whenErrorIsNotADeadlock() {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Map<String, Object>> failing = lanes.submit("ACC", List.of("ACC"), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Receiver account not found");
+        });
+
+        assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+        assertEquals(0L, lanes.stats().get("groupFallbacks"));
+    }
+
+    @Test
+    void submit_rejectsTransfer_whenLaneIsFull() throws Exception {
+        CountDownLatch release = blockLane();
+        for (int i = 0; i < 4; i++) {
+            lanes.submit("ACC", List.of("ACC"), ok(i));
+        }
+
+        Map<String, Object> result = lanes.submit("ACC", List.of("ACC"), ok(5)).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertEquals(false, result.get("status"));
+        assertEquals("Too many pending transfers, please try again", result.get("message"));
+        assertEquals(1L, lanes.stats().get("rejected"));
+    }
+
+    // Occupies the lane's worker until the returned latch is released
+    private CountDownLatch blockLane() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.submit("ACC", List.of("ACC"), () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of("status", true);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static Supplier<Map<String, Object>> ok(int n) {
+        return () -> Map.of("status", true, "n", n);
+    }
+}